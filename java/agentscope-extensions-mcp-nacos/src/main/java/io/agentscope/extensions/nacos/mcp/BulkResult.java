@@ -0,0 +1,114 @@
+/*
+ * Copyright 1999-2025 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.agentscope.extensions.nacos.mcp;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Result of bulk operations on MCP servers, such as subscribing or building clients of many MCP servers.
+ *
+ * <p>Failure of one MCP server doesn't fail the others, results are separated into successes and failures, both keyed
+ * by MCP server name.
+ *
+ * @param <T> type of the result of each MCP server
+ * @author xiweng.yy
+ */
+public class BulkResult<T> {
+    
+    private final Map<String, T> successes;
+    
+    private final Map<String, Throwable> failures;
+    
+    private BulkResult(Map<String, T> successes, Map<String, Throwable> failures) {
+        this.successes = Collections.unmodifiableMap(successes);
+        this.failures = Collections.unmodifiableMap(failures);
+    }
+    
+    /**
+     * Run operation for each MCP server concurrently, at most {@code parallelism} operations in flight.
+     *
+     * @param mcpNames    names of MCP servers
+     * @param parallelism max number of concurrent operations
+     * @param operation   operation for each MCP server
+     * @param <T>         type of the result of each MCP server
+     * @return the bulk result, completed when all operations completed
+     */
+    public static <T> Mono<BulkResult<T>> execute(Collection<String> mcpNames, int parallelism,
+            Function<String, Mono<T>> operation) {
+        if (null == mcpNames) {
+            throw new IllegalArgumentException("MCP server names can not be null.");
+        }
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("Parallelism should be positive.");
+        }
+        return Flux.fromIterable(mcpNames).distinct().flatMap(mcpName -> Mono.defer(() -> operation.apply(mcpName))
+                        .switchIfEmpty(Mono.error(() -> new IllegalStateException("MCP server not found: " + mcpName)))
+                        .map(result -> new Outcome<>(mcpName, result, null))
+                        .onErrorResume(error -> Mono.just(new Outcome<>(mcpName, null, error))), parallelism)
+                .collectList().map(BulkResult::from);
+    }
+    
+    private static <T> BulkResult<T> from(Collection<Outcome<T>> outcomes) {
+        Map<String, T> successes = new LinkedHashMap<>(outcomes.size());
+        Map<String, Throwable> failures = new LinkedHashMap<>(2);
+        for (Outcome<T> each : outcomes) {
+            if (null == each.error()) {
+                successes.put(each.mcpName(), each.result());
+            } else {
+                failures.put(each.mcpName(), each.error());
+            }
+        }
+        return new BulkResult<>(successes, failures);
+    }
+    
+    /**
+     * Get succeeded results.
+     *
+     * @return results of succeeded MCP servers, key is MCP server name
+     */
+    public Map<String, T> getSuccesses() {
+        return successes;
+    }
+    
+    /**
+     * Get failures.
+     *
+     * @return errors of failed MCP servers, key is MCP server name
+     */
+    public Map<String, Throwable> getFailures() {
+        return failures;
+    }
+    
+    public boolean isAllSucceeded() {
+        return failures.isEmpty();
+    }
+    
+    @Override
+    public String toString() {
+        return "BulkResult{" + "successes=" + successes.keySet() + ", failures=" + failures.keySet() + '}';
+    }
+    
+    private record Outcome<T>(String mcpName, T result, Throwable error) {
+    }
+}
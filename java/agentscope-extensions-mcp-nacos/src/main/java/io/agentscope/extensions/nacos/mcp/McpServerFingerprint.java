@@ -0,0 +1,163 @@
+/*
+ * Copyright 1999-2025 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.agentscope.extensions.nacos.mcp;
+
+import com.alibaba.nacos.api.ai.model.mcp.McpEndpointInfo;
+import com.alibaba.nacos.api.ai.model.mcp.McpServerDetailInfo;
+import com.alibaba.nacos.api.ai.model.mcp.McpTool;
+import com.alibaba.nacos.api.ai.model.mcp.McpToolMeta;
+import com.alibaba.nacos.api.ai.model.mcp.McpToolSpecification;
+import com.alibaba.nacos.common.utils.MD5Utils;
+import io.agentscope.extensions.nacos.mcp.utils.CanonicalJsonUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Stable fingerprint of the fields in {@link McpServerDetailInfo} which matter to MCP clients and tools.
+ *
+ * <ul>
+ *     <li>{@link #connection()} covers protocol, front protocol and endpoints, changes of it need to rebuild the
+ *     transport of MCP client.</li>
+ *     <li>{@link #tools()} covers the schema hash of each tool, changes of it only need to update tool metadata.</li>
+ *     <li>{@link #version()} is the version of MCP server, changes of it might change the results of tools.</li>
+ *     <li>{@link #metadata()} covers the client side metadata of MCP server, see {@link McpServerMetadata}.</li>
+ * </ul>
+ *
+ * <p>Other fields such as description are not included, changes of them can be ignored by MCP clients.
+ *
+ * @param connection the fingerprint of connection relevant fields
+ * @param tools      the schema hash of each tool, key is tool name
+ * @param version    the version of MCP server
+ * @param metadata   the fingerprint of MCP server metadata
+ * @author xiweng.yy
+ */
+public record McpServerFingerprint(String connection, Map<String, String> tools, String version,
+        String metadata) {
+    
+    /**
+     * Calculate fingerprint of MCP server.
+     *
+     * @param mcpServer the MCP server detail info
+     * @return fingerprint of the MCP server
+     */
+    public static McpServerFingerprint of(McpServerDetailInfo mcpServer) {
+        return new McpServerFingerprint(connectionFingerprint(mcpServer), toolsFingerprint(mcpServer.getToolSpec()),
+                version(mcpServer), metadataFingerprint(mcpServer.getToolSpec()));
+    }
+    
+    /**
+     * Whether the connection to MCP server should be rebuilt.
+     *
+     * @param other the fingerprint to compare
+     * @return {@code true} if protocol or endpoints changed
+     */
+    public boolean isConnectionChanged(McpServerFingerprint other) {
+        return !Objects.equals(connection, other.connection);
+    }
+    
+    /**
+     * Whether any tool of MCP server added, removed or changed.
+     *
+     * @param other the fingerprint to compare
+     * @return {@code true} if tools changed
+     */
+    public boolean isToolsChanged(McpServerFingerprint other) {
+        return !Objects.equals(tools, other.tools);
+    }
+    
+    /**
+     * Whether the version of MCP server changed.
+     *
+     * @param other the fingerprint to compare
+     * @return {@code true} if version changed
+     */
+    public boolean isVersionChanged(McpServerFingerprint other) {
+        return !Objects.equals(version, other.version);
+    }
+    
+    /**
+     * Whether the metadata of MCP server changed.
+     *
+     * @param other the fingerprint to compare
+     * @return {@code true} if metadata changed
+     */
+    public boolean isMetadataChanged(McpServerFingerprint other) {
+        return !Objects.equals(metadata, other.metadata);
+    }
+    
+    private static String version(McpServerDetailInfo mcpServer) {
+        if (null != mcpServer.getVersionDetail() && null != mcpServer.getVersionDetail().getVersion()) {
+            return mcpServer.getVersionDetail().getVersion();
+        }
+        return mcpServer.getVersion();
+    }
+    
+    private static String connectionFingerprint(McpServerDetailInfo mcpServer) {
+        StringBuilder result = new StringBuilder();
+        result.append(mcpServer.getProtocol()).append('|').append(mcpServer.getFrontProtocol());
+        result.append('|').append(endpointsFingerprint(mcpServer.getFrontendEndpoints()));
+        result.append('|').append(endpointsFingerprint(mcpServer.getBackendEndpoints()));
+        return md5(result.toString());
+    }
+    
+    private static String endpointsFingerprint(List<McpEndpointInfo> endpoints) {
+        if (null == endpoints) {
+            return "";
+        }
+        // Sort to ignore the order of endpoints.
+        Collection<String> result = new TreeSet<>();
+        for (McpEndpointInfo each : endpoints) {
+            result.add(String.format("%s://%s:%d%s#%s", each.getProtocol(), each.getAddress(), each.getPort(),
+                    each.getPath(), CanonicalJsonUtils.toJson(each.getHeaders())));
+        }
+        return String.join(",", result);
+    }
+    
+    private static Map<String, String> toolsFingerprint(McpToolSpecification toolSpec) {
+        if (null == toolSpec || null == toolSpec.getTools()) {
+            return Collections.emptyMap();
+        }
+        Map<String, McpToolMeta> toolsMeta = null == toolSpec.getToolsMeta() ? Collections.emptyMap()
+                : toolSpec.getToolsMeta();
+        Map<String, String> result = new TreeMap<>();
+        for (McpTool each : toolSpec.getTools()) {
+            McpToolMeta meta = toolsMeta.get(each.getName());
+            String toolFingerprint = each.getDescription() + '|' + CanonicalJsonUtils.toJson(each.getInputSchema())
+                    + '|' + CanonicalJsonUtils.toJson(meta);
+            result.put(each.getName(), md5(toolFingerprint));
+        }
+        return Collections.unmodifiableMap(result);
+    }
+    
+    private static String metadataFingerprint(McpToolSpecification toolSpec) {
+        if (null == toolSpec || null == toolSpec.getExtensions()) {
+            return "";
+        }
+        return md5(CanonicalJsonUtils.toJson(toolSpec.getExtensions()));
+    }
+    
+    private static String md5(String content) {
+        return MD5Utils.md5Hex(content, StandardCharsets.UTF_8.name());
+    }
+}
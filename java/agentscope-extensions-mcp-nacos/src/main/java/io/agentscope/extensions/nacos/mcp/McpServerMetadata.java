@@ -0,0 +1,167 @@
+/*
+ * Copyright 1999-2025 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.agentscope.extensions.nacos.mcp;
+
+import com.alibaba.nacos.api.ai.model.mcp.McpServerDetailInfo;
+import com.alibaba.nacos.api.ai.model.mcp.McpToolMeta;
+import com.alibaba.nacos.api.ai.model.mcp.McpToolSpecification;
+import com.alibaba.nacos.common.utils.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.LinkedHashSet;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Client side metadata of MCP server and tools set in Nacos.
+ *
+ * <ul>
+ *     <li>Metadata of MCP server is read from {@link McpToolSpecification#getExtensions()}.</li>
+ *     <li>Metadata of tool is read from {@link McpToolMeta#getInvokeContext()}.</li>
+ * </ul>
+ *
+ * @author xiweng.yy
+ */
+public final class McpServerMetadata {
+    
+    private static final Logger log = LoggerFactory.getLogger(McpServerMetadata.class);
+    
+    /**
+     * Min concurrency limit of MCP server.
+     */
+    public static final String CONCURRENCY_MIN_LIMIT = "agentscope.concurrency.minLimit";
+    
+    /**
+     * Max concurrency limit of MCP server.
+     */
+    public static final String CONCURRENCY_MAX_LIMIT = "agentscope.concurrency.maxLimit";
+    
+    /**
+     * Max number of calls waiting for concurrency limit of MCP server, 0 means fail fast.
+     */
+    public static final String CONCURRENCY_MAX_QUEUE_SIZE = "agentscope.concurrency.maxQueueSize";
+    
+    /**
+     * Latency in milliseconds above which the concurrency limit of MCP server will be decreased.
+     */
+    public static final String CONCURRENCY_LATENCY_THRESHOLD_MILLIS = "agentscope.concurrency.latencyThresholdMillis";
+    
+    /**
+     * Timeout in milliseconds of calling tools, can be set for MCP server or for each tool, and tool level one takes
+     * precedence.
+     */
+    public static final String TIMEOUT_MILLIS = "agentscope.timeout.millis";
+    
+    /**
+     * Tags of MCP server separated by comma, used to discover MCP servers by
+     * {@link io.agentscope.extensions.nacos.mcp.discovery.McpServerDiscovery}.
+     */
+    public static final String TAGS = "agentscope.tags";
+    
+    private McpServerMetadata() {
+    }
+    
+    /**
+     * Get metadata of MCP server.
+     *
+     * @param mcpServer the MCP server detail info
+     * @param key       the key of metadata
+     * @return the value of metadata, empty if not set
+     */
+    public static Optional<String> getServerMetadata(McpServerDetailInfo mcpServer, String key) {
+        McpToolSpecification toolSpec = mcpServer.getToolSpec();
+        if (null == toolSpec || null == toolSpec.getExtensions()) {
+            return Optional.empty();
+        }
+        Object value = toolSpec.getExtensions().get(key);
+        return null == value ? Optional.empty() : Optional.of(String.valueOf(value));
+    }
+    
+    /**
+     * Get tags of MCP server from metadata {@link #TAGS}.
+     *
+     * @param mcpServer the MCP server detail info
+     * @return the tags of MCP server, empty if not set
+     */
+    public static Set<String> getServerTags(McpServerDetailInfo mcpServer) {
+        Set<String> result = new LinkedHashSet<>();
+        getServerMetadata(mcpServer, TAGS).ifPresent(value -> {
+            for (String each : value.split(",")) {
+                if (StringUtils.isNotBlank(each)) {
+                    result.add(each.trim());
+                }
+            }
+        });
+        return result;
+    }
+    
+    /**
+     * Get metadata of tool.
+     *
+     * @param mcpServer the MCP server detail info
+     * @param toolName  the name of tool
+     * @param key       the key of metadata
+     * @return the value of metadata, empty if not set
+     */
+    public static Optional<String> getToolMetadata(McpServerDetailInfo mcpServer, String toolName, String key) {
+        McpToolSpecification toolSpec = mcpServer.getToolSpec();
+        if (null == toolSpec || null == toolSpec.getToolsMeta()) {
+            return Optional.empty();
+        }
+        McpToolMeta toolMeta = toolSpec.getToolsMeta().get(toolName);
+        if (null == toolMeta || null == toolMeta.getInvokeContext()) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(toolMeta.getInvokeContext().get(key));
+    }
+    
+    /**
+     * Get metadata of MCP server as long.
+     *
+     * @param mcpServer the MCP server detail info
+     * @param key       the key of metadata
+     * @return the value of metadata, empty if not set or not a number
+     */
+    public static Optional<Long> getServerMetadataAsLong(McpServerDetailInfo mcpServer, String key) {
+        return getServerMetadata(mcpServer, key).flatMap(value -> parseLong(key, value));
+    }
+    
+    /**
+     * Get metadata of tool as long.
+     *
+     * @param mcpServer the MCP server detail info
+     * @param toolName  the name of tool
+     * @param key       the key of metadata
+     * @return the value of metadata, empty if not set or not a number
+     */
+    public static Optional<Long> getToolMetadataAsLong(McpServerDetailInfo mcpServer, String toolName, String key) {
+        return getToolMetadata(mcpServer, toolName, key).flatMap(value -> parseLong(key, value));
+    }
+    
+    private static Optional<Long> parseLong(String key, String value) {
+        if (StringUtils.isBlank(value)) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(Long.parseLong(value.trim()));
+        } catch (NumberFormatException e) {
+            log.warn("Ignore invalid metadata {}={}, which should be a number.", key, value);
+            return Optional.empty();
+        }
+    }
+}
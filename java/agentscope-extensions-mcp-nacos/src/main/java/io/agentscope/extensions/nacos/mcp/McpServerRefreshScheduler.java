@@ -0,0 +1,198 @@
+/*
+ * Copyright 1999-2025 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.agentscope.extensions.nacos.mcp;
+
+import com.alibaba.nacos.api.ai.model.mcp.McpServerDetailInfo;
+import com.alibaba.nacos.common.executor.ExecutorFactory;
+import com.alibaba.nacos.common.executor.NameThreadFactory;
+import com.alibaba.nacos.common.utils.ThreadUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+/**
+ * Scheduler to refresh MCP clients asynchronously when MCP server changed in Nacos.
+ *
+ * <ul>
+ *     <li>Refreshes for the same MCP server run one at a time.</li>
+ *     <li>Refreshes for different MCP servers run in parallel.</li>
+ *     <li>Changes arrived within the coalesce delay or during a running refresh are collapsed, only the latest
+ *     {@link McpServerDetailInfo} will be used to refresh.</li>
+ * </ul>
+ *
+ * @author xiweng.yy
+ */
+public class McpServerRefreshScheduler {
+    
+    private static final Logger log = LoggerFactory.getLogger(McpServerRefreshScheduler.class);
+    
+    private static final Duration DEFAULT_COALESCE_DELAY = Duration.ofMillis(100);
+    
+    private final ScheduledExecutorService executor;
+    
+    private final long coalesceDelayMillis;
+    
+    private final Map<String, ServerRefresher> refreshers;
+    
+    public McpServerRefreshScheduler() {
+        this(Runtime.getRuntime().availableProcessors(), DEFAULT_COALESCE_DELAY);
+    }
+    
+    /**
+     * Create scheduler with own executor.
+     *
+     * @param parallelism   max number of MCP servers refreshing in parallel
+     * @param coalesceDelay delay before refreshing, changes arrived during the delay will be collapsed
+     */
+    public McpServerRefreshScheduler(int parallelism, Duration coalesceDelay) {
+        this(ExecutorFactory.newScheduledExecutorService(parallelism,
+                new NameThreadFactory("io.agentscope.extensions.nacos.mcp.refresh")), coalesceDelay);
+    }
+    
+    /**
+     * Create scheduler with input executor.
+     *
+     * @param executor      the executor to run refreshes
+     * @param coalesceDelay delay before refreshing, changes arrived during the delay will be collapsed
+     */
+    public McpServerRefreshScheduler(ScheduledExecutorService executor, Duration coalesceDelay) {
+        this.executor = executor;
+        this.coalesceDelayMillis = Math.max(0, coalesceDelay.toMillis());
+        this.refreshers = new ConcurrentHashMap<>(2);
+    }
+    
+    /**
+     * Schedule a non-blocking refresh for MCP server. Returns immediately without waiting for refresh, the next
+     * refresh of the same MCP server starts after the returned {@link Mono} completed.
+     *
+     * @param mcpName   the name of MCP server
+     * @param mcpServer the new MCP server detail info
+     * @param refresher the refresh action, only called with the latest MCP server detail info
+     */
+    public void scheduleAsync(String mcpName, McpServerDetailInfo mcpServer,
+            Function<McpServerDetailInfo, Mono<Void>> refresher) {
+        refreshers.computeIfAbsent(mcpName, ServerRefresher::new).submit(mcpServer, refresher);
+    }
+    
+    /**
+     * Drop the pending refresh of MCP server, called when MCP server is no longer subscribed.
+     *
+     * <p>The refresher of MCP server is kept, so that the running refresh, if any, still blocks the refresh scheduled
+     * by a later subscription of the same MCP server.
+     *
+     * @param mcpName the name of MCP server
+     */
+    public void cancel(String mcpName) {
+        ServerRefresher refresher = refreshers.get(mcpName);
+        if (null != refresher) {
+            refresher.pending.set(null);
+        }
+    }
+    
+    /**
+     * Run task after delay on the executor of this scheduler.
+     *
+     * @param task  the task
+     * @param delay the delay before running task
+     * @return the future of task, {@code null} if the scheduler is shutdown
+     */
+    ScheduledFuture<?> scheduleDelayed(Runnable task, Duration delay) {
+        try {
+            return executor.schedule(task, delay.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            log.debug("Refresh scheduler is shutdown, ignore delayed task.");
+            return null;
+        }
+    }
+    
+    /**
+     * Shutdown the scheduler, pending refreshes will be dropped.
+     */
+    public void shutdown() {
+        ThreadUtils.shutdownThreadPool(executor, log);
+        refreshers.clear();
+    }
+    
+    private class ServerRefresher implements Runnable {
+        
+        private final String mcpName;
+        
+        private final AtomicReference<PendingRefresh> pending;
+        
+        private final AtomicBoolean scheduled;
+        
+        private ServerRefresher(String mcpName) {
+            this.mcpName = mcpName;
+            this.pending = new AtomicReference<>();
+            this.scheduled = new AtomicBoolean(false);
+        }
+        
+        private void submit(McpServerDetailInfo mcpServer, Function<McpServerDetailInfo, Mono<Void>> refresher) {
+            PendingRefresh replaced = pending.getAndSet(new PendingRefresh(mcpServer, refresher));
+            if (null != replaced) {
+                log.debug("Collapse refresh of MCP server {} into the latest one.", mcpName);
+            }
+            trySchedule();
+        }
+        
+        private void trySchedule() {
+            if (null == pending.get() || !scheduled.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                executor.schedule(this, coalesceDelayMillis, TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException e) {
+                scheduled.set(false);
+                log.warn("Refresh scheduler is shutdown, ignore refresh of MCP server {}.", mcpName);
+            }
+        }
+        
+        @Override
+        public void run() {
+            PendingRefresh refresh = pending.getAndSet(null);
+            Mono<Void> running;
+            try {
+                running = null == refresh ? Mono.empty() : refresh.refresher().apply(refresh.mcpServer());
+            } catch (Throwable throwable) {
+                running = Mono.error(throwable);
+            }
+            running.onErrorResume(throwable -> {
+                log.error("Failed to refresh MCP server {}.", mcpName, throwable);
+                return Mono.empty();
+            }).doFinally(signal -> {
+                scheduled.set(false);
+                // New changes arrived during refreshing.
+                trySchedule();
+            }).subscribe();
+        }
+    }
+    
+    private record PendingRefresh(McpServerDetailInfo mcpServer, Function<McpServerDetailInfo, Mono<Void>> refresher) {
+    
+    }
+}
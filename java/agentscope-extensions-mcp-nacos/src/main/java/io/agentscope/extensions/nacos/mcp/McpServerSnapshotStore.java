@@ -0,0 +1,298 @@
+/*
+ * Copyright 1999-2025 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.agentscope.extensions.nacos.mcp;
+
+import com.alibaba.nacos.api.ai.model.mcp.McpServerDetailInfo;
+import com.alibaba.nacos.common.executor.ExecutorFactory;
+import com.alibaba.nacos.common.executor.NameThreadFactory;
+import com.alibaba.nacos.common.utils.JacksonUtils;
+import com.alibaba.nacos.common.utils.ThreadUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * On-disk snapshot of {@link McpServerDetailInfo} subscribed from Nacos.
+ *
+ * <p>With snapshot, {@link NacosMcpServerManager} starts MCP clients from the snapshot immediately and reconciles when
+ * the subscription from Nacos arrives, so that agents start fast and keep serving tools when Nacos is unreachable.
+ *
+ * <ul>
+ *     <li>All MCP servers are stored in one compact JSON file, which is loaded by one memory-mapped read.</li>
+ *     <li>Changes are written asynchronously, changes within the flush delay are collapsed into one write.</li>
+ *     <li>The file is replaced atomically, and only readable by owner if the file system supports POSIX.</li>
+ * </ul>
+ *
+ * <p>Note that the snapshot contains everything of MCP servers from Nacos, including the headers of endpoints.
+ *
+ * @author xiweng.yy
+ */
+public class McpServerSnapshotStore {
+    
+    private static final Logger log = LoggerFactory.getLogger(McpServerSnapshotStore.class);
+    
+    private static final int FORMAT_VERSION = 1;
+    
+    private static final Duration DEFAULT_FLUSH_DELAY = Duration.ofSeconds(1);
+    
+    private static final Set<PosixFilePermission> OWNER_ONLY = PosixFilePermissions.fromString("rw-------");
+    
+    private final Path file;
+    
+    private final long flushDelayMillis;
+    
+    private final Map<String, McpServerDetailInfo> mcpServers;
+    
+    private final AtomicBoolean flushScheduled;
+    
+    private final ScheduledExecutorService executor;
+    
+    public McpServerSnapshotStore(Path file) {
+        this(file, DEFAULT_FLUSH_DELAY);
+    }
+    
+    /**
+     * Create snapshot store.
+     *
+     * @param file       the snapshot file
+     * @param flushDelay the delay to write changes into file
+     */
+    public McpServerSnapshotStore(Path file, Duration flushDelay) {
+        if (null == file) {
+            throw new IllegalArgumentException("Snapshot file can not be null.");
+        }
+        if (null == flushDelay || flushDelay.isNegative()) {
+            throw new IllegalArgumentException("Flush delay can not be null or negative.");
+        }
+        this.file = file.toAbsolutePath();
+        this.flushDelayMillis = flushDelay.toMillis();
+        this.mcpServers = new ConcurrentHashMap<>(2);
+        this.flushScheduled = new AtomicBoolean(false);
+        this.executor = ExecutorFactory.newSingleScheduledExecutorService(
+                new NameThreadFactory("io.agentscope.extensions.nacos.mcp.snapshot"));
+    }
+    
+    /**
+     * Load all MCP servers from snapshot file.
+     *
+     * @return MCP servers in snapshot, key is MCP server name, empty if no snapshot or snapshot is broken
+     */
+    public Map<String, McpServerDetailInfo> load() {
+        if (!Files.isRegularFile(file)) {
+            log.info("No MCP server snapshot found in {}.", file);
+            return Collections.emptyMap();
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            SnapshotFile snapshot = JacksonUtils.toObj(new ByteBufferInputStream(buffer), SnapshotFile.class);
+            if (null == snapshot || FORMAT_VERSION != snapshot.getVersion() || null == snapshot.getMcpServers()) {
+                log.warn("Ignore MCP server snapshot {} with unknown format.", file);
+                return Collections.emptyMap();
+            }
+            // Keep the loaded ones, so that the next writing won't drop MCP servers not subscribed yet.
+            snapshot.getMcpServers().forEach(mcpServers::putIfAbsent);
+            log.info("Loaded {} MCP servers from snapshot {}.", snapshot.getMcpServers().size(), file);
+            return Collections.unmodifiableMap(snapshot.getMcpServers());
+        } catch (Exception e) {
+            log.warn("Failed to load MCP server snapshot {}, ignore it.", file, e);
+            return Collections.emptyMap();
+        }
+    }
+    
+    /**
+     * Save the latest MCP server into snapshot, the file is written asynchronously.
+     *
+     * @param mcpServer the latest MCP server from Nacos
+     */
+    public void save(McpServerDetailInfo mcpServer) {
+        if (null == mcpServer || null == mcpServer.getName()) {
+            return;
+        }
+        mcpServers.put(mcpServer.getName(), mcpServer);
+        scheduleFlush();
+    }
+    
+    /**
+     * Remove MCP server from snapshot, called when MCP server is no longer subscribed. The file is written
+     * asynchronously.
+     *
+     * @param mcpName the name of MCP server
+     */
+    public void remove(String mcpName) {
+        if (null == mcpName || null == mcpServers.remove(mcpName)) {
+            return;
+        }
+        scheduleFlush();
+    }
+    
+    private void scheduleFlush() {
+        if (flushScheduled.compareAndSet(false, true)) {
+            try {
+                executor.schedule(this::scheduledFlush, flushDelayMillis, TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException e) {
+                flushScheduled.set(false);
+                log.debug("MCP server snapshot store {} is shutdown, skip writing.", file);
+            }
+        }
+    }
+    
+    /**
+     * Write all MCP servers into snapshot file immediately.
+     */
+    public synchronized void flush() {
+        Path tempFile = file.resolveSibling(file.getFileName() + ".tmp");
+        try {
+            if (null != file.getParent()) {
+                Files.createDirectories(file.getParent());
+            }
+            SnapshotFile snapshot = new SnapshotFile();
+            snapshot.setVersion(FORMAT_VERSION);
+            snapshot.setMcpServers(new HashMap<>(mcpServers));
+            createOwnerOnly(tempFile);
+            Files.write(tempFile, JacksonUtils.toJsonBytes(snapshot));
+            moveAtomically(tempFile);
+            log.debug("Wrote {} MCP servers into snapshot {}.", snapshot.getMcpServers().size(), file);
+        } catch (Exception e) {
+            log.warn("Failed to write MCP server snapshot {}.", file, e);
+        }
+    }
+    
+    /**
+     * Write pending changes and stop writing. Should be called when the store is no longer used, such as closing
+     * {@link NacosMcpServerManager} with this store.
+     */
+    public void shutdown() {
+        if (executor.isShutdown()) {
+            return;
+        }
+        ThreadUtils.shutdownThreadPool(executor);
+        if (flushScheduled.getAndSet(false)) {
+            flush();
+        }
+    }
+    
+    public Path getFile() {
+        return file;
+    }
+    
+    private void scheduledFlush() {
+        // Reset before writing, so that changes during writing schedule another flush.
+        flushScheduled.set(false);
+        flush();
+    }
+    
+    /**
+     * Create an empty file only readable by owner before writing, so that the content is never readable by others.
+     */
+    private static void createOwnerOnly(Path tempFile) throws IOException {
+        Files.deleteIfExists(tempFile);
+        if (FileSystems.getDefault().supportedFileAttributeViews().contains("posix")) {
+            Files.createFile(tempFile, PosixFilePermissions.asFileAttribute(OWNER_ONLY));
+        } else {
+            Files.createFile(tempFile);
+        }
+    }
+    
+    private void moveAtomically(Path tempFile) throws IOException {
+        try {
+            Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+    
+    /**
+     * Content of snapshot file.
+     */
+    static class SnapshotFile {
+        
+        private int version;
+        
+        private Map<String, McpServerDetailInfo> mcpServers;
+        
+        public int getVersion() {
+            return version;
+        }
+        
+        public void setVersion(int version) {
+            this.version = version;
+        }
+        
+        public Map<String, McpServerDetailInfo> getMcpServers() {
+            return mcpServers;
+        }
+        
+        public void setMcpServers(Map<String, McpServerDetailInfo> mcpServers) {
+            this.mcpServers = mcpServers;
+        }
+    }
+    
+    /**
+     * Read memory-mapped file without copying it into heap first.
+     */
+    private static class ByteBufferInputStream extends InputStream {
+        
+        private final ByteBuffer buffer;
+        
+        private ByteBufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+        
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+        }
+        
+        @Override
+        public int read(byte[] bytes, int offset, int length) {
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            int result = Math.min(length, buffer.remaining());
+            buffer.get(bytes, offset, result);
+            return result;
+        }
+        
+        @Override
+        public int available() {
+            return buffer.remaining();
+        }
+    }
+}
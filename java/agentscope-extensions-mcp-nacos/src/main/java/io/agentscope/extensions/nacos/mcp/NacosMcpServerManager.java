@@ -27,37 +27,171 @@ import com.alibaba.nacos.common.utils.ConcurrentHashSet;
 import com.alibaba.nacos.common.utils.JacksonUtils;
 import com.alibaba.nacos.common.utils.StringUtils;
 import io.agentscope.extensions.nacos.mcp.client.NacosMcpClientWrapper;
+import io.agentscope.extensions.nacos.mcp.metrics.McpMetrics;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.retry.Retry;
 
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Manager of MCP Server discovery by Nacos.
  *
+ * <p>Changes of MCP Server from Nacos are refreshed to subscribed clients asynchronously by
+ * {@link McpServerRefreshScheduler}, which won't block the notification thread of Nacos client.
+ * <p>MCP servers can be saved into {@link McpServerSnapshotStore}, so that MCP clients can start without Nacos.
+ * <p>MCP servers keep subscribed until manager closed by default. With {@link #setIdleTimeout(Duration) idle timeout}
+ * set, MCP servers without open clients for the timeout are unsubscribed from Nacos and dropped from caches, and
+ * subscribed again when used next time.
+ *
  * @author xiweng.yy
  */
-public class NacosMcpServerManager {
+public class NacosMcpServerManager implements AutoCloseable {
     
     private static final Logger log = LoggerFactory.getLogger(NacosMcpServerManager.class);
     
+    private static final Duration SUBSCRIBE_RETRY_MIN_BACKOFF = Duration.ofSeconds(1);
+    
+    private static final Duration SUBSCRIBE_RETRY_MAX_BACKOFF = Duration.ofMinutes(1);
+    
+    private static final AtomicInteger INSTANCE_SEQUENCE = new AtomicInteger();
+    
     private final AiService aiService;
     
     private final Map<String, McpServerDetailInfo> mcpServerCaches;
     
+    private final Map<String, McpServerFingerprint> mcpServerFingerprints;
+    
     private final Map<String, McpServerListener> mcpServerListeners;
     
+    private final Map<String, CompletableFuture<McpServerDetailInfo>> inflightSubscriptions;
+    
     private final Map<String, Set<NacosMcpClientWrapper>> subscribeMcpClients;
     
+    private final McpServerRefreshScheduler refreshScheduler;
+    
+    private final McpMetrics metrics;
+    
+    private final McpServerSnapshotStore snapshotStore;
+    
+    private final Map<String, McpServerDetailInfo> snapshots;
+    
+    private final Map<String, ScheduledFuture<?>> evictions;
+    
+    private final boolean ownAiService;
+    
+    private final boolean ownRefreshScheduler;
+    
+    private volatile Duration idleTimeout;
+    
+    private final String instanceId;
+    
+    private volatile boolean closed;
+    
     public NacosMcpServerManager(AiService aiService) {
+        this(aiService, new McpServerRefreshScheduler(), McpMetrics.detect(), null, false, true);
+    }
+    
+    public NacosMcpServerManager(AiService aiService, McpServerRefreshScheduler refreshScheduler) {
+        this(aiService, refreshScheduler, McpMetrics.detect());
+    }
+    
+    /**
+     * Create manager with metrics.
+     *
+     * @param aiService        the Nacos Ai Client instance
+     * @param refreshScheduler the scheduler to refresh MCP clients
+     * @param metrics          the metrics of this manager and MCP clients built from it, see
+     *                         {@link McpMetrics#detect()} and {@link McpMetrics#noop()}
+     */
+    public NacosMcpServerManager(AiService aiService, McpServerRefreshScheduler refreshScheduler,
+            McpMetrics metrics) {
+        this(aiService, refreshScheduler, metrics, null);
+    }
+    
+    /**
+     * Create manager with metrics and snapshot store.
+     *
+     * <p>With snapshot store, MCP servers in snapshot are returned by {@link #getMcpServer(String)} without waiting
+     * for Nacos, and subscribed from Nacos asynchronously. The latest MCP servers from Nacos are saved into snapshot.
+     *
+     * @param aiService        the Nacos Ai Client instance
+     * @param refreshScheduler the scheduler to refresh MCP clients
+     * @param metrics          the metrics of this manager and MCP clients built from it
+     * @param snapshotStore    the snapshot store of MCP servers, {@code null} means no snapshot
+     */
+    public NacosMcpServerManager(AiService aiService, McpServerRefreshScheduler refreshScheduler,
+            McpMetrics metrics, McpServerSnapshotStore snapshotStore) {
+        this(aiService, refreshScheduler, metrics, snapshotStore, false, false);
+    }
+    
+    private NacosMcpServerManager(AiService aiService, McpServerRefreshScheduler refreshScheduler,
+            McpMetrics metrics, McpServerSnapshotStore snapshotStore, boolean ownAiService,
+            boolean ownRefreshScheduler) {
         this.aiService = aiService;
+        this.refreshScheduler = refreshScheduler;
+        this.metrics = null == metrics ? McpMetrics.noop() : metrics;
+        this.snapshotStore = snapshotStore;
+        this.snapshots = null == snapshotStore ? Collections.emptyMap()
+                : new ConcurrentHashMap<>(snapshotStore.load());
+        this.evictions = new ConcurrentHashMap<>(2);
+        this.ownAiService = ownAiService;
+        this.ownRefreshScheduler = ownRefreshScheduler;
         this.mcpServerCaches = new ConcurrentHashMap<>(2);
+        this.mcpServerFingerprints = new ConcurrentHashMap<>(2);
         this.mcpServerListeners = new ConcurrentHashMap<>(2);
         this.subscribeMcpClients = new ConcurrentHashMap<>(2);
+        this.inflightSubscriptions = new ConcurrentHashMap<>(2);
+        this.instanceId = "nacos-mcp-server-manager-" + INSTANCE_SEQUENCE.incrementAndGet();
+        registerGauges();
+    }
+    
+    private void registerGauges() {
+        metrics.gauge("agentscope.mcp.servers.cached", "Number of MCP servers cached from Nacos.", instanceId,
+                mcpServerCaches, Map::size);
+        metrics.gauge("agentscope.mcp.servers.subscribed", "Number of MCP servers subscribed from Nacos.",
+                instanceId, mcpServerListeners, Map::size);
+        metrics.gauge("agentscope.mcp.clients.subscribed", "Number of MCP clients subscribed to MCP servers.",
+                instanceId, subscribeMcpClients, clients -> clients.values().stream().mapToInt(Set::size).sum());
+    }
+    
+    /**
+     * Get metrics of this manager, which is also used by MCP clients built from this manager.
+     *
+     * @return the metrics
+     */
+    public McpMetrics getMetrics() {
+        return metrics;
+    }
+    
+    /**
+     * Set how long MCP servers without open MCP clients keep subscribed, MCP servers idle longer are unsubscribed
+     * from Nacos and dropped from caches.
+     *
+     * <p>Default is {@code null}, which means never unsubscribe until manager closed.
+     *
+     * @param idleTimeout the idle timeout of MCP servers
+     */
+    public void setIdleTimeout(Duration idleTimeout) {
+        if (null != idleTimeout && idleTimeout.isNegative()) {
+            throw new IllegalArgumentException("Idle timeout can not be negative.");
+        }
+        this.idleTimeout = idleTimeout;
     }
     
     /**
@@ -67,15 +201,193 @@ public class NacosMcpServerManager {
      * @return the MCP server detail info
      */
     public McpServerDetailInfo getMcpServer(String mcpName) {
+        checkMcpName(mcpName);
+        McpServerDetailInfo cached = mcpServerCaches.get(mcpName);
+        if (null != cached) {
+            return cached;
+        }
+        McpServerDetailInfo fromSnapshot = getFromSnapshot(mcpName);
+        if (null != fromSnapshot) {
+            return fromSnapshot;
+        }
+        // Subscribe in caller thread if no other subscription of the MCP server is running.
+        try {
+            return subscribeOnce(mcpName, Runnable::run).join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException runtimeException ? runtimeException
+                    : new NacosRuntimeException(NacosException.SERVER_ERROR, e.getCause());
+        }
+    }
+    
+    /**
+     * Get MCP server detail info by MCP name without blocking caller.
+     *
+     * <p>Concurrent calls of the same MCP server share one subscription to Nacos, which runs on
+     * {@link Schedulers#boundedElastic()}.
+     *
+     * @param mcpName the name of MCP server
+     * @return the MCP server detail info
+     */
+    public Mono<McpServerDetailInfo> getMcpServerAsync(String mcpName) {
+        return Mono.defer(() -> {
+            checkMcpName(mcpName);
+            McpServerDetailInfo cached = mcpServerCaches.get(mcpName);
+            if (null != cached) {
+                return Mono.just(cached);
+            }
+            McpServerDetailInfo fromSnapshot = getFromSnapshot(mcpName);
+            if (null != fromSnapshot) {
+                return Mono.just(fromSnapshot);
+            }
+            return Mono.fromFuture(subscribeOnce(mcpName, task -> Schedulers.boundedElastic().schedule(task)),
+                    true);
+        });
+    }
+    
+    /**
+     * Query MCP server detail info by MCP name without subscribing it from Nacos, such as checking whether the MCP
+     * server should be used. Cached MCP server is returned if already subscribed.
+     *
+     * @param mcpName the name of MCP server
+     * @return the MCP server detail info, empty if not found
+     */
+    public Mono<McpServerDetailInfo> queryMcpServerAsync(String mcpName) {
+        return Mono.defer(() -> {
+            checkMcpName(mcpName);
+            McpServerDetailInfo cached = mcpServerCaches.get(mcpName);
+            if (null != cached) {
+                return Mono.just(cached);
+            }
+            return Mono.fromCallable(() -> aiService.getMcpServer(mcpName)).subscribeOn(Schedulers.boundedElastic())
+                    .onErrorMap(NacosException.class,
+                            e -> new NacosRuntimeException(e.getErrCode(), e.getErrMsg(), e));
+        });
+    }
+    
+    private void checkMcpName(String mcpName) {
+        if (closed) {
+            throw new NacosRuntimeException(NacosException.CLIENT_INVALID_PARAM, "MCP server manager is closed.");
+        }
         if (StringUtils.isBlank(mcpName)) {
             throw new NacosRuntimeException(NacosException.INVALID_PARAM, "mcpName can not be null or blank.");
         }
-        if (mcpServerCaches.containsKey(mcpName)) {
-            return mcpServerCaches.get(mcpName);
+    }
+    
+    /**
+     * Subscribe MCP server from Nacos, only one subscription runs for each MCP server at the same time, concurrent
+     * callers share the result of the running one.
+     */
+    private CompletableFuture<McpServerDetailInfo> subscribeOnce(String mcpName, Executor executor) {
+        CompletableFuture<McpServerDetailInfo> subscription = new CompletableFuture<>();
+        CompletableFuture<McpServerDetailInfo> running = inflightSubscriptions.putIfAbsent(mcpName, subscription);
+        if (null != running) {
+            return running;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    subscription.complete(subscribeAndCache(mcpName));
+                } catch (Throwable e) {
+                    subscription.completeExceptionally(e);
+                } finally {
+                    inflightSubscriptions.remove(mcpName, subscription);
+                }
+            });
+        } catch (RuntimeException e) {
+            inflightSubscriptions.remove(mcpName, subscription);
+            subscription.completeExceptionally(e);
+        }
+        return subscription;
+    }
+    
+    private McpServerDetailInfo subscribeAndCache(String mcpName) {
+        // Cached by the subscription which just finished before this one started.
+        McpServerDetailInfo cached = mcpServerCaches.get(mcpName);
+        if (null != cached) {
+            return cached;
         }
         McpServerDetailInfo result = getAndSubscribe(mcpName);
+        if (null == result) {
+            throw new NacosRuntimeException(NacosException.NOT_FOUND, String.format("MCP Server %s not found.",
+                    mcpName));
+        }
         // If already put by listener, use listener put value
-        return mcpServerCaches.computeIfAbsent(mcpName, name -> result);
+        cached = mcpServerCaches.computeIfAbsent(mcpName, name -> result);
+        mcpServerFingerprints.putIfAbsent(mcpName, McpServerFingerprint.of(cached));
+        saveSnapshot(cached);
+        // Unsubscribe if no MCP client built from it in idle timeout.
+        scheduleEvictionIfIdle(mcpName);
+        return cached;
+    }
+    
+    /**
+     * Get and subscribe many MCP servers concurrently, failure of one MCP server doesn't fail the others.
+     *
+     * @param mcpNames    names of MCP servers
+     * @param parallelism max number of MCP servers subscribed concurrently
+     * @return MCP server detail infos and failures, keyed by MCP server name
+     */
+    public BulkResult<McpServerDetailInfo> getMcpServers(Collection<String> mcpNames, int parallelism) {
+        return BulkResult.execute(mcpNames, parallelism, this::getMcpServerAsync).block();
+    }
+    
+    /**
+     * Use MCP server in snapshot first, then subscribe from Nacos asynchronously and reconcile with the snapshot.
+     * Subscribing is retried until succeed, so that MCP server is refreshed when Nacos recovered. Each snapshot is
+     * only used once, MCP servers unsubscribed by idle are subscribed from Nacos directly next time.
+     *
+     * @return MCP server in snapshot, {@code null} if not in snapshot
+     */
+    private McpServerDetailInfo getFromSnapshot(String mcpName) {
+        McpServerDetailInfo snapshot = snapshots.remove(mcpName);
+        if (null == snapshot) {
+            return null;
+        }
+        McpServerDetailInfo existed = mcpServerCaches.putIfAbsent(mcpName, snapshot);
+        if (null != existed) {
+            return existed;
+        }
+        mcpServerFingerprints.putIfAbsent(mcpName, McpServerFingerprint.of(snapshot));
+        log.info("Use MCP Server {} from snapshot, subscribe from Nacos asynchronously.", mcpName);
+        scheduleEvictionIfIdle(mcpName);
+        // Stop subscribing if the MCP server is evicted or manager closed before Nacos recovered.
+        Mono.fromCallable(() -> closed || !mcpServerCaches.containsKey(mcpName) ? null : getAndSubscribe(mcpName))
+                .subscribeOn(Schedulers.boundedElastic())
+                .retryWhen(Retry.backoff(Long.MAX_VALUE, SUBSCRIBE_RETRY_MIN_BACKOFF)
+                        .maxBackoff(SUBSCRIBE_RETRY_MAX_BACKOFF).doBeforeRetry(
+                                signal -> log.warn("Failed to subscribe MCP Server {} from Nacos, retry later.",
+                                        mcpName, signal.failure())))
+                .subscribe(this::updateMcpServer,
+                        error -> log.error("Failed to subscribe MCP Server {} from Nacos.", mcpName, error));
+        return snapshot;
+    }
+    
+    /**
+     * Update MCP server from Nacos, and refresh subscribed clients if fingerprint changed.
+     */
+    private void updateMcpServer(McpServerDetailInfo mcpServer) {
+        McpServerFingerprint fingerprint = McpServerFingerprint.of(mcpServer);
+        McpServerFingerprint previous = mcpServerFingerprints.put(mcpServer.getName(), fingerprint);
+        mcpServerCaches.put(mcpServer.getName(), mcpServer);
+        saveSnapshot(mcpServer);
+        if (fingerprint.equals(previous)) {
+            log.debug("MCP Server {} changed without changing fingerprint, skip refresh.", mcpServer.getName());
+            return;
+        }
+        refreshScheduler.scheduleAsync(mcpServer.getName(), mcpServer, this::refreshMcpClients);
+    }
+    
+    private Mono<Void> refreshMcpClients(McpServerDetailInfo mcpServer) {
+        // Failure of one client won't stop refreshing others.
+        return Flux.fromIterable(subscribeMcpClients.getOrDefault(mcpServer.getName(), new HashSet<>()))
+                .flatMap(mcpClient -> mcpClient.refreshAsync(mcpServer).onErrorResume(error -> Mono.empty()))
+                .then();
+    }
+    
+    private void saveSnapshot(McpServerDetailInfo mcpServer) {
+        if (null != snapshotStore && null != mcpServer) {
+            snapshotStore.save(mcpServer);
+        }
     }
     
     /**
@@ -85,9 +397,19 @@ public class NacosMcpServerManager {
      * @param mcpClient the MCP client wrapper instance
      */
     public void registerSubscribeMcpClient(String mcpName, NacosMcpClientWrapper mcpClient) {
-        Set<NacosMcpClientWrapper> subscribeClients = subscribeMcpClients.computeIfAbsent(mcpName,
-                name -> new ConcurrentHashSet<>());
-        subscribeClients.add(mcpClient);
+        subscribeMcpClients.compute(mcpName, (name, clients) -> {
+            Set<NacosMcpClientWrapper> result = null == clients ? new ConcurrentHashSet<>() : clients;
+            result.add(mcpClient);
+            return result;
+        });
+        cancelEviction(mcpName);
+        if (!closed && !mcpServerListeners.containsKey(mcpName) && !inflightSubscriptions.containsKey(mcpName)) {
+            // Unsubscribed by idle between building and initializing the client, subscribe again.
+            log.info("MCP Server {} is used again after unsubscribed by idle, subscribe again.", mcpName);
+            Mono.fromFuture(subscribeOnce(mcpName, task -> Schedulers.boundedElastic().schedule(task)), true)
+                    .flatMap(mcpClient::refreshAsync)
+                    .subscribe(null, error -> log.error("Failed to subscribe MCP Server {} again.", mcpName, error));
+        }
     }
     
     /**
@@ -100,7 +422,127 @@ public class NacosMcpServerManager {
         Set<NacosMcpClientWrapper> subscribeClients = subscribeMcpClients.get(mcpName);
         if (null != subscribeClients) {
             subscribeClients.remove(mcpClient);
+            scheduleEvictionIfIdle(mcpName);
+        }
+    }
+    
+    private boolean isIdle(String mcpName) {
+        Set<NacosMcpClientWrapper> subscribeClients = subscribeMcpClients.get(mcpName);
+        return null == subscribeClients || subscribeClients.isEmpty();
+    }
+    
+    private void scheduleEvictionIfIdle(String mcpName) {
+        Duration timeout = this.idleTimeout;
+        if (closed || null == timeout || !isIdle(mcpName)) {
+            return;
+        }
+        ScheduledFuture<?> eviction = refreshScheduler.scheduleDelayed(() -> evictIfIdle(mcpName), timeout);
+        if (null == eviction) {
+            return;
         }
+        ScheduledFuture<?> previous = evictions.put(mcpName, eviction);
+        if (null != previous) {
+            previous.cancel(false);
+        }
+    }
+    
+    private void cancelEviction(String mcpName) {
+        ScheduledFuture<?> eviction = evictions.remove(mcpName);
+        if (null != eviction) {
+            eviction.cancel(false);
+        }
+    }
+    
+    private void evictIfIdle(String mcpName) {
+        evictions.remove(mcpName);
+        if (inflightSubscriptions.containsKey(mcpName)) {
+            return;
+        }
+        // Check idle and drop the listener atomically, so that client registered concurrently either keeps the
+        // subscription, or sees it dropped and subscribes again.
+        McpServerListener[] listener = new McpServerListener[1];
+        boolean[] idle = new boolean[1];
+        subscribeMcpClients.compute(mcpName, (name, clients) -> {
+            idle[0] = null == clients || clients.isEmpty();
+            if (idle[0]) {
+                listener[0] = detach(mcpName);
+            }
+            return idle[0] ? null : clients;
+        });
+        if (idle[0]) {
+            log.info("MCP Server {} has no MCP client for {}, unsubscribe it.", mcpName, idleTimeout);
+            unsubscribe(mcpName, listener[0]);
+            if (null != snapshotStore) {
+                snapshotStore.remove(mcpName);
+            }
+        }
+    }
+    
+    private void release(String mcpName) {
+        unsubscribe(mcpName, detach(mcpName));
+    }
+    
+    /**
+     * Drop the listener and caches of MCP server.
+     *
+     * @return the dropped listener, {@code null} if not subscribed
+     */
+    private McpServerListener detach(String mcpName) {
+        McpServerListener listener = mcpServerListeners.remove(mcpName);
+        mcpServerCaches.remove(mcpName);
+        mcpServerFingerprints.remove(mcpName);
+        refreshScheduler.cancel(mcpName);
+        return listener;
+    }
+    
+    /**
+     * Unsubscribe MCP server from Nacos, called out of the lock of subscribed clients since it's a remote call.
+     */
+    private void unsubscribe(String mcpName, McpServerListener listener) {
+        if (null == listener) {
+            return;
+        }
+        try {
+            aiService.unsubscribeMcpServer(mcpName, listener);
+        } catch (NacosException e) {
+            log.warn("Failed to unsubscribe MCP Server {} from Nacos.", mcpName, e);
+        }
+    }
+    
+    /**
+     * Unsubscribe all MCP servers from Nacos in parallel and release resources owned by this manager, including
+     * the snapshot store, and the refresh scheduler and Nacos Ai Client if created by this manager.
+     *
+     * <p>MCP clients built from this manager won't be refreshed after closed, they should be closed by their owners.
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        evictions.values().forEach(eviction -> eviction.cancel(false));
+        evictions.clear();
+        Flux.fromIterable(mcpServerListeners.keySet().stream().toList())
+                .flatMap(mcpName -> Mono.fromRunnable(() -> release(mcpName)).subscribeOn(Schedulers.boundedElastic()))
+                .then().block();
+        mcpServerCaches.clear();
+        subscribeMcpClients.clear();
+        metrics.removeGauges(instanceId);
+        if (null != snapshotStore) {
+            snapshotStore.shutdown();
+        }
+        if (ownRefreshScheduler) {
+            refreshScheduler.shutdown();
+        }
+        if (ownAiService) {
+            try {
+                aiService.shutdown();
+            } catch (NacosException e) {
+                log.warn("Failed to shutdown Nacos Ai Client.", e);
+            }
+        }
+        log.info("MCP server manager closed.");
     }
     
     private McpServerDetailInfo getAndSubscribe(String mcpName) {
@@ -120,7 +562,8 @@ public class NacosMcpServerManager {
      * @throws NacosException if failed to create AiService from properties
      */
     public static NacosMcpServerManager from(Properties properties) throws NacosException {
-        return from(AiFactory.createAiService(properties));
+        return new NacosMcpServerManager(AiFactory.createAiService(properties), new McpServerRefreshScheduler(),
+                McpMetrics.detect(), null, true, true);
     }
     
     /**
@@ -141,9 +584,11 @@ public class NacosMcpServerManager {
                 log.debug("MCP Server {} changed, new MCP Server Detail: {}", event.getMcpName(),
                         JacksonUtils.toJson(event.getMcpServerDetailInfo()));
             }
-            mcpServerCaches.put(event.getMcpServerDetailInfo().getName(), event.getMcpServerDetailInfo());
-            subscribeMcpClients.getOrDefault(event.getMcpName(), new HashSet<>())
-                    .forEach(mcpClient -> mcpClient.refresh(event.getMcpServerDetailInfo()));
+            if (mcpServerListeners.get(event.getMcpName()) != this) {
+                log.debug("MCP Server {} is unsubscribed, ignore the change.", event.getMcpName());
+                return;
+            }
+            updateMcpServer(event.getMcpServerDetailInfo());
         }
     }
 }
@@ -0,0 +1,106 @@
+/*
+ * Copyright 1999-2025 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.agentscope.extensions.nacos.mcp.client;
+
+import reactor.util.context.Context;
+import reactor.util.context.ContextView;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Deadline of the caller of MCP tools, such as the remaining time budget of agent reasoning step.
+ *
+ * <p>The deadline is passed to {@link NacosMcpClientWrapper#callTool} by reactor context, calls of MCP tools will be
+ * cancelled when the deadline expired even though the timeout of tool is longer.
+ *
+ * <pre>{@code
+ *  // Pass by reactor context.
+ *  mcpClient.callTool(toolName, arguments).contextWrite(CallDeadline.after(Duration.ofSeconds(30))::writeTo);
+ *  // Or pass by tool execution context when calling NacosMcpTool.
+ *  ToolExecutionContext.builder().register(CallDeadline.class, CallDeadline.after(Duration.ofSeconds(30))).build();
+ * }</pre>
+ *
+ * @author xiweng.yy
+ */
+public final class CallDeadline {
+    
+    private static final Class<CallDeadline> CONTEXT_KEY = CallDeadline.class;
+    
+    private final long deadlineNanos;
+    
+    private CallDeadline(long deadlineNanos) {
+        this.deadlineNanos = deadlineNanos;
+    }
+    
+    /**
+     * Create deadline after the timeout from now.
+     *
+     * @param timeout the time budget from now
+     * @return the deadline
+     */
+    public static CallDeadline after(Duration timeout) {
+        if (null == timeout || timeout.isNegative()) {
+            throw new IllegalArgumentException("timeout should not be null or negative.");
+        }
+        return new CallDeadline(System.nanoTime() + timeout.toNanos());
+    }
+    
+    /**
+     * Get deadline from reactor context.
+     *
+     * @param context the reactor context
+     * @return the deadline, empty if not set
+     */
+    public static Optional<CallDeadline> from(ContextView context) {
+        return context.getOrEmpty(CONTEXT_KEY);
+    }
+    
+    /**
+     * Write this deadline into reactor context. If there is already a deadline in context, the earlier one is kept so
+     * that nested calls never outlive their callers.
+     *
+     * @param context the reactor context
+     * @return the reactor context with deadline
+     */
+    public Context writeTo(Context context) {
+        CallDeadline existed = context.getOrDefault(CONTEXT_KEY, null);
+        if (null != existed && existed.deadlineNanos - deadlineNanos <= 0) {
+            return context;
+        }
+        return context.put(CONTEXT_KEY, this);
+    }
+    
+    /**
+     * Get the remaining time before this deadline.
+     *
+     * @return the remaining time, {@link Duration#ZERO} if expired
+     */
+    public Duration remaining() {
+        long remaining = deadlineNanos - System.nanoTime();
+        return remaining > 0 ? Duration.ofNanos(remaining) : Duration.ZERO;
+    }
+    
+    public boolean isExpired() {
+        return deadlineNanos - System.nanoTime() <= 0;
+    }
+    
+    @Override
+    public String toString() {
+        return "CallDeadline{remaining=" + remaining() + '}';
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright 1999-2025 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.agentscope.extensions.nacos.mcp.client;
+
+import reactor.core.publisher.Mono;
+import reactor.util.context.ContextView;
+
+import java.time.Duration;
+
+/**
+ * Timeout of one tool call, which tells the calls cancelled by timeout from the calls abandoned by caller.
+ *
+ * <p>The timeout cancels the call like any other cancellation, so the concurrency limiter and circuit breakers
+ * inside the call check {@link #isExpired(ContextView)} to regard the cancelled call as failed. Otherwise a hanging
+ * MCP server, whose calls all end by timeout, is never backed off or ejected.
+ *
+ * <pre>{@code
+ *  CallTimeout.create().apply(mcpClient.callTool(toolName, arguments), Duration.ofSeconds(30),
+ *      Mono.error(new TimeoutException()));
+ * }</pre>
+ *
+ * @author xiweng.yy
+ */
+public final class CallTimeout {
+    
+    private static final Class<CallTimeout> CONTEXT_KEY = CallTimeout.class;
+    
+    private volatile boolean expired;
+    
+    private CallTimeout() {
+    }
+    
+    public static CallTimeout create() {
+        return new CallTimeout();
+    }
+    
+    /**
+     * Whether the call running in the reactor context has been cancelled by its timeout.
+     *
+     * @param context the reactor context
+     * @return {@code true} if timeout of the call expired, {@code false} if not expired or no timeout
+     */
+    public static boolean isExpired(ContextView context) {
+        return context.<CallTimeout>getOrEmpty(CONTEXT_KEY).map(timeout -> timeout.expired).orElse(false);
+    }
+    
+    /**
+     * Cancel the call and switch to fallback when timeout.
+     *
+     * @param call     the call
+     * @param timeout  the timeout of call
+     * @param fallback the fallback when timeout, such as {@link Mono#error(Throwable)}
+     * @param <T>      the type of call result
+     * @return the call with timeout
+     */
+    public <T> Mono<T> apply(Mono<T> call, Duration timeout, Mono<T> fallback) {
+        // Mark expired before the timeout operator cancels the call, so that cancel handlers see it.
+        return call.contextWrite(context -> context.put(CONTEXT_KEY, this))
+                .timeout(Mono.delay(timeout).doOnNext(ignored -> expired = true), fallback);
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright 1999-2025 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.agentscope.extensions.nacos.mcp.client;
+
+import com.alibaba.nacos.api.ai.model.mcp.McpServerDetailInfo;
+import io.agentscope.extensions.nacos.mcp.McpServerMetadata;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Timeouts of calling tools parsed from metadata {@link McpServerMetadata#TIMEOUT_MILLIS} of MCP server, parsed once
+ * per refresh of {@link NacosMcpClientWrapper} rather than by every call.
+ *
+ * @param serverTimeout the timeout of MCP server, {@code null} if not set
+ * @param toolTimeouts  the timeouts of tools which set in tool metadata
+ * @author xiweng.yy
+ */
+record CallTimeouts(Duration serverTimeout, Map<String, Duration> toolTimeouts) {
+    
+    static CallTimeouts of(McpServerDetailInfo mcpServer) {
+        Duration serverTimeout = McpServerMetadata.getServerMetadataAsLong(mcpServer, McpServerMetadata.TIMEOUT_MILLIS)
+                .filter(millis -> millis > 0).map(Duration::ofMillis).orElse(null);
+        if (null == mcpServer.getToolSpec() || null == mcpServer.getToolSpec().getToolsMeta()) {
+            return new CallTimeouts(serverTimeout, Collections.emptyMap());
+        }
+        Map<String, Duration> toolTimeouts = new HashMap<>(2);
+        for (String each : mcpServer.getToolSpec().getToolsMeta().keySet()) {
+            McpServerMetadata.getToolMetadataAsLong(mcpServer, each, McpServerMetadata.TIMEOUT_MILLIS)
+                    .filter(millis -> millis > 0)
+                    .ifPresent(millis -> toolTimeouts.put(each, Duration.ofMillis(millis)));
+        }
+        return new CallTimeouts(serverTimeout, Collections.unmodifiableMap(toolTimeouts));
+    }
+    
+    /**
+     * Get timeout of calling tool, the order is tool metadata, MCP server metadata, then the default timeout.
+     *
+     * @param toolName       the name of tool
+     * @param defaultTimeout the default timeout, {@code null} means no timeout
+     * @return the timeout, {@code null} if no timeout
+     */
+    Duration get(String toolName, Duration defaultTimeout) {
+        Duration result = toolTimeouts.get(toolName);
+        if (null != result) {
+            return result;
+        }
+        return null == serverTimeout ? defaultTimeout : serverTimeout;
+    }
+}
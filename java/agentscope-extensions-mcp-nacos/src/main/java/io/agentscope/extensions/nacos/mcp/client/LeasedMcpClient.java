@@ -0,0 +1,140 @@
+/*
+ * Copyright 1999-2025 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.agentscope.extensions.nacos.mcp.client;
+
+import io.agentscope.core.tool.mcp.McpClientWrapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Actual MCP client used by {@link NacosMcpClientWrapper} with tracking of in-flight calls.
+ *
+ * <p>Each call should acquire a lease before using the MCP client and release it after finished. When the client
+ * is replaced by refresh, it is retired and closed after all leases released or drain timeout expired.
+ *
+ * @author xiweng.yy
+ */
+class LeasedMcpClient {
+    
+    private static final Logger log = LoggerFactory.getLogger(LeasedMcpClient.class);
+    
+    /**
+     * Leases count of closed client, far less than 0 so that late releases won't make it back to 0.
+     */
+    private static final int CLOSED = Integer.MIN_VALUE / 2;
+    
+    private final McpClientWrapper mcpClient;
+    
+    private final AtomicInteger leases;
+    
+    private volatile boolean retired;
+    
+    LeasedMcpClient(McpClientWrapper mcpClient) {
+        this.mcpClient = mcpClient;
+        this.leases = new AtomicInteger();
+        this.retired = false;
+    }
+    
+    McpClientWrapper getMcpClient() {
+        return mcpClient;
+    }
+    
+    /**
+     * Try to acquire a lease of this client.
+     *
+     * @return {@code true} if acquired, {@code false} if this client has been closed
+     */
+    boolean tryAcquire() {
+        while (true) {
+            int current = leases.get();
+            if (current < 0) {
+                return false;
+            }
+            if (leases.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+    
+    void release() {
+        if (leases.decrementAndGet() == 0 && retired) {
+            tryClose();
+        }
+    }
+    
+    /**
+     * Retire this client, it will be closed after all leases released or drain timeout expired.
+     *
+     * @param drainTimeout max time waiting for in-flight calls
+     */
+    void retire(Duration drainTimeout) {
+        retired = true;
+        if (tryClose()) {
+            return;
+        }
+        int inflight = leases.get();
+        if (inflight > 0) {
+            log.info("Draining {} in-flight calls of MCP client {} before closing.", inflight, mcpClient.getName());
+            Mono.delay(drainTimeout, Schedulers.boundedElastic()).subscribe(ignored -> closeAfterDrainTimeout());
+        }
+    }
+    
+    /**
+     * Close this client immediately whatever calls in-flight.
+     */
+    void forceClose() {
+        if (leases.getAndSet(CLOSED) >= 0) {
+            closeMcpClient();
+        }
+    }
+    
+    private void closeAfterDrainTimeout() {
+        int inflight = leases.getAndSet(CLOSED);
+        if (inflight < 0) {
+            return;
+        }
+        if (inflight > 0) {
+            log.warn("Drain timeout, force closing MCP client {} with {} in-flight calls.", mcpClient.getName(),
+                    inflight);
+        }
+        closeMcpClient();
+    }
+    
+    private boolean tryClose() {
+        if (leases.compareAndSet(0, CLOSED)) {
+            closeMcpClient();
+            return true;
+        }
+        return false;
+    }
+    
+    private void closeMcpClient() {
+        // Closing MCP client might block, so do not close in caller thread which might be a reactor thread.
+        Schedulers.boundedElastic().schedule(() -> {
+            try {
+                mcpClient.close();
+            } catch (Exception e) {
+                log.warn("Failed to close MCP client {}.", mcpClient.getName(), e);
+            }
+        });
+    }
+}
@@ -0,0 +1,42 @@
+/*
+ * Copyright 1999-2025 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.agentscope.extensions.nacos.mcp.client;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Errors of the actual MCP clients built by {@link McpClientFactory}, same as the errors of
+ * {@link io.agentscope.core.tool.mcp.McpClientWrapper}s in agentscope.
+ *
+ * @author xiweng.yy
+ */
+final class McpClientErrors {
+    
+    private McpClientErrors() {
+    }
+    
+    /**
+     * Error of calling MCP client before initialized.
+     *
+     * @param name the name of MCP client
+     * @param <T>  the type of call result
+     * @return the error
+     */
+    static <T> Mono<T> notInitialized(String name) {
+        return Mono.error(new IllegalStateException("MCP client '" + name + "' not initialized"));
+    }
+}
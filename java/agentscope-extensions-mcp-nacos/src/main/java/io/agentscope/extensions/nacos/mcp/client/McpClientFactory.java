@@ -0,0 +1,207 @@
+/*
+ * Copyright 1999-2025 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.agentscope.extensions.nacos.mcp.client;
+
+import com.alibaba.nacos.api.ai.constant.AiConstants;
+import io.agentscope.core.tool.mcp.McpClientWrapper;
+import io.modelcontextprotocol.client.McpAsyncClient;
+import io.modelcontextprotocol.client.McpClient;
+import io.modelcontextprotocol.client.McpSyncClient;
+import io.modelcontextprotocol.client.transport.HttpClientSseClientTransport;
+import io.modelcontextprotocol.client.transport.HttpClientStreamableHttpTransport;
+import io.modelcontextprotocol.spec.McpClientTransport;
+import io.modelcontextprotocol.spec.McpSchema;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.stream.Collectors;
+
+/**
+ * Default {@link McpClientProvider} to build MCP SDK clients for {@link NacosMcpClientWrapper}.
+ *
+ * <p>Same as {@link io.agentscope.core.tool.mcp.McpClientBuilder}, but keeps the notifications from MCP server, such
+ * as tools changed and progress of tool calls, which are dropped by
+ * {@link io.agentscope.core.tool.mcp.McpClientBuilder}.
+ *
+ * @author xiweng.yy
+ */
+class McpClientFactory implements McpClientProvider {
+    
+    private static final Logger log = LoggerFactory.getLogger(McpClientFactory.class);
+    
+    private static final Duration DEFAULT_REQUEST_TIMEOUT = Duration.ofSeconds(120);
+    
+    private static final Duration DEFAULT_INIT_TIMEOUT = Duration.ofSeconds(30);
+    
+    /**
+     * Version used by {@link io.agentscope.core.tool.mcp.McpClientBuilder} of the agentscope-core this module built
+     * with, used when version of agentscope-core can't be found at runtime.
+     */
+    private static final String DEFAULT_CLIENT_VERSION = "1.0.6";
+    
+    private static final String AGENTSCOPE_CORE_POM_PROPERTIES =
+            "/META-INF/maven/io.agentscope/agentscope-core/pom.properties";
+    
+    private static final McpSchema.Implementation CLIENT_INFO = new McpSchema.Implementation("agentscope-java",
+            "AgentScope Java Framework", clientVersion());
+    
+    private final String name;
+    
+    private final boolean asyncClient;
+    
+    private final Scheduler syncClientScheduler;
+    
+    private final boolean http2;
+    
+    /**
+     * Create factory.
+     *
+     * @param name        the name of MCP server
+     * @param asyncClient whether to build async client
+     */
+    McpClientFactory(String name, boolean asyncClient) {
+        this(name, asyncClient, null, false);
+    }
+    
+    /**
+     * Create factory.
+     *
+     * @param name                the name of MCP server
+     * @param asyncClient         whether to build async client
+     * @param syncClientScheduler the scheduler to run blocking calls of sync client, {@code null} means
+     *                            {@link Schedulers#boundedElastic()}
+     * @param http2               whether to prefer HTTP/2 for streamable HTTP MCP servers
+     */
+    McpClientFactory(String name, boolean asyncClient, Scheduler syncClientScheduler, boolean http2) {
+        this.name = name;
+        this.asyncClient = asyncClient;
+        this.syncClientScheduler = syncClientScheduler;
+        this.http2 = http2;
+    }
+    
+    @Override
+    public Mono<McpClientWrapper> build(String protocol, String baseUrl, String endpoint,
+            Runnable toolsChangedListener) {
+        log.debug("Building Nacos MCP client: {} with URL: {}{} and Protocol: {}", name, baseUrl, endpoint, protocol);
+        return Mono.<McpClientWrapper>fromCallable(() -> {
+            McpClientTransport transport = buildTransport(protocol, baseUrl, encodeQueryParams(endpoint));
+            if (asyncClient) {
+                McpAsyncClient client = McpClient.async(transport).requestTimeout(DEFAULT_REQUEST_TIMEOUT)
+                        .initializationTimeout(DEFAULT_INIT_TIMEOUT).clientInfo(CLIENT_INFO)
+                        .capabilities(McpSchema.ClientCapabilities.builder().build())
+                        .toolsChangeConsumer(tools -> Mono.fromRunnable(() -> onToolsChanged(toolsChangedListener)))
+                        .progressConsumer(notification -> Mono.fromRunnable(
+                                () -> ToolCallProgress.dispatch(notification)))
+                        .build();
+                return new ProgressMcpAsyncClientWrapper(name, client);
+            }
+            McpSyncClient client = McpClient.sync(transport).requestTimeout(DEFAULT_REQUEST_TIMEOUT)
+                    .initializationTimeout(DEFAULT_INIT_TIMEOUT).clientInfo(CLIENT_INFO)
+                    .capabilities(McpSchema.ClientCapabilities.builder().build())
+                    .toolsChangeConsumer(tools -> onToolsChanged(toolsChangedListener))
+                    .progressConsumer(ToolCallProgress::dispatch).build();
+            return null == syncClientScheduler ? new ProgressMcpSyncClientWrapper(name, client)
+                    : new OffloadingMcpSyncClientWrapper(name, client, syncClientScheduler);
+        });
+    }
+    
+    private McpClientTransport buildTransport(String protocol, String baseUrl, String endpoint) {
+        return switch (protocol) {
+            case AiConstants.Mcp.MCP_PROTOCOL_SSE ->
+                    HttpClientSseClientTransport.builder(baseUrl).sseEndpoint(endpoint).build();
+            case AiConstants.Mcp.MCP_PROTOCOL_STREAMABLE -> buildStreamableTransport(baseUrl, endpoint);
+            default -> throw new UnsupportedOperationException("Unsupported mcp protocol: " + protocol);
+        };
+    }
+    
+    private McpClientTransport buildStreamableTransport(String baseUrl, String endpoint) {
+        HttpClientStreamableHttpTransport.Builder builder = HttpClientStreamableHttpTransport.builder(baseUrl)
+                .endpoint(endpoint);
+        if (http2) {
+            // Each JSON-RPC message is one POST, concurrent calls are multiplexed as streams of one connection.
+            builder.clientBuilder(HttpClient.newBuilder().version(HttpClient.Version.HTTP_2));
+        }
+        return builder.build();
+    }
+    
+    private void onToolsChanged(Runnable toolsChangedListener) {
+        log.info("Received tools changed notification from MCP server {}.", name);
+        toolsChangedListener.run();
+    }
+    
+    /**
+     * Decode query parameters in endpoint and encode them again, same as
+     * {@link io.agentscope.core.tool.mcp.McpClientBuilder}, so that both raw and encoded query parameters in the
+     * endpoint path of Nacos are sent correctly.
+     *
+     * @param endpoint the endpoint path of MCP server, such as {@code /sse?token=xxx}
+     * @return the endpoint path with encoded query parameters
+     */
+    static String encodeQueryParams(String endpoint) {
+        int index = endpoint.indexOf('?');
+        if (index < 0) {
+            return endpoint;
+        }
+        String path = endpoint.substring(0, index);
+        Map<String, String> queryParams = new LinkedHashMap<>();
+        for (String each : endpoint.substring(index + 1).split("&")) {
+            if (each.isEmpty()) {
+                continue;
+            }
+            String[] pair = each.split("=", 2);
+            queryParams.put(URLDecoder.decode(pair[0], StandardCharsets.UTF_8),
+                    URLDecoder.decode(pair.length == 2 ? pair[1] : "", StandardCharsets.UTF_8));
+        }
+        if (queryParams.isEmpty()) {
+            return path;
+        }
+        return path + "?" + queryParams.entrySet().stream()
+                .map(entry -> URLEncoder.encode(entry.getKey(), StandardCharsets.UTF_8) + "="
+                        + URLEncoder.encode(entry.getValue(), StandardCharsets.UTF_8))
+                .collect(Collectors.joining("&"));
+    }
+    
+    private static String clientVersion() {
+        String version = McpClientWrapper.class.getPackage().getImplementationVersion();
+        if (null != version) {
+            return version;
+        }
+        try (InputStream inputStream = McpClientWrapper.class.getResourceAsStream(AGENTSCOPE_CORE_POM_PROPERTIES)) {
+            if (null != inputStream) {
+                Properties properties = new Properties();
+                properties.load(inputStream);
+                return properties.getProperty("version", DEFAULT_CLIENT_VERSION);
+            }
+        } catch (IOException e) {
+            log.debug("Read version of agentscope-core failed, use default version {}.", DEFAULT_CLIENT_VERSION, e);
+        }
+        return DEFAULT_CLIENT_VERSION;
+    }
+}
@@ -0,0 +1,45 @@
+/*
+ * Copyright 1999-2025 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.agentscope.extensions.nacos.mcp.client;
+
+import io.agentscope.core.tool.mcp.McpClientWrapper;
+import reactor.core.publisher.Mono;
+
+/**
+ * Provider to build the actual MCP client of each endpoint for {@link NacosMcpClientWrapper}.
+ *
+ * <p>By default, {@link NacosMcpClientWrapper} builds MCP SDK clients by the protocol of MCP server. Set a custom
+ * provider by {@link NacosMcpClientBuilder#clientProvider(McpClientProvider)} to replace the MCP transport, such as
+ * fake clients in tests and benchmarks.
+ *
+ * @author xiweng.yy
+ */
+@FunctionalInterface
+public interface McpClientProvider {
+    
+    /**
+     * Build a MCP client without initializing, {@link NacosMcpClientWrapper} will initialize it before use and close
+     * it when endpoint changed or closed.
+     *
+     * @param protocol             the MCP protocol, sse or streamable http
+     * @param baseUrl              the base url of MCP server, such as {@code http://127.0.0.1:8080}
+     * @param endpoint             the endpoint path of MCP server, such as {@code /sse}
+     * @param toolsChangedListener should be called when MCP server notifies tools changed
+     * @return the MCP client
+     */
+    Mono<McpClientWrapper> build(String protocol, String baseUrl, String endpoint, Runnable toolsChangedListener);
+}
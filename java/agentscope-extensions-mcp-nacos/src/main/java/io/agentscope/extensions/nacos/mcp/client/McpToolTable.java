@@ -0,0 +1,85 @@
+/*
+ * Copyright 1999-2025 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.agentscope.extensions.nacos.mcp.client;
+
+import com.alibaba.nacos.api.ai.model.mcp.McpServerDetailInfo;
+import com.alibaba.nacos.api.ai.model.mcp.McpTool;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Immutable table of tool specs in Nacos indexed by tool name, owned by {@link NacosMcpClientWrapper}.
+ *
+ * <p>The table is never modified after built. {@link NacosMcpClientWrapper} builds a new table with a greater version
+ * and swaps it in once per refresh when tools changed, so that each
+ * {@link io.agentscope.extensions.nacos.mcp.tool.NacosMcpTool} looks up its spec by name instead of scanning all tools
+ * in its own refresh hook.
+ *
+ * @author xiweng.yy
+ */
+public final class McpToolTable {
+    
+    private final long version;
+    
+    private final Map<String, McpTool> tools;
+    
+    private McpToolTable(long version, Map<String, McpTool> tools) {
+        this.version = version;
+        this.tools = tools;
+    }
+    
+    static McpToolTable of(long version, McpServerDetailInfo mcpServer) {
+        if (null == mcpServer.getToolSpec() || null == mcpServer.getToolSpec().getTools()) {
+            return new McpToolTable(version, Collections.emptyMap());
+        }
+        List<McpTool> mcpTools = mcpServer.getToolSpec().getTools();
+        Map<String, McpTool> tools = new HashMap<>((int) (mcpTools.size() / 0.75F) + 1);
+        mcpTools.forEach(tool -> tools.put(tool.getName(), tool));
+        return new McpToolTable(version, Collections.unmodifiableMap(tools));
+    }
+    
+    /**
+     * Get the version of this table, a refreshed table always has a greater version.
+     *
+     * @return the version of this table
+     */
+    public long getVersion() {
+        return version;
+    }
+    
+    /**
+     * Get tool spec in Nacos by name.
+     *
+     * @param toolName the name of tool
+     * @return the tool spec, {@code null} if not found
+     */
+    public McpTool get(String toolName) {
+        return tools.get(toolName);
+    }
+    
+    public Set<String> getToolNames() {
+        return tools.keySet();
+    }
+    
+    public int size() {
+        return tools.size();
+    }
+}
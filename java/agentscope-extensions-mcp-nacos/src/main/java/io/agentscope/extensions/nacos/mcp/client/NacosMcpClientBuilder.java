@@ -17,7 +17,24 @@
 package io.agentscope.extensions.nacos.mcp.client;
 
 import com.alibaba.nacos.common.utils.StringUtils;
+import io.agentscope.extensions.nacos.mcp.BulkResult;
 import io.agentscope.extensions.nacos.mcp.NacosMcpServerManager;
+import io.agentscope.extensions.nacos.mcp.client.balancer.EndpointSelector;
+import io.agentscope.extensions.nacos.mcp.client.balancer.HedgingConfig;
+import io.agentscope.extensions.nacos.mcp.client.balancer.OutlierDetectionConfig;
+import io.agentscope.extensions.nacos.mcp.client.cache.ToolResultCacheConfig;
+import io.agentscope.extensions.nacos.mcp.client.limit.ConcurrencyLimitConfig;
+import io.agentscope.extensions.nacos.mcp.metrics.McpMetrics;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.Map;
+import java.util.concurrent.Executor;
 
 /**
  * Builder for creating {@link NacosMcpClientWrapper} which extended by
@@ -46,6 +63,56 @@ import io.agentscope.extensions.nacos.mcp.NacosMcpServerManager;
  *      .create("example-mcp-server", mcpServerManager)
  *      .asyncClient(false)
  *      .build();
+ *
+ *  // Build Sync Client running blocking calls on virtual threads, requires Java 21 or later.
+ *  NacosMcpClientWrapper mcpClient = NacosMcpClientBuilder
+ *      .create("example-mcp-server", mcpServerManager)
+ *      .asyncClient(false)
+ *      .syncClientScheduler(VirtualThreads.scheduler())
+ *      .build();
+ *
+ *  // Multiplex concurrent tool calls to streamable HTTP MCP server over one HTTP/2 connection.
+ *  NacosMcpClientWrapper mcpClient = NacosMcpClientBuilder
+ *      .create("example-mcp-server", mcpServerManager)
+ *      .http2(true)
+ *      .build();
+ *
+ *  // Connect to all endpoints and load balance tool calls between them.
+ *  NacosMcpClientWrapper mcpClient = NacosMcpClientBuilder
+ *      .create("example-mcp-server", mcpServerManager)
+ *      .endpointSelector(new RoundRobinEndpointSelector())
+ *      .build();
+ *
+ *  // Load balance tool calls, eject unhealthy endpoints and hedge slow calls.
+ *  NacosMcpClientWrapper mcpClient = NacosMcpClientBuilder
+ *      .create("example-mcp-server", mcpServerManager)
+ *      .endpointSelector(new LeastOutstandingEndpointSelector())
+ *      .outlierDetection(OutlierDetectionConfig.create())
+ *      .hedging(HedgingConfig.create().percentile(0.95))
+ *      .build();
+ *
+ *  // Cache results of read-only and idempotent tools.
+ *  NacosMcpClientWrapper mcpClient = NacosMcpClientBuilder
+ *      .create("example-mcp-server", mcpServerManager)
+ *      .toolResultCache(ToolResultCacheConfig.create().ttl(Duration.ofMinutes(5)))
+ *      .build();
+ *
+ *  // Cancel tool calls which take more than 30 seconds.
+ *  NacosMcpClientWrapper mcpClient = NacosMcpClientBuilder
+ *      .create("example-mcp-server", mcpServerManager)
+ *      .callTimeout(Duration.ofSeconds(30))
+ *      .build();
+ *
+ *  // Limit concurrent calls to MCP server.
+ *  NacosMcpClientWrapper mcpClient = NacosMcpClientBuilder
+ *      .create("example-mcp-server", mcpServerManager)
+ *      .concurrencyLimit(ConcurrencyLimitConfig.create().maxLimit(100).maxQueueSize(50))
+ *      .build();
+ *
+ *  // Build MCP clients of many MCP servers concurrently.
+ *  BulkResult<NacosMcpClientWrapper> mcpClients = NacosMcpClientBuilder.buildAll(List.of(
+ *      NacosMcpClientBuilder.create("example-mcp-server", mcpServerManager),
+ *      NacosMcpClientBuilder.create("another-mcp-server", mcpServerManager)), 8);
  * }</pre>
  *
  * @see NacosMcpServerManager
@@ -53,6 +120,8 @@ import io.agentscope.extensions.nacos.mcp.NacosMcpServerManager;
  */
 public class NacosMcpClientBuilder {
     
+    private static final Duration DEFAULT_DRAIN_TIMEOUT = Duration.ofSeconds(30);
+    
     private final String mcpServerName;
     
     private final NacosMcpServerManager mcpServerManager;
@@ -61,11 +130,37 @@ public class NacosMcpClientBuilder {
     
     private boolean delayInitialize;
     
+    private EndpointSelector endpointSelector;
+    
+    private Duration drainTimeout;
+    
+    private Duration callTimeout;
+    
+    private ToolResultCacheConfig toolResultCacheConfig;
+    
+    private Collection<String> singleFlightTools;
+    
+    private ConcurrencyLimitConfig concurrencyLimitConfig;
+    
+    private OutlierDetectionConfig outlierDetectionConfig;
+    
+    private HedgingConfig hedgingConfig;
+    
+    private Executor refreshHookExecutor;
+    
+    private Scheduler syncClientScheduler;
+    
+    private boolean http2;
+    
+    private McpClientProvider clientProvider;
+    
     private NacosMcpClientBuilder(String mcpServerName, NacosMcpServerManager mcpServerManager) {
         this.mcpServerName = mcpServerName;
         this.mcpServerManager = mcpServerManager;
         this.delayInitialize = false;
         this.asyncClient = true;
+        this.drainTimeout = DEFAULT_DRAIN_TIMEOUT;
+        this.singleFlightTools = new LinkedList<>();
     }
     
     public static NacosMcpClientBuilder create(String mcpServerName, NacosMcpServerManager mcpServerManager) {
@@ -82,19 +177,317 @@ public class NacosMcpClientBuilder {
         return this;
     }
     
+    /**
+     * Set the strategy to select endpoint for each request, which enables connecting to all endpoints of MCP server.
+     *
+     * <p>Default is {@code null}, which means only connecting to one of endpoints.
+     *
+     * @param endpointSelector the strategy to select endpoint
+     * @return this builder
+     * @see io.agentscope.extensions.nacos.mcp.client.balancer.RoundRobinEndpointSelector
+     * @see io.agentscope.extensions.nacos.mcp.client.balancer.WeightedEndpointSelector
+     * @see io.agentscope.extensions.nacos.mcp.client.balancer.LeastOutstandingEndpointSelector
+     */
+    public NacosMcpClientBuilder endpointSelector(EndpointSelector endpointSelector) {
+        this.endpointSelector = endpointSelector;
+        return this;
+    }
+    
+    /**
+     * Set the max time to wait for in-flight calls of the old MCP client when it is replaced by refresh. The old
+     * client is force closed after the timeout.
+     *
+     * <p>Default is 30 seconds.
+     *
+     * @param drainTimeout max time to wait for in-flight calls
+     * @return this builder
+     */
+    public NacosMcpClientBuilder drainTimeout(Duration drainTimeout) {
+        this.drainTimeout = drainTimeout;
+        return this;
+    }
+    
+    /**
+     * Set the default timeout of calling tools, the timed out call is cancelled.
+     *
+     * <p>Default is {@code null}, which means only the request timeout of MCP client applies. The timeout can be
+     * overridden for MCP server or each tool by metadata in Nacos, see
+     * {@link io.agentscope.extensions.nacos.mcp.McpServerMetadata#TIMEOUT_MILLIS}. Calls are also cancelled when the
+     * {@link CallDeadline} of caller expired, which is passed by reactor context of the call, or by
+     * {@link io.agentscope.core.tool.ToolExecutionContext} when calling tools by agent:
+     * <pre>{@code
+     *  agent.call(msg).contextWrite(CallDeadline.after(Duration.ofSeconds(60))::writeTo);
+     * }</pre>
+     *
+     * @param callTimeout default timeout of calling tools
+     * @return this builder
+     */
+    public NacosMcpClientBuilder callTimeout(Duration callTimeout) {
+        this.callTimeout = callTimeout;
+        return this;
+    }
+    
+    /**
+     * Enable caching results of read-only and idempotent tools, or tools set in config.
+     *
+     * <p>Default is {@code null}, which means results are not cached. Cached results are invalidated when the
+     * version, tools or endpoints of MCP server changed in Nacos.
+     *
+     * @param toolResultCacheConfig the config of tool result cache
+     * @return this builder
+     */
+    public NacosMcpClientBuilder toolResultCache(ToolResultCacheConfig toolResultCacheConfig) {
+        this.toolResultCacheConfig = toolResultCacheConfig;
+        return this;
+    }
+    
+    /**
+     * Set the tools to deduplicate concurrent identical calls, which share one in-flight call to MCP server.
+     *
+     * <p>Default is empty, which means no tool calls are deduplicated.
+     *
+     * @param singleFlightTools names of tools to deduplicate calls
+     * @return this builder
+     */
+    public NacosMcpClientBuilder singleFlightTools(Collection<String> singleFlightTools) {
+        this.singleFlightTools = singleFlightTools;
+        return this;
+    }
+    
+    /**
+     * Enable adaptive concurrency limit of calls to the MCP server.
+     *
+     * <p>Default is {@code null}, which means no limit. Limits can be overridden by metadata of MCP server in Nacos,
+     * see {@link io.agentscope.extensions.nacos.mcp.McpServerMetadata}.
+     *
+     * @param concurrencyLimitConfig the config of concurrency limit
+     * @return this builder
+     */
+    public NacosMcpClientBuilder concurrencyLimit(ConcurrencyLimitConfig concurrencyLimitConfig) {
+        this.concurrencyLimitConfig = concurrencyLimitConfig;
+        return this;
+    }
+    
+    /**
+     * Enable ejecting unhealthy endpoints from selection by circuit breaker of each endpoint. Only works when
+     * {@link #endpointSelector(EndpointSelector)} set.
+     *
+     * <p>Default is {@code null}, which means endpoints are never ejected.
+     *
+     * @param outlierDetectionConfig the config of outlier detection
+     * @return this builder
+     */
+    public NacosMcpClientBuilder outlierDetection(OutlierDetectionConfig outlierDetectionConfig) {
+        this.outlierDetectionConfig = outlierDetectionConfig;
+        return this;
+    }
+    
+    /**
+     * Enable hedging slow calls of read-only or idempotent tools to another endpoint. Only works when
+     * {@link #endpointSelector(EndpointSelector)} set and MCP server has more than one endpoint.
+     *
+     * <p>Default is {@code null}, which means calls are never hedged.
+     *
+     * @param hedgingConfig the config of hedged calls
+     * @return this builder
+     */
+    public NacosMcpClientBuilder hedging(HedgingConfig hedgingConfig) {
+        this.hedgingConfig = hedgingConfig;
+        return this;
+    }
+    
+    /**
+     * Set the executor to notify {@link NacosMcpClientWrapper.RefreshHook}s, so that slow hooks won't block
+     * refreshing. Notifications of one MCP client are run one by one in order of refreshes.
+     *
+     * <p>Default is {@code null}, which means hooks are notified on {@link Schedulers#boundedElastic()}.
+     *
+     * @param refreshHookExecutor the executor to notify refresh hooks
+     * @return this builder
+     */
+    public NacosMcpClientBuilder refreshHookExecutor(Executor refreshHookExecutor) {
+        this.refreshHookExecutor = refreshHookExecutor;
+        return this;
+    }
+    
+    /**
+     * Set the scheduler to run blocking calls of sync MCP clients, including initializing, listing tools and calling
+     * tools, which are bridged back to {@link Mono}. Only works with {@code asyncClient(false)}.
+     *
+     * <p>Default is {@code null}, which means blocking calls run on {@link Schedulers#boundedElastic()}, whose
+     * threads are bounded and might be exhausted by hundreds of concurrent tool calls. Use
+     * {@link VirtualThreads#scheduler()} to run each call on a virtual thread.
+     *
+     * @param syncClientScheduler the scheduler to run blocking calls of sync MCP clients
+     * @return this builder
+     */
+    public NacosMcpClientBuilder syncClientScheduler(Scheduler syncClientScheduler) {
+        this.syncClientScheduler = syncClientScheduler;
+        return this;
+    }
+    
+    /**
+     * Set whether to prefer HTTP/2 for MCP servers of streamable HTTP protocol, so that concurrent tool calls to one
+     * endpoint are multiplexed over one connection instead of opening a connection for each in-flight call.
+     *
+     * <p>HTTP/2 is negotiated by ALPN for https endpoints and by h2c upgrade for http endpoints, and falls back to
+     * HTTP/1.1 if not supported by MCP server. Default is {@code false}, which always uses HTTP/1.1.
+     *
+     * @param http2 whether to prefer HTTP/2
+     * @return this builder
+     */
+    public NacosMcpClientBuilder http2(boolean http2) {
+        this.http2 = http2;
+        return this;
+    }
+    
+    /**
+     * Set the provider to build the actual MCP client of each endpoint, such as fake clients to replace the MCP
+     * transport in tests and benchmarks.
+     *
+     * <p>Default is {@code null}, which builds MCP SDK clients by the protocol of MCP server. A custom provider takes
+     * over building clients, so {@link #asyncClient(boolean)}, {@link #syncClientScheduler(Scheduler)} and
+     * {@link #http2(boolean)} are not applied to the clients it builds.
+     *
+     * @param clientProvider the provider to build actual MCP clients
+     * @return this builder
+     */
+    public NacosMcpClientBuilder clientProvider(McpClientProvider clientProvider) {
+        this.clientProvider = clientProvider;
+        return this;
+    }
+    
+    boolean isAsyncClient() {
+        return asyncClient;
+    }
+    
+    EndpointSelector getEndpointSelector() {
+        return endpointSelector;
+    }
+    
+    Duration getDrainTimeout() {
+        return drainTimeout;
+    }
+    
+    Duration getCallTimeout() {
+        return callTimeout;
+    }
+    
+    ToolResultCacheConfig getToolResultCacheConfig() {
+        return toolResultCacheConfig;
+    }
+    
+    Collection<String> getSingleFlightTools() {
+        return singleFlightTools;
+    }
+    
+    ConcurrencyLimitConfig getConcurrencyLimitConfig() {
+        return concurrencyLimitConfig;
+    }
+    
+    OutlierDetectionConfig getOutlierDetectionConfig() {
+        return outlierDetectionConfig;
+    }
+    
+    HedgingConfig getHedgingConfig() {
+        return hedgingConfig;
+    }
+    
+    Executor getRefreshHookExecutor() {
+        return null == refreshHookExecutor ? task -> Schedulers.boundedElastic().schedule(task) : refreshHookExecutor;
+    }
+    
+    McpClientProvider getClientProvider() {
+        return null == clientProvider ? new McpClientFactory(mcpServerName, asyncClient, syncClientScheduler, http2)
+                : clientProvider;
+    }
+    
+    McpMetrics getMetrics() {
+        return mcpServerManager.getMetrics();
+    }
+    
     public NacosMcpClientWrapper build() {
+        validate();
+        NacosMcpClientWrapper result = new NacosMcpClientWrapper(this, mcpServerManager.getMcpServer(mcpServerName),
+                new ClientLifecycleCallback());
+        if (!delayInitialize) {
+            result.initialize().then().block();
+        }
+        return result;
+    }
+    
+    /**
+     * Build MCP client without blocking caller, subscribing MCP server from Nacos and initializing are run on
+     * {@link Schedulers#boundedElastic()}. Concurrent builds of the same MCP server share one subscription.
+     *
+     * @return the MCP client, initialized if not {@link #delayInitialize(boolean)}
+     */
+    public Mono<NacosMcpClientWrapper> buildAsync() {
+        return Mono.defer(() -> {
+            validate();
+            return mcpServerManager.getMcpServerAsync(mcpServerName);
+        }).map(mcpServer -> new NacosMcpClientWrapper(this, mcpServer, new ClientLifecycleCallback()))
+                .flatMap(result -> delayInitialize ? Mono.just(result) : result.initialize().thenReturn(result))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+    
+    /**
+     * Build MCP clients of many MCP servers concurrently, so that startup time doesn't grow with the number of MCP
+     * servers. Failure of one MCP server doesn't fail the others.
+     *
+     * <p>Example usage:
+     * <pre>{@code
+     *  List<NacosMcpClientBuilder> builders = mcpServerNames.stream()
+     *      .map(name -> NacosMcpClientBuilder.create(name, mcpServerManager))
+     *      .toList();
+     *  BulkResult<NacosMcpClientWrapper> result = NacosMcpClientBuilder.buildAll(builders, 8);
+     *  result.getFailures().forEach((name, error) -> log.warn("Failed to build MCP client {}.", name, error));
+     * }</pre>
+     *
+     * @param builders    builders of MCP clients, one builder for each MCP server
+     * @param parallelism max number of MCP clients built concurrently
+     * @return built MCP clients and failures, keyed by MCP server name
+     */
+    public static BulkResult<NacosMcpClientWrapper> buildAll(Collection<NacosMcpClientBuilder> builders,
+            int parallelism) {
+        if (null == builders) {
+            throw new IllegalArgumentException("Mcp client builders can not be null.");
+        }
+        Map<String, NacosMcpClientBuilder> buildersByName = new LinkedHashMap<>(builders.size());
+        for (NacosMcpClientBuilder each : builders) {
+            if (null != buildersByName.putIfAbsent(each.mcpServerName, each)) {
+                throw new IllegalArgumentException("Duplicated Mcp server name: " + each.mcpServerName);
+            }
+        }
+        return BulkResult.execute(buildersByName.keySet(), parallelism,
+                mcpServerName -> buildersByName.get(mcpServerName).buildAsync()).block();
+    }
+    
+    private void validate() {
         if (StringUtils.isBlank(mcpServerName)) {
             throw new IllegalArgumentException("Mcp server name can not be blank.");
         }
         if (null == mcpServerManager) {
             throw new IllegalArgumentException("Mcp server manager can not be null.");
         }
-        NacosMcpClientWrapper result = new NacosMcpClientWrapper(asyncClient,
-                mcpServerManager.getMcpServer(mcpServerName), new ClientLifecycleCallback());
-        if (!delayInitialize) {
-            result.initialize().then().block();
+        if (null == drainTimeout || drainTimeout.isNegative()) {
+            throw new IllegalArgumentException("Drain timeout can not be null or negative.");
+        }
+        if (null != callTimeout && (callTimeout.isNegative() || callTimeout.isZero())) {
+            throw new IllegalArgumentException("Call timeout should be positive.");
+        }
+        if (asyncClient && null != syncClientScheduler) {
+            throw new IllegalArgumentException("Sync client scheduler only works with sync client.");
+        }
+        if (null != concurrencyLimitConfig) {
+            concurrencyLimitConfig.validate();
+        }
+        if (null != outlierDetectionConfig) {
+            outlierDetectionConfig.validate();
+        }
+        if (null != hedgingConfig) {
+            hedgingConfig.validate();
         }
-        return result;
     }
     
     /**
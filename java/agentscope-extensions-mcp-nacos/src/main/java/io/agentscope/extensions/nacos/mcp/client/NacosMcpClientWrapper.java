@@ -22,20 +22,38 @@ import com.alibaba.nacos.api.ai.model.mcp.McpServerDetailInfo;
 import com.alibaba.nacos.api.ai.model.mcp.McpTool;
 import com.alibaba.nacos.api.exception.NacosException;
 import com.alibaba.nacos.api.exception.runtime.NacosRuntimeException;
+import com.alibaba.nacos.common.utils.CollectionUtils;
 import com.alibaba.nacos.common.utils.StringUtils;
-import io.agentscope.core.tool.mcp.McpClientBuilder;
 import io.agentscope.core.tool.mcp.McpClientWrapper;
+import io.agentscope.extensions.nacos.mcp.McpServerFingerprint;
+import io.agentscope.extensions.nacos.mcp.client.balancer.EndpointCircuitBreaker;
+import io.agentscope.extensions.nacos.mcp.client.balancer.EndpointSelector;
+import io.agentscope.extensions.nacos.mcp.client.balancer.HedgingConfig;
+import io.agentscope.extensions.nacos.mcp.client.balancer.LoadBalancedMcpClientWrapper;
+import io.agentscope.extensions.nacos.mcp.client.balancer.McpEndpoint;
+import io.agentscope.extensions.nacos.mcp.client.balancer.OutlierDetectionConfig;
+import io.agentscope.extensions.nacos.mcp.client.cache.ToolCallSingleFlight;
+import io.agentscope.extensions.nacos.mcp.client.cache.ToolResultCache;
+import io.agentscope.extensions.nacos.mcp.client.limit.AdaptiveConcurrencyLimiter;
+import io.agentscope.extensions.nacos.mcp.metrics.McpMetrics;
+import io.agentscope.extensions.nacos.mcp.metrics.ToolCallEndpoint;
 import io.modelcontextprotocol.json.McpJsonMapper;
 import io.modelcontextprotocol.spec.McpSchema;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
-import java.util.HashSet;
-import java.util.LinkedList;
+import java.time.Duration;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiFunction;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
@@ -43,6 +61,8 @@ import java.util.stream.Collectors;
  * Extension for {@link io.agentscope.core.tool.mcp.McpClientWrapper} for Nacos.
  *
  * <p>Supports dynamic refresh actual MCP Client when MCP Server Endpoints changed.
+ * <p>Supports connecting to all endpoints of MCP Server and load balancing requests between them when
+ * {@link EndpointSelector} set, otherwise only connect to one of endpoints.
  *
  * @author xiweng.yy
  * @see NacosMcpClientBuilder
@@ -52,23 +72,67 @@ public class NacosMcpClientWrapper extends McpClientWrapper {
     
     private static final Logger log = LoggerFactory.getLogger(NacosMcpClientWrapper.class);
     
+    private static final Duration CACHE_FOREVER = Duration.ofMillis(Long.MAX_VALUE);
+    
     private final boolean asyncClient;
     
-    private McpServerDetailInfo mcpServer;
+    private final EndpointSelector endpointSelector;
+    
+    private final McpClientProvider clientProvider;
+    
+    private final OutlierDetectionConfig outlierDetectionConfig;
+    
+    private final Map<String, EndpointCircuitBreaker> circuitBreakers;
+    
+    private final HedgingConfig hedgingConfig;
+    
+    private final Duration drainTimeout;
+    
+    private final Duration callTimeout;
+    
+    private final AtomicLong toolTableVersion;
     
-    private McpClientWrapper mcpClient;
+    private final AtomicReference<ClientState> state;
+    
+    private final AtomicReference<CachedTools> toolsCache;
+    
+    private final ToolResultCache resultCache;
+    
+    private final ToolCallSingleFlight singleFlight;
+    
+    private final AdaptiveConcurrencyLimiter concurrencyLimiter;
+    
+    private final McpMetrics metrics;
     
     private final NacosMcpClientBuilder.ClientLifecycleCallback lifecycleCallback;
     
-    private final List<RefreshHook> hooks;
+    private final RefreshHookRegistry hooks;
     
-    NacosMcpClientWrapper(boolean asyncClient, McpServerDetailInfo mcpServer,
+    NacosMcpClientWrapper(NacosMcpClientBuilder builder, McpServerDetailInfo mcpServer,
             NacosMcpClientBuilder.ClientLifecycleCallback lifecycleCallback) {
         super(mcpServer.getName());
-        this.asyncClient = asyncClient;
-        this.mcpServer = mcpServer;
+        this.asyncClient = builder.isAsyncClient();
+        this.endpointSelector = builder.getEndpointSelector();
+        this.clientProvider = builder.getClientProvider();
+        this.outlierDetectionConfig = builder.getOutlierDetectionConfig();
+        this.circuitBreakers = new ConcurrentHashMap<>(2);
+        this.hedgingConfig = builder.getHedgingConfig();
+        this.drainTimeout = builder.getDrainTimeout();
+        this.callTimeout = builder.getCallTimeout();
+        this.toolTableVersion = new AtomicLong();
+        this.state = new AtomicReference<>(new ClientState(mcpServer, McpServerFingerprint.of(mcpServer),
+                newToolTable(mcpServer), CallTimeouts.of(mcpServer), parseFirstUrl(mcpServer), null));
+        this.toolsCache = new AtomicReference<>();
+        this.resultCache = null == builder.getToolResultCacheConfig() ? null
+                : new ToolResultCache(builder.getToolResultCacheConfig());
+        this.singleFlight = CollectionUtils.isEmpty(builder.getSingleFlightTools()) ? null
+                : new ToolCallSingleFlight(builder.getSingleFlightTools());
+        this.concurrencyLimiter = null == builder.getConcurrencyLimitConfig() ? null
+                : new AdaptiveConcurrencyLimiter(mcpServer.getName(), builder.getConcurrencyLimitConfig());
+        updateConcurrencyLimit(mcpServer);
+        this.metrics = builder.getMetrics();
         this.lifecycleCallback = lifecycleCallback;
-        this.hooks = new LinkedList<>();
+        this.hooks = new RefreshHookRegistry(mcpServer.getName(), builder.getRefreshHookExecutor(), metrics);
     }
     
     @Override
@@ -79,40 +143,171 @@ public class NacosMcpClientWrapper extends McpClientWrapper {
         
         log.info("Initializing Nacos MCP client: {} with Async: {}", name, this.asyncClient);
         
-        return rebuildMcpClient(mcpServer).doOnNext(client -> this.mcpClient = client)
-                .then(Mono.defer((Supplier<Mono<?>>) () -> {
-                    Mono<Void> result = mcpClient.initialize();
-                    initialized = true;
-                    lifecycleCallback.onInitialize(this);
-                    return result;
-                })).then().doOnError(error -> this.mcpClient = null);
+        McpServerDetailInfo mcpServer = getMcpServer();
+        return rebuildMcpClient(mcpServer).flatMap(client -> {
+            LeasedMcpClient leasedClient = new LeasedMcpClient(client);
+            this.state.updateAndGet(current -> current.withClient(leasedClient));
+            return client.initialize().doOnError(error -> {
+                this.state.updateAndGet(current -> current.withClient(null));
+                leasedClient.forceClose();
+            });
+        }).then(Mono.fromRunnable(() -> {
+            initialized = true;
+            lifecycleCallback.onInitialize(this);
+        }));
     }
     
+    /**
+     * List tools of MCP server with tool specs refreshed from Nacos.
+     *
+     * <p>The result is cached until the MCP client is refreshed or the MCP server notifies tools changed, so that
+     * listing tools repeatedly won't request MCP server every time.
+     *
+     * @return tools of MCP server
+     */
     @Override
     public Mono<List<McpSchema.Tool>> listTools() {
-        Map<String, McpTool> toolsInNacos = mcpServer.getToolSpec().getTools().stream()
-                .collect(Collectors.toMap(McpTool::getName, mcpTool -> mcpTool));
-        return this.mcpClient.listTools()
-                .map(tools -> tools.stream().map(tool -> refreshToolSpec(tool, toolsInNacos)).toList());
+        return Mono.defer(() -> {
+            ClientState current = this.state.get();
+            CachedTools cached = this.toolsCache.get();
+            if (null != cached && cached.state() == current) {
+                return cached.tools();
+            }
+            // Errors and empty results are not cached, next call will list tools again.
+            Mono<List<McpSchema.Tool>> tools = listToolsFromServer().cache(result -> CACHE_FOREVER,
+                    error -> Duration.ZERO, () -> Duration.ZERO);
+            this.toolsCache.compareAndSet(cached, new CachedTools(current, tools));
+            return tools;
+        });
+    }
+    
+    private Mono<List<McpSchema.Tool>> listToolsFromServer() {
+        return withClientLease((current, mcpClient) -> {
+            Map<String, McpTool> toolsInNacos = current.mcpServer().getToolSpec().getTools().stream()
+                    .collect(Collectors.toMap(McpTool::getName, mcpTool -> mcpTool));
+            return mcpClient.listTools()
+                    .map(tools -> tools.stream().map(tool -> refreshToolSpec(tool, toolsInNacos)).toList());
+        }).doOnNext(this::updateCachedTools);
     }
     
+    /**
+     * Call tool of MCP server.
+     *
+     * <p>The result might be from tool result cache, or shared with concurrent identical calls, if enabled for the
+     * tool by {@link NacosMcpClientBuilder}.
+     *
+     * <p>The call is cancelled and fails with {@link TimeoutException} when the timeout of tool, or the
+     * {@link CallDeadline} in reactor context expired, whichever comes first.
+     *
+     * @param toolName  the name of tool
+     * @param arguments the arguments of tool call
+     * @return the result of tool call
+     */
     @Override
     public Mono<McpSchema.CallToolResult> callTool(String toolName, Map<String, Object> arguments) {
-        return this.mcpClient.callTool(toolName, arguments);
+        return Mono.deferContextual(context -> {
+            Optional<CallDeadline> deadline = CallDeadline.from(context);
+            if (deadline.isPresent() && deadline.get().isExpired()) {
+                return Mono.error(new TimeoutException(
+                        String.format("Deadline expired before calling tool %s of MCP server %s.", toolName, name)));
+            }
+            Duration timeout = resolveTimeout(toolName, deadline.orElse(null));
+            Mono<McpSchema.CallToolResult> result = callToolWithoutTimeout(toolName, arguments);
+            if (null == timeout) {
+                return result;
+            }
+            // Timeout cancels the subscription, which releases the lease and cancels the request of MCP client.
+            ToolCallEndpoint chosen = ToolCallEndpoint.create();
+            return CallTimeout.create().apply(chosen.track(result), timeout, Mono.defer(() -> {
+                TimeoutException error = new TimeoutException(
+                        String.format("Call tool %s of MCP server %s timeout after %d ms.", toolName, name,
+                                timeout.toMillis()));
+                metrics.recordToolError(name, toolName, chosen.getEndpoint(), error);
+                return Mono.error(error);
+            }));
+        });
+    }
+    
+    private Mono<McpSchema.CallToolResult> callToolWithoutTimeout(String toolName, Map<String, Object> arguments) {
+        Supplier<Mono<McpSchema.CallToolResult>> call = () -> callToolByServer(toolName, arguments);
+        if (null != singleFlight && singleFlight.isEnabled(toolName)) {
+            Supplier<Mono<McpSchema.CallToolResult>> serverCall = call;
+            call = () -> singleFlight.call(toolName, arguments, serverCall);
+        }
+        if (null != resultCache && resultCache.isCacheable(toolName, getCachedTool(toolName))) {
+            return resultCache.getOrCall(toolName, arguments, call);
+        }
+        return call.get();
+    }
+    
+    private Mono<McpSchema.CallToolResult> callToolByServer(String toolName, Map<String, Object> arguments) {
+        if (null != concurrencyLimiter) {
+            return concurrencyLimiter.run(() -> withClientLease(
+                    (current, mcpClient) -> callToolByClient(current, mcpClient, toolName, arguments)));
+        }
+        return withClientLease((current, mcpClient) -> callToolByClient(current, mcpClient, toolName, arguments));
+    }
+    
+    private Mono<McpSchema.CallToolResult> callToolByClient(ClientState current, McpClientWrapper mcpClient,
+            String toolName, Map<String, Object> arguments) {
+        // Calls of load-balanced client are recorded for each endpoint by itself.
+        if (null != endpointSelector || !metrics.isEnabled()) {
+            return mcpClient.callTool(toolName, arguments);
+        }
+        return metrics.timeToolCall(name, toolName, current.endpointUrl(), mcpClient.callTool(toolName, arguments));
+    }
+    
+    /**
+     * Resolve timeout of calling tool, the order is tool metadata, MCP server metadata, then default timeout of
+     * builder, and is limited by the remaining time of caller deadline.
+     */
+    private Duration resolveTimeout(String toolName, CallDeadline deadline) {
+        Duration result = state.get().timeouts().get(toolName, callTimeout);
+        if (null == deadline) {
+            return result;
+        }
+        Duration remaining = deadline.remaining();
+        return null == result || remaining.compareTo(result) < 0 ? remaining : result;
+    }
+    
+    /**
+     * Get tool spec listed from MCP server, fall back to the tools listed when initializing actual MCP client.
+     *
+     * @param toolName the name of tool
+     * @return the tool spec, {@code null} if not found
+     */
+    @Override
+    public McpSchema.Tool getCachedTool(String toolName) {
+        McpSchema.Tool result = super.getCachedTool(toolName);
+        if (null != result) {
+            return result;
+        }
+        LeasedMcpClient client = this.state.get().client();
+        return null == client ? null : client.getMcpClient().getCachedTool(toolName);
     }
     
     @Override
     public void close() {
         this.lifecycleCallback.onClose(this);
         this.hooks.clear();
-        if (null != this.mcpClient) {
-            this.mcpClient.close();
+        LeasedMcpClient oldClient = this.state.getAndUpdate(current -> current.withClient(null)).client();
+        if (null != oldClient) {
+            oldClient.forceClose();
         }
         this.initialized = false;
     }
     
     public McpServerDetailInfo getMcpServer() {
-        return mcpServer;
+        return state.get().mcpServer();
+    }
+    
+    /**
+     * Get the tool specs in Nacos indexed by name, which is replaced as a whole when tools changed by refresh.
+     *
+     * @return the current tool table
+     */
+    public McpToolTable getToolTable() {
+        return state.get().toolTable();
     }
     
     /**
@@ -123,43 +318,213 @@ public class NacosMcpClientWrapper extends McpClientWrapper {
      * @see #refresh(McpServerDetailInfo)
      */
     public void registerRefreshHook(RefreshHook hook) {
-        this.hooks.add(hook);
+        this.hooks.register(hook);
+    }
+    
+    /**
+     * Unregister a refresh hook from this MCP client wrapper, notifications already dispatched might still run.
+     *
+     * @param hook the refresh hook to unregister
+     * @return {@code true} if the hook was registered
+     */
+    public boolean unregisterRefreshHook(RefreshHook hook) {
+        return this.hooks.unregister(hook);
+    }
+    
+    /**
+     * Refresh the MCP client with new server information, blocks until the MCP client rebuilt.
+     *
+     * @param mcpServer the new MCP server information to use for rebuilding the client.
+     * @see #refreshAsync(McpServerDetailInfo)
+     */
+    public void refresh(McpServerDetailInfo mcpServer) {
+        refreshAsync(mcpServer).block();
     }
     
     /**
      * Refresh the MCP client with new server information.
      *
      * <p>This method rebuilds the MCP client using the provided server information,
-     * replaces the current client with the new one, and closes the old client.
+     * replaces the current client with the new one, and closes the old client after its in-flight calls finished or
+     * the drain timeout expired. Calls started after the replacement always use the new client.
+     *
+     * <p>If protocol and endpoints are not changed, or the MCP client is not initialized or already closed, the MCP
+     * client won't be rebuilt, only the MCP server information is replaced and hooks are notified when tools changed.
+     * The MCP client rebuilt is closed instead of replacing if this wrapper closed during rebuilding.
+     *
+     * <p>The {@link McpToolTable} is replaced together with the MCP server information when tools changed, and
+     * cached tool results are invalidated in both cases.
      *
      * @param mcpServer the new MCP server information to use for rebuilding the client.
+     * @return completes when refreshed, error if failed to rebuild MCP client
      * @see io.agentscope.extensions.nacos.mcp.NacosMcpServerManager#subscribeMcpClients
      */
-    public void refresh(McpServerDetailInfo mcpServer) {
-        log.info("Refreshing Nacos MCP client: {} with Async: {}", name, this.asyncClient);
-        rebuildMcpClient(mcpServer).flatMap(client -> client.initialize().thenReturn(client)).map(client -> {
-                    this.mcpServer = mcpServer;
-                    McpClientWrapper oldClient = this.mcpClient;
-                    this.mcpClient = client;
-                    return oldClient;
-                }).doOnNext(McpClientWrapper::close).then().doOnSuccess(unused -> notifyHooks())
-                .doOnError(error -> log.error("Failed to refresh mcp client.", error)).block();
+    public Mono<Void> refreshAsync(McpServerDetailInfo mcpServer) {
+        return Mono.defer(() -> {
+            long startNanos = System.nanoTime();
+            McpServerFingerprint newFingerprint = McpServerFingerprint.of(mcpServer);
+            ClientState current = this.state.get();
+            boolean toolsChanged = current.fingerprint().isToolsChanged(newFingerprint);
+            // Build tool table once per refresh, tools not changed keep using the current table.
+            McpToolTable toolTable = toolsChanged ? newToolTable(mcpServer) : current.toolTable();
+            // Parse metadata once per refresh, and only when changed, so invalid metadata is warned once.
+            boolean metadataChanged = current.fingerprint().isMetadataChanged(newFingerprint);
+            CallTimeouts timeouts = toolsChanged || metadataChanged ? CallTimeouts.of(mcpServer) : current.timeouts();
+            String endpointUrl = parseFirstUrl(mcpServer);
+            // Results of tools only change with tools or version of MCP server, besides endpoints rebuilding client.
+            boolean resultsChanged = toolsChanged || current.fingerprint().isVersionChanged(newFingerprint);
+            if (!current.fingerprint().isConnectionChanged(newFingerprint) || null == current.client()) {
+                // Keep the client installed by concurrent initialize or close.
+                this.state.updateAndGet(
+                        latest -> new ClientState(mcpServer, newFingerprint, toolTable, timeouts, endpointUrl,
+                                latest.client()));
+                if (resultsChanged) {
+                    invalidateResultCache();
+                }
+                if (metadataChanged) {
+                    updateConcurrencyLimit(mcpServer);
+                }
+                if (toolsChanged) {
+                    log.info("Refreshing tools of Nacos MCP client: {} without rebuilding client.", name);
+                    notifyHooks();
+                }
+                metrics.recordRefresh(name, false, System.nanoTime() - startNanos, null);
+                return Mono.empty();
+            }
+            log.info("Refreshing Nacos MCP client: {} with Async: {}", name, this.asyncClient);
+            return rebuildMcpClient(mcpServer).flatMap(client -> client.initialize().thenReturn(client)
+                            .doOnError(error -> new LeasedMcpClient(client).forceClose()))
+                    .flatMap(client -> Mono.justOrEmpty(install(
+                            new ClientState(mcpServer, newFingerprint, toolTable, timeouts, endpointUrl,
+                                    new LeasedMcpClient(client)))))
+                    .doOnNext(oldState -> {
+                        invalidateResultCache();
+                        if (metadataChanged) {
+                            updateConcurrencyLimit(mcpServer);
+                        }
+                        oldState.client().retire(drainTimeout);
+                        notifyHooks();
+                        metrics.recordRefresh(name, true, System.nanoTime() - startNanos, null);
+                    }).doOnError(error -> {
+                        log.error("Failed to refresh mcp client.", error);
+                        metrics.recordRefresh(name, true, System.nanoTime() - startNanos, error);
+                    }).then();
+        });
+    }
+    
+    /**
+     * Replace the current client state with the refreshed one, unless this wrapper closed during rebuilding.
+     *
+     * @return the replaced state, {@code null} if not replaced and the new client is closed
+     */
+    private ClientState install(ClientState refreshed) {
+        while (true) {
+            ClientState latest = this.state.get();
+            if (null == latest.client()) {
+                log.info("Nacos MCP client: {} closed during refreshing, close the rebuilt client.", name);
+                refreshed.client().forceClose();
+                return null;
+            }
+            if (this.state.compareAndSet(latest, refreshed)) {
+                return latest;
+            }
+        }
+    }
+    
+    private McpToolTable newToolTable(McpServerDetailInfo mcpServer) {
+        return McpToolTable.of(toolTableVersion.incrementAndGet(), mcpServer);
+    }
+    
+    private void invalidateToolsCache() {
+        this.toolsCache.set(null);
+    }
+    
+    private void updateCachedTools(List<McpSchema.Tool> tools) {
+        Set<String> toolNames = tools.stream().map(McpSchema.Tool::name).collect(Collectors.toSet());
+        this.cachedTools.keySet().retainAll(toolNames);
+        tools.forEach(tool -> this.cachedTools.put(tool.name(), tool));
+    }
+    
+    private void updateConcurrencyLimit(McpServerDetailInfo mcpServer) {
+        if (null != concurrencyLimiter) {
+            concurrencyLimiter.updateConfig(mcpServer);
+        }
+    }
+    
+    private void invalidateResultCache() {
+        if (null != resultCache) {
+            resultCache.invalidateAll();
+        }
+    }
+    
+    /**
+     * Run action with a lease of current MCP client, the MCP server info and client are read as one snapshot so that
+     * tool specs always match the client which serves the call.
+     */
+    private <T> Mono<T> withClientLease(BiFunction<ClientState, McpClientWrapper, Mono<T>> action) {
+        return Mono.defer(() -> {
+            while (true) {
+                ClientState current = this.state.get();
+                LeasedMcpClient client = current.client();
+                if (null == client) {
+                    return Mono.error(new NacosRuntimeException(NacosException.CLIENT_ERROR,
+                            "Nacos MCP client " + name + " is not initialized or already closed."));
+                }
+                // Acquire failed means the client is just replaced and closed, retry with the latest one.
+                if (client.tryAcquire()) {
+                    return action.apply(current, client.getMcpClient())
+                            .doFinally(signal -> client.release());
+                }
+            }
+        });
     }
     
     private Mono<McpClientWrapper> rebuildMcpClient(McpServerDetailInfo mcpServer) {
         String protocol = parseMcpProtocol(mcpServer);
-        McpClientBuilder builder = McpClientBuilder.create(getName());
-        
-        String url = parseUrl(mcpServer);
-        
-        log.debug("Building Nacos MCP client: {} with URL: {} and Protocol: {}", getName(), url, protocol);
-        
-        switch (protocol) {
-            case AiConstants.Mcp.MCP_PROTOCOL_SSE -> builder.sseTransport(url);
-            case AiConstants.Mcp.MCP_PROTOCOL_STREAMABLE -> builder.streamableHttpTransport(url);
-            default -> throw new UnsupportedOperationException("Unsupported mcp protocol: " + protocol);
+        List<McpEndpointInfo> endpointInfos = parseEndpoints(mcpServer);
+        if (null == endpointSelector) {
+            McpEndpointInfo endpointInfo = endpointInfos.stream().findAny()
+                    .orElseThrow(() -> new NacosRuntimeException(NacosException.NOT_FOUND, "No endpoint found."));
+            return buildMcpClient(protocol, endpointInfo);
+        }
+        if (endpointInfos.isEmpty()) {
+            return Mono.error(new NacosRuntimeException(NacosException.NOT_FOUND, "No endpoint found."));
+        }
+        // Endpoints failed to build are skipped, only fail when no endpoint can be built.
+        return Flux.fromIterable(endpointInfos).flatMapSequential(endpointInfo -> {
+            String url = parseUrlFromEndpoint(endpointInfo);
+            return Mono.defer(() -> buildMcpClient(protocol, endpointInfo))
+                    .map(client -> new McpEndpoint(endpointInfo, url, client, getCircuitBreaker(url)))
+                    .onErrorResume(error -> {
+                        log.warn("Failed to build MCP client of {} for endpoint {}, skip it.", getName(), url, error);
+                        return Mono.empty();
+                    });
+        }).collectList().flatMap(endpoints -> {
+            if (endpoints.isEmpty()) {
+                return Mono.error(new NacosRuntimeException(NacosException.SERVER_ERROR,
+                        "Failed to build MCP client for all endpoints of " + getName()));
+            }
+            retainCircuitBreakers(endpoints);
+            return Mono.just(new LoadBalancedMcpClientWrapper(getName(), endpoints, endpointSelector, hedgingConfig,
+                    metrics));
+        });
+    }
+    
+    private EndpointCircuitBreaker getCircuitBreaker(String url) {
+        if (null == outlierDetectionConfig) {
+            return null;
         }
-        return asyncClient ? builder.buildAsync() : Mono.just(builder.buildSync());
+        return circuitBreakers.computeIfAbsent(url, key -> new EndpointCircuitBreaker(key, outlierDetectionConfig));
+    }
+    
+    private void retainCircuitBreakers(List<McpEndpoint> endpoints) {
+        Set<String> urls = endpoints.stream().map(McpEndpoint::getUrl).collect(Collectors.toSet());
+        circuitBreakers.keySet().retainAll(urls);
+    }
+    
+    private Mono<McpClientWrapper> buildMcpClient(String protocol, McpEndpointInfo endpointInfo) {
+        return clientProvider.build(protocol, parseBaseUrlFromEndpoint(endpointInfo),
+                parsePathFromEndpoint(endpointInfo), this::invalidateToolsCache);
     }
     
     private String parseMcpProtocol(McpServerDetailInfo mcpServer) {
@@ -167,28 +532,36 @@ public class NacosMcpClientWrapper extends McpClientWrapper {
                 : mcpServer.getFrontProtocol();
     }
     
-    private String parseUrl(McpServerDetailInfo mcpServer) {
+    private List<McpEndpointInfo> parseEndpoints(McpServerDetailInfo mcpServer) {
         if (null != mcpServer.getFrontendEndpoints() && !mcpServer.getFrontendEndpoints().isEmpty()) {
-            return parseUrlFromEndpoints(mcpServer.getFrontendEndpoints());
+            return mcpServer.getFrontendEndpoints();
         }
-        return parseUrlFromEndpoints(mcpServer.getBackendEndpoints());
+        return null == mcpServer.getBackendEndpoints() ? List.of() : mcpServer.getBackendEndpoints();
     }
     
-    private String parseUrlFromEndpoints(List<McpEndpointInfo> endpointInfos) {
-        return endpointInfos.stream().map(this::parseUrlFromEndpoint).findAny()
-                .orElseThrow(() -> new NacosRuntimeException(NacosException.NOT_FOUND, "No endpoint found."));
+    private String parseFirstUrl(McpServerDetailInfo mcpServer) {
+        return parseEndpoints(mcpServer).stream().findFirst().map(this::parseUrlFromEndpoint)
+                .orElse(StringUtils.EMPTY);
     }
     
     private String parseUrlFromEndpoint(McpEndpointInfo endpointInfo) {
+        String path = endpointInfo.getPath();
+        return parseBaseUrlFromEndpoint(endpointInfo) + (StringUtils.isBlank(path) ? StringUtils.EMPTY
+                : parsePathFromEndpoint(endpointInfo));
+    }
+    
+    private String parseBaseUrlFromEndpoint(McpEndpointInfo endpointInfo) {
         String transport = StringUtils.isBlank(endpointInfo.getProtocol()) ? AiConstants.Mcp.MCP_PROTOCOL_HTTP
                 : endpointInfo.getProtocol();
+        return transport + "://" + endpointInfo.getAddress() + ":" + endpointInfo.getPort();
+    }
+    
+    private String parsePathFromEndpoint(McpEndpointInfo endpointInfo) {
         String path = endpointInfo.getPath();
         if (StringUtils.isBlank(path)) {
-            path = StringUtils.EMPTY;
-        } else {
-            path = path.startsWith("/") ? path : "/" + path;
+            return "/";
         }
-        return String.format("%s://%s:%d%s", transport, endpointInfo.getAddress(), endpointInfo.getPort(), path);
+        return path.startsWith("/") ? path : "/" + path;
     }
     
     private McpSchema.Tool refreshToolSpec(McpSchema.Tool originalTool, Map<String, McpTool> toolsInNacos) {
@@ -213,13 +586,30 @@ public class NacosMcpClientWrapper extends McpClientWrapper {
     }
     
     private void notifyHooks() {
-        McpServerDetailInfo mcpServerNotified = this.mcpServer;
-        Set<RefreshHook> hooks = new HashSet<>(this.hooks);
-        hooks.forEach(hook -> hook.postRefresh(mcpServerNotified, this));
+        this.hooks.notifyHooks(getMcpServer(), this);
+    }
+    
+    /**
+     * Snapshot of MCP server info and the client built from it, replaced atomically by refresh. The endpoint url is
+     * parsed once for each change of MCP server, since it is used to tag metrics of every tool call.
+     */
+    private record ClientState(McpServerDetailInfo mcpServer, McpServerFingerprint fingerprint,
+            McpToolTable toolTable, CallTimeouts timeouts, String endpointUrl, LeasedMcpClient client) {
+        
+        private ClientState withClient(LeasedMcpClient client) {
+            return new ClientState(mcpServer, fingerprint, toolTable, timeouts, endpointUrl, client);
+        }
+    }
+    
+    /**
+     * Tools listed from MCP server, only valid for the client state it listed from.
+     */
+    private record CachedTools(ClientState state, Mono<List<McpSchema.Tool>> tools) {
+    
     }
     
     /**
-     * Hook called after {@link #refresh(McpServerDetailInfo)}.
+     * Hook called after {@link #refreshAsync(McpServerDetailInfo)}.
      */
     @FunctionalInterface
     public interface RefreshHook {
@@ -0,0 +1,98 @@
+/*
+ * Copyright 1999-2025 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.agentscope.extensions.nacos.mcp.client;
+
+import io.agentscope.core.tool.mcp.McpClientWrapper;
+import io.modelcontextprotocol.client.McpSyncClient;
+import io.modelcontextprotocol.spec.McpSchema;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Same as {@link io.agentscope.core.tool.mcp.McpSyncClientWrapper}, but runs blocking calls of sync MCP client on the
+ * given scheduler, such as {@link VirtualThreads#scheduler()}, and sends the progress token of
+ * {@link ToolCallProgress} in reactor context with tool call request.
+ *
+ * @author xiweng.yy
+ */
+class OffloadingMcpSyncClientWrapper extends McpClientWrapper {
+    
+    private static final Logger log = LoggerFactory.getLogger(OffloadingMcpSyncClientWrapper.class);
+    
+    private final McpSyncClient client;
+    
+    private final Scheduler scheduler;
+    
+    OffloadingMcpSyncClientWrapper(String name, McpSyncClient client, Scheduler scheduler) {
+        super(name);
+        this.client = client;
+        this.scheduler = scheduler;
+    }
+    
+    @Override
+    public Mono<Void> initialize() {
+        if (initialized) {
+            return Mono.empty();
+        }
+        return Mono.fromRunnable(() -> {
+            McpSchema.InitializeResult result = client.initialize();
+            log.debug("MCP client '{}' initialized with server: {}", name, result.serverInfo().name());
+            List<McpSchema.Tool> tools = client.listTools().tools();
+            tools.forEach(tool -> cachedTools.put(tool.name(), tool));
+            initialized = true;
+        }).subscribeOn(scheduler).doOnError(error -> log.error("Failed to initialize MCP client: {}", name, error))
+                .then();
+    }
+    
+    @Override
+    public Mono<List<McpSchema.Tool>> listTools() {
+        if (!initialized) {
+            return McpClientErrors.notInitialized(name);
+        }
+        return Mono.fromCallable(() -> client.listTools().tools()).subscribeOn(scheduler);
+    }
+    
+    @Override
+    public Mono<McpSchema.CallToolResult> callTool(String toolName, Map<String, Object> arguments) {
+        if (!initialized) {
+            return McpClientErrors.notInitialized(name);
+        }
+        // Send progress token with request if caller tracks progress of this call.
+        return Mono.deferContextual(context -> Mono.fromCallable(() -> client.callTool(
+                        new McpSchema.CallToolRequest(toolName, arguments, ToolCallProgress.from(context)
+                                .map(ToolCallProgress::toRequestMeta).orElse(null)))))
+                .subscribeOn(scheduler)
+                .doOnError(error -> log.error("Failed to call tool {} of MCP client {}.", toolName, name, error));
+    }
+    
+    @Override
+    public void close() {
+        try {
+            client.closeGracefully();
+        } catch (Exception e) {
+            log.warn("Failed to close MCP client {} gracefully, force closing.", name, e);
+            client.close();
+        }
+        cachedTools.clear();
+        initialized = false;
+    }
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright 1999-2025 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.agentscope.extensions.nacos.mcp.client;
+
+import io.agentscope.core.tool.mcp.McpAsyncClientWrapper;
+import io.modelcontextprotocol.client.McpAsyncClient;
+import io.modelcontextprotocol.spec.McpSchema;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+/**
+ * {@link McpAsyncClientWrapper} sending the progress token of {@link ToolCallProgress} in reactor context with tool
+ * call request, so that MCP server sends progress notifications of the call.
+ *
+ * @author xiweng.yy
+ */
+class ProgressMcpAsyncClientWrapper extends McpAsyncClientWrapper {
+    
+    private static final Logger log = LoggerFactory.getLogger(ProgressMcpAsyncClientWrapper.class);
+    
+    private final McpAsyncClient client;
+    
+    ProgressMcpAsyncClientWrapper(String name, McpAsyncClient client) {
+        super(name, client);
+        this.client = client;
+    }
+    
+    @Override
+    public Mono<McpSchema.CallToolResult> callTool(String toolName, Map<String, Object> arguments) {
+        return Mono.deferContextual(context -> ToolCallProgress.from(context)
+                .map(progress -> callToolWithProgress(toolName, arguments, progress))
+                .orElseGet(() -> super.callTool(toolName, arguments)));
+    }
+    
+    private Mono<McpSchema.CallToolResult> callToolWithProgress(String toolName, Map<String, Object> arguments,
+            ToolCallProgress progress) {
+        if (!initialized) {
+            return McpClientErrors.notInitialized(name);
+        }
+        return client.callTool(new McpSchema.CallToolRequest(toolName, arguments, progress.toRequestMeta()))
+                .doOnError(error -> log.error("Failed to call tool {} of MCP client {}.", toolName, name, error));
+    }
+}
@@ -0,0 +1,161 @@
+/*
+ * Copyright 1999-2025 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.agentscope.extensions.nacos.mcp.client;
+
+import com.alibaba.nacos.api.ai.model.mcp.McpServerDetailInfo;
+import io.agentscope.extensions.nacos.mcp.metrics.McpMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Registry of {@link NacosMcpClientWrapper.RefreshHook} of one MCP client.
+ *
+ * <ul>
+ *     <li>Hooks are kept in an immutable list replaced by CAS, registering and notifying never lock or throw
+ *     {@link java.util.ConcurrentModificationException}.</li>
+ *     <li>Hooks are notified on the executor, so that slow hooks won't block the refreshing thread. Notifications
+ *     of one MCP client are run one by one in order of refreshes.</li>
+ *     <li>Errors of one hook are logged and won't stop other hooks, duration of each hook is recorded to metrics.</li>
+ * </ul>
+ *
+ * @author xiweng.yy
+ */
+class RefreshHookRegistry {
+    
+    private static final Logger log = LoggerFactory.getLogger(RefreshHookRegistry.class);
+    
+    private final String mcpServerName;
+    
+    private final Executor executor;
+    
+    private final McpMetrics metrics;
+    
+    private final AtomicReference<List<NacosMcpClientWrapper.RefreshHook>> hooks;
+    
+    private final Queue<Runnable> pendingNotifications;
+    
+    private final AtomicBoolean draining;
+    
+    RefreshHookRegistry(String mcpServerName, Executor executor, McpMetrics metrics) {
+        this.mcpServerName = mcpServerName;
+        this.executor = executor;
+        this.metrics = metrics;
+        this.hooks = new AtomicReference<>(Collections.emptyList());
+        this.pendingNotifications = new ConcurrentLinkedQueue<>();
+        this.draining = new AtomicBoolean(false);
+    }
+    
+    void register(NacosMcpClientWrapper.RefreshHook hook) {
+        hooks.updateAndGet(current -> {
+            if (current.contains(hook)) {
+                return current;
+            }
+            List<NacosMcpClientWrapper.RefreshHook> result = new ArrayList<>(current.size() + 1);
+            result.addAll(current);
+            result.add(hook);
+            return Collections.unmodifiableList(result);
+        });
+    }
+    
+    boolean unregister(NacosMcpClientWrapper.RefreshHook hook) {
+        List<NacosMcpClientWrapper.RefreshHook> previous = hooks.getAndUpdate(current -> {
+            if (!current.contains(hook)) {
+                return current;
+            }
+            List<NacosMcpClientWrapper.RefreshHook> result = new ArrayList<>(current);
+            result.remove(hook);
+            return Collections.unmodifiableList(result);
+        });
+        return previous.contains(hook);
+    }
+    
+    void clear() {
+        hooks.set(Collections.emptyList());
+    }
+    
+    int size() {
+        return hooks.get().size();
+    }
+    
+    /**
+     * Notify hooks registered at this moment asynchronously.
+     *
+     * @param mcpServer the MCP server after refresh
+     * @param mcpClient the refreshed MCP client
+     */
+    void notifyHooks(McpServerDetailInfo mcpServer, NacosMcpClientWrapper mcpClient) {
+        List<NacosMcpClientWrapper.RefreshHook> snapshot = hooks.get();
+        if (snapshot.isEmpty()) {
+            return;
+        }
+        pendingNotifications.offer(() -> snapshot.forEach(hook -> runHook(hook, mcpServer, mcpClient)));
+        scheduleDrain();
+    }
+    
+    private void scheduleDrain() {
+        if (!draining.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            executor.execute(this::drain);
+        } catch (RejectedExecutionException e) {
+            log.warn("Executor rejected refresh hooks of MCP client {}, run them in current thread.", mcpServerName);
+            drain();
+        }
+    }
+    
+    private void drain() {
+        Runnable notification;
+        while (null != (notification = pendingNotifications.poll())) {
+            notification.run();
+        }
+        draining.set(false);
+        // Notifications offered after polling the last one but before resetting the flag.
+        if (!pendingNotifications.isEmpty()) {
+            scheduleDrain();
+        }
+    }
+    
+    private void runHook(NacosMcpClientWrapper.RefreshHook hook, McpServerDetailInfo mcpServer,
+            NacosMcpClientWrapper mcpClient) {
+        long startNanos = System.nanoTime();
+        Throwable error = null;
+        try {
+            hook.postRefresh(mcpServer, mcpClient);
+        } catch (Throwable e) {
+            error = e;
+            log.error("Failed to run refresh hook {} of MCP client {}.", hook, mcpServerName, e);
+        }
+        metrics.recordRefreshHook(mcpServerName, hookName(hook), System.nanoTime() - startNanos, error);
+    }
+    
+    private static String hookName(NacosMcpClientWrapper.RefreshHook hook) {
+        Class<?> hookClass = hook.getClass();
+        // Names of lambda classes differ between runs, don't use them as metric tags.
+        return hookClass.isSynthetic() || hookClass.isHidden() ? "lambda" : hookClass.getSimpleName();
+    }
+}
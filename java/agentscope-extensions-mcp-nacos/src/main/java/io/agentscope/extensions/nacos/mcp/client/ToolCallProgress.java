@@ -0,0 +1,136 @@
+/*
+ * Copyright 1999-2025 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.agentscope.extensions.nacos.mcp.client;
+
+import io.modelcontextprotocol.spec.McpSchema;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Mono;
+import reactor.util.context.ContextView;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Progress of one tool call, receiving the progress notifications sent by MCP server for this call.
+ *
+ * <p>The progress token is sent in {@code _meta} of the tool call request, and notifications from MCP server are
+ * routed to the listener by token, so that the progress keeps being received from the old MCP client which is
+ * draining in-flight calls after {@link NacosMcpClientWrapper#refresh}.
+ *
+ * <pre>{@code
+ *  ToolCallProgress progress = ToolCallProgress.create(notification -> log.info("{}", notification.message()));
+ *  progress.track(mcpClient.callTool(toolName, arguments)).subscribe();
+ * }</pre>
+ *
+ * <p>Calls served by tool result cache or shared with concurrent identical calls don't receive progress.
+ *
+ * @author xiweng.yy
+ */
+public final class ToolCallProgress {
+    
+    private static final Logger log = LoggerFactory.getLogger(ToolCallProgress.class);
+    
+    private static final Class<ToolCallProgress> CONTEXT_KEY = ToolCallProgress.class;
+    
+    private static final String PROGRESS_TOKEN = "progressToken";
+    
+    private static final Map<String, ToolCallProgress> TRACKING = new ConcurrentHashMap<>();
+    
+    private final String token;
+    
+    private final Consumer<McpSchema.ProgressNotification> listener;
+    
+    private ToolCallProgress(String token, Consumer<McpSchema.ProgressNotification> listener) {
+        this.token = token;
+        this.listener = listener;
+    }
+    
+    /**
+     * Create progress of a tool call with a unique progress token.
+     *
+     * @param listener the listener of progress notifications, should not block
+     * @return the progress
+     */
+    public static ToolCallProgress create(Consumer<McpSchema.ProgressNotification> listener) {
+        if (null == listener) {
+            throw new IllegalArgumentException("Progress listener can not be null.");
+        }
+        return new ToolCallProgress("agentscope-" + UUID.randomUUID(), listener);
+    }
+    
+    /**
+     * Get progress from reactor context.
+     *
+     * @param context the reactor context
+     * @return the progress, empty if not set
+     */
+    public static Optional<ToolCallProgress> from(ContextView context) {
+        return context.getOrEmpty(CONTEXT_KEY);
+    }
+    
+    /**
+     * Receive progress notifications of the tool call while it's running.
+     *
+     * @param call the tool call, such as {@link NacosMcpClientWrapper#callTool}
+     * @param <T>  the type of call result
+     * @return the tool call sending this progress token
+     */
+    public <T> Mono<T> track(Mono<T> call) {
+        return Mono.defer(() -> {
+            TRACKING.put(token, this);
+            return call.contextWrite(context -> context.put(CONTEXT_KEY, this))
+                    .doFinally(signal -> TRACKING.remove(token, this));
+        });
+    }
+    
+    public String getToken() {
+        return token;
+    }
+    
+    /**
+     * Build the {@code _meta} of tool call request carrying this progress token.
+     *
+     * @return the meta of request
+     */
+    Map<String, Object> toRequestMeta() {
+        return Map.of(PROGRESS_TOKEN, token);
+    }
+    
+    /**
+     * Route progress notification from MCP server to the tracking tool call, notifications of finished calls are
+     * dropped.
+     *
+     * @param notification the progress notification
+     */
+    static void dispatch(McpSchema.ProgressNotification notification) {
+        ToolCallProgress progress = null == notification.progressToken() ? null
+                : TRACKING.get(notification.progressToken());
+        if (null == progress) {
+            log.debug("Drop progress notification of finished tool call: {}", notification.progressToken());
+            return;
+        }
+        try {
+            progress.listener.accept(notification);
+        } catch (Exception e) {
+            log.warn("Failed to handle progress notification of tool call {}.", progress.token, e);
+        }
+    }
+}
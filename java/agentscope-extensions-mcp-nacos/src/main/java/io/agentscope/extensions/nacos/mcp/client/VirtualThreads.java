@@ -0,0 +1,92 @@
+/*
+ * Copyright 1999-2025 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.agentscope.extensions.nacos.mcp.client;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Scheduler running each task on a new virtual thread, for blocking calls of sync MCP clients.
+ *
+ * <p>This module is compiled for Java 17, so virtual threads are looked up by reflection and only used when running
+ * on Java 21 or later.
+ *
+ * <p>Example usage:
+ * <pre>{@code
+ *  NacosMcpClientWrapper mcpClient = NacosMcpClientBuilder
+ *      .create("example-mcp-server", mcpServerManager)
+ *      .asyncClient(false)
+ *      .syncClientScheduler(VirtualThreads.scheduler())
+ *      .build();
+ * }</pre>
+ *
+ * @author xiweng.yy
+ */
+public final class VirtualThreads {
+    
+    private static final Logger log = LoggerFactory.getLogger(VirtualThreads.class);
+    
+    private VirtualThreads() {
+    }
+    
+    /**
+     * Whether virtual threads are supported by current JVM.
+     *
+     * @return {@code true} if running on Java 21 or later
+     */
+    public static boolean isSupported() {
+        return null != Holder.SCHEDULER;
+    }
+    
+    /**
+     * Get the shared scheduler running each task on a new virtual thread, falls back to
+     * {@link Schedulers#boundedElastic()} if virtual threads are not supported.
+     *
+     * @return the scheduler of virtual threads
+     */
+    public static Scheduler scheduler() {
+        if (null == Holder.SCHEDULER) {
+            log.warn("Virtual threads are not supported by Java {}, use bounded elastic scheduler instead.",
+                    Runtime.version().feature());
+            return Schedulers.boundedElastic();
+        }
+        return Holder.SCHEDULER;
+    }
+    
+    private static Scheduler createScheduler() {
+        try {
+            ExecutorService executor = (ExecutorService) Executors.class
+                    .getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+            return Schedulers.fromExecutorService(executor, "agentscope-mcp-virtual");
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+    
+    /**
+     * Create the scheduler lazily at first use, and only once.
+     */
+    private static class Holder {
+        
+        private static final Scheduler SCHEDULER = createScheduler();
+    }
+}
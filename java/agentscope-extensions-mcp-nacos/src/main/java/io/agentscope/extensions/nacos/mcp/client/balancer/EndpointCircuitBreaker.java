@@ -0,0 +1,203 @@
+/*
+ * Copyright 1999-2025 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.agentscope.extensions.nacos.mcp.client.balancer;
+
+import io.agentscope.extensions.nacos.mcp.client.CallTimeout;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Circuit breaker of one MCP endpoint, ejects the endpoint from selection when it behaves as an outlier.
+ *
+ * <ul>
+ *     <li>Outcomes of latest calls are recorded in a count based window, endpoint is ejected when failure rate in
+ *     window exceeds threshold. Calls slower than the slow call threshold, or cancelled by
+ *     {@link CallTimeout}, are regarded as failed.</li>
+ *     <li>After ejection time, one probe call is allowed. Endpoint is recovered if probe succeeded, otherwise ejected
+ *     again with doubled ejection time.</li>
+ * </ul>
+ *
+ * <p>The circuit breaker is kept by url of endpoint, so that states are not lost when MCP clients are rebuilt by
+ * refresh.
+ *
+ * @author xiweng.yy
+ * @see OutlierDetectionConfig
+ */
+public class EndpointCircuitBreaker {
+    
+    private static final Logger log = LoggerFactory.getLogger(EndpointCircuitBreaker.class);
+    
+    private final String url;
+    
+    private final OutlierDetectionConfig config;
+    
+    private final boolean[] window;
+    
+    private int windowIndex;
+    
+    private int windowCount;
+    
+    private int failureCount;
+    
+    private boolean ejected;
+    
+    private long ejectedUntilMillis;
+    
+    private int consecutiveEjections;
+    
+    private boolean probing;
+    
+    public EndpointCircuitBreaker(String url, OutlierDetectionConfig config) {
+        this.url = url;
+        this.config = config;
+        this.window = new boolean[config.getWindowSize()];
+    }
+    
+    /**
+     * Whether the endpoint can be selected.
+     *
+     * @return {@code false} if endpoint is ejected, or probing after ejection
+     */
+    public synchronized boolean isAvailable() {
+        return !ejected || (!probing && System.currentTimeMillis() >= ejectedUntilMillis);
+    }
+    
+    /**
+     * Whether the endpoint is ejected, including probing after ejection.
+     *
+     * @return {@code true} if ejected
+     */
+    public synchronized boolean isEjected() {
+        return ejected;
+    }
+    
+    /**
+     * Called when a call starts.
+     *
+     * @return {@code true} if the call is a probe after ejection
+     */
+    synchronized boolean onCallStart() {
+        if (ejected && !probing && System.currentTimeMillis() >= ejectedUntilMillis) {
+            log.info("Probing ejected MCP endpoint {}.", url);
+            probing = true;
+            return true;
+        }
+        return false;
+    }
+    
+    /**
+     * Called when a call finished with result.
+     *
+     * @param probe        whether the call is a probe
+     * @param failed       whether the call failed
+     * @param latencyNanos latency of the call
+     */
+    synchronized void onCallFinish(boolean probe, boolean failed, long latencyNanos) {
+        boolean slow = isSlow(latencyNanos);
+        if (probe) {
+            probing = false;
+            if (failed || slow) {
+                eject();
+            } else {
+                recover();
+            }
+            return;
+        }
+        if (ejected) {
+            // Calls started before ejection, ignore.
+            return;
+        }
+        record(failed || slow);
+        if (windowCount >= config.getMinimumCalls()
+                && failureCount >= config.getFailureRateThreshold() * windowCount) {
+            eject();
+        }
+    }
+    
+    /**
+     * Called when a call cancelled by caller or by timeout. Calls cancelled by timeout, or after running longer than
+     * slow call threshold, are regarded as failed, otherwise a hanging endpoint whose calls all end by timeout is
+     * never ejected. Other cancelled calls are neither failed nor succeeded.
+     *
+     * @param probe        whether the call is a probe
+     * @param timedOut     whether the call is cancelled by timeout
+     * @param latencyNanos elapsed time of the call before cancelled
+     */
+    synchronized void onCallCancel(boolean probe, boolean timedOut, long latencyNanos) {
+        if (timedOut || isSlow(latencyNanos)) {
+            onCallFinish(probe, true, latencyNanos);
+            return;
+        }
+        onHedgeLost(probe);
+    }
+    
+    /**
+     * Called when a call cancelled because the hedged call to another endpoint returned first, which is neither failed
+     * nor succeeded.
+     *
+     * @param probe whether the call is a probe
+     */
+    synchronized void onHedgeLost(boolean probe) {
+        if (probe) {
+            probing = false;
+        }
+    }
+    
+    private boolean isSlow(long latencyNanos) {
+        return null != config.getSlowCallThreshold() && latencyNanos > config.getSlowCallThreshold().toNanos();
+    }
+    
+    private void record(boolean failed) {
+        if (windowCount == window.length) {
+            if (window[windowIndex]) {
+                failureCount--;
+            }
+        } else {
+            windowCount++;
+        }
+        window[windowIndex] = failed;
+        if (failed) {
+            failureCount++;
+        }
+        windowIndex = (windowIndex + 1) % window.length;
+    }
+    
+    private void eject() {
+        consecutiveEjections++;
+        long baseMillis = config.getBaseEjectionTime().toMillis();
+        long ejectionMillis = baseMillis << Math.min(consecutiveEjections - 1, 20);
+        ejectionMillis = Math.min(config.getMaxEjectionTime().toMillis(), ejectionMillis);
+        ejected = true;
+        ejectedUntilMillis = System.currentTimeMillis() + ejectionMillis;
+        resetWindow();
+        log.warn("Eject MCP endpoint {} for {} ms, consecutive ejections: {}.", url, ejectionMillis,
+                consecutiveEjections);
+    }
+    
+    private void recover() {
+        log.info("Recover ejected MCP endpoint {}.", url);
+        ejected = false;
+        consecutiveEjections = 0;
+        resetWindow();
+    }
+    
+    private void resetWindow() {
+        windowIndex = 0;
+        windowCount = 0;
+        failureCount = 0;
+    }
+}
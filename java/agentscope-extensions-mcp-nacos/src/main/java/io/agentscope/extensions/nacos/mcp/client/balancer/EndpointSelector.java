@@ -0,0 +1,42 @@
+/*
+ * Copyright 1999-2025 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.agentscope.extensions.nacos.mcp.client.balancer;
+
+import java.util.List;
+
+/**
+ * Strategy to select one endpoint from all available endpoints of a MCP server for each request.
+ *
+ * <p>Implementations should be thread-safe, the same selector will be called concurrently by all requests of the
+ * MCP client, and might be shared by multiple MCP clients.
+ *
+ * @author xiweng.yy
+ * @see RoundRobinEndpointSelector
+ * @see WeightedEndpointSelector
+ * @see LeastOutstandingEndpointSelector
+ */
+@FunctionalInterface
+public interface EndpointSelector {
+    
+    /**
+     * Select one endpoint to send request.
+     *
+     * @param endpoints available endpoints, never empty
+     * @return the selected endpoint, must be one of {@code endpoints}
+     */
+    McpEndpoint select(List<McpEndpoint> endpoints);
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright 1999-2025 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.agentscope.extensions.nacos.mcp.client.balancer;
+
+import java.time.Duration;
+
+/**
+ * Config of hedged tool calls in {@link LoadBalancedMcpClientWrapper}.
+ *
+ * <p>When a call of read-only or idempotent tool has not finished after the hedge delay, a second call is sent to
+ * another endpoint, the first result wins and the other call is cancelled. The hedge delay is the latency percentile
+ * of the tool, such as p95.
+ *
+ * <p>Example usage:
+ * <pre>{@code
+ *  // Hedge calls slower than p95 of the tool, at least 100ms.
+ *  HedgingConfig config = HedgingConfig.create()
+ *      .percentile(0.95)
+ *      .minDelay(Duration.ofMillis(100));
+ * }</pre>
+ *
+ * @author xiweng.yy
+ */
+public class HedgingConfig {
+    
+    private double percentile;
+    
+    private Duration minDelay;
+    
+    private Duration initialDelay;
+    
+    private HedgingConfig() {
+        this.percentile = 0.95;
+        this.minDelay = Duration.ofMillis(10);
+        this.initialDelay = Duration.ofSeconds(1);
+    }
+    
+    public static HedgingConfig create() {
+        return new HedgingConfig();
+    }
+    
+    /**
+     * Set the latency percentile of tool to send hedged call. Default is 0.95.
+     *
+     * @param percentile percentile in (0, 1)
+     * @return this config
+     */
+    public HedgingConfig percentile(double percentile) {
+        this.percentile = percentile;
+        return this;
+    }
+    
+    /**
+     * Set the min delay to send hedged call, avoid hedging too aggressively for fast tools. Default is 10ms.
+     *
+     * @param minDelay min delay of hedged call
+     * @return this config
+     */
+    public HedgingConfig minDelay(Duration minDelay) {
+        this.minDelay = minDelay;
+        return this;
+    }
+    
+    /**
+     * Set the delay to send hedged call before enough latencies of tool are recorded. Default is 1 second.
+     *
+     * @param initialDelay delay of hedged call before enough latencies recorded
+     * @return this config
+     */
+    public HedgingConfig initialDelay(Duration initialDelay) {
+        this.initialDelay = initialDelay;
+        return this;
+    }
+    
+    public double getPercentile() {
+        return percentile;
+    }
+    
+    public Duration getMinDelay() {
+        return minDelay;
+    }
+    
+    public Duration getInitialDelay() {
+        return initialDelay;
+    }
+    
+    /**
+     * Check whether the config is valid.
+     *
+     * @throws IllegalArgumentException if config is invalid
+     */
+    public void validate() {
+        if (percentile <= 0 || percentile >= 1) {
+            throw new IllegalArgumentException("Percentile of hedging should be in (0, 1).");
+        }
+        if (null == minDelay || null == initialDelay || minDelay.isNegative() || initialDelay.isNegative()) {
+            throw new IllegalArgumentException("Delays of hedging can not be null or negative.");
+        }
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright 1999-2025 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.agentscope.extensions.nacos.mcp.client.balancer;
+
+import java.util.Arrays;
+
+/**
+ * Track latest latencies of tool calls and estimate the latency percentile.
+ *
+ * <p>The percentile is recalculated every {@link #RECALCULATE_INTERVAL} records rather than every query, because it
+ * is queried for each hedged call.
+ *
+ * @author xiweng.yy
+ */
+class LatencyTracker {
+    
+    private static final int CAPACITY = 200;
+    
+    private static final int MIN_SAMPLES = 20;
+    
+    private static final int RECALCULATE_INTERVAL = 20;
+    
+    private final double percentile;
+    
+    private final long[] samples;
+    
+    private int index;
+    
+    private int count;
+    
+    private int recordsSinceCalculated;
+    
+    private long percentileNanos;
+    
+    LatencyTracker(double percentile) {
+        this.percentile = percentile;
+        this.samples = new long[CAPACITY];
+        this.percentileNanos = -1;
+    }
+    
+    synchronized void record(long latencyNanos) {
+        samples[index] = latencyNanos;
+        index = (index + 1) % CAPACITY;
+        count = Math.min(CAPACITY, count + 1);
+        if (count >= MIN_SAMPLES && (percentileNanos < 0 || ++recordsSinceCalculated >= RECALCULATE_INTERVAL)) {
+            long[] sorted = Arrays.copyOf(samples, count);
+            Arrays.sort(sorted);
+            percentileNanos = sorted[Math.min(count - 1, (int) Math.ceil(percentile * count) - 1)];
+            recordsSinceCalculated = 0;
+        }
+    }
+    
+    /**
+     * Get the estimated latency percentile.
+     *
+     * @return latency percentile in nanoseconds, or -1 if not enough samples
+     */
+    synchronized long getPercentileNanos() {
+        return percentileNanos;
+    }
+}
@@ -0,0 +1,47 @@
+/*
+ * Copyright 1999-2025 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.agentscope.extensions.nacos.mcp.client.balancer;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Select the endpoint with the least outstanding requests.
+ *
+ * <p>Scanning starts from a random endpoint, so endpoints with the same outstanding requests are selected evenly.
+ *
+ * @author xiweng.yy
+ */
+public class LeastOutstandingEndpointSelector implements EndpointSelector {
+    
+    @Override
+    public McpEndpoint select(List<McpEndpoint> endpoints) {
+        int size = endpoints.size();
+        int start = ThreadLocalRandom.current().nextInt(size);
+        McpEndpoint result = endpoints.get(start);
+        int least = result.getOutstandingRequests();
+        for (int i = 1; i < size && least > 0; i++) {
+            McpEndpoint endpoint = endpoints.get((start + i) % size);
+            int outstanding = endpoint.getOutstandingRequests();
+            if (outstanding < least) {
+                result = endpoint;
+                least = outstanding;
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,253 @@
+/*
+ * Copyright 1999-2025 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.agentscope.extensions.nacos.mcp.client.balancer;
+
+import com.alibaba.nacos.api.exception.NacosException;
+import com.alibaba.nacos.api.exception.runtime.NacosRuntimeException;
+import io.agentscope.core.tool.mcp.McpClientWrapper;
+import io.agentscope.extensions.nacos.mcp.client.CallTimeout;
+import io.agentscope.extensions.nacos.mcp.metrics.McpMetrics;
+import io.modelcontextprotocol.spec.McpSchema;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BooleanSupplier;
+
+/**
+ * {@link McpClientWrapper} which keeps connections to all endpoints of a MCP server and spreads requests across
+ * them by an {@link EndpointSelector}.
+ *
+ * <p>Endpoints which failed to initialize are removed from the pool, initialization only fails when all endpoints
+ * failed. Endpoints ejected by {@link EndpointCircuitBreaker} are skipped when selecting, unless all endpoints are
+ * ejected.
+ *
+ * <p>Calls of read-only or idempotent tools can be hedged to another endpoint when slow, see {@link HedgingConfig}.
+ *
+ * @author xiweng.yy
+ */
+public class LoadBalancedMcpClientWrapper extends McpClientWrapper {
+    
+    private static final Logger log = LoggerFactory.getLogger(LoadBalancedMcpClientWrapper.class);
+    
+    private final EndpointSelector selector;
+    
+    private final HedgingConfig hedgingConfig;
+    
+    private final Map<String, LatencyTracker> latencyTrackers;
+    
+    private final McpMetrics metrics;
+    
+    private volatile List<McpEndpoint> endpoints;
+    
+    /**
+     * Create a load-balanced MCP client.
+     *
+     * @param name      the name of MCP client
+     * @param endpoints the endpoints with MCP clients connecting to them
+     * @param selector  the strategy to select endpoint for each request
+     */
+    public LoadBalancedMcpClientWrapper(String name, List<McpEndpoint> endpoints, EndpointSelector selector) {
+        this(name, endpoints, selector, null, McpMetrics.noop());
+    }
+    
+    /**
+     * Create a load-balanced MCP client with hedged tool calls and metrics of each endpoint.
+     *
+     * @param name          the name of MCP client
+     * @param endpoints     the endpoints with MCP clients connecting to them
+     * @param selector      the strategy to select endpoint for each request
+     * @param hedgingConfig the config of hedged tool calls, {@code null} means never hedging
+     * @param metrics       the metrics to record tool calls of each endpoint
+     */
+    public LoadBalancedMcpClientWrapper(String name, List<McpEndpoint> endpoints, EndpointSelector selector,
+            HedgingConfig hedgingConfig, McpMetrics metrics) {
+        super(name);
+        this.selector = selector;
+        this.hedgingConfig = hedgingConfig;
+        this.latencyTrackers = new ConcurrentHashMap<>(2);
+        this.metrics = metrics;
+        this.endpoints = List.copyOf(endpoints);
+    }
+    
+    @Override
+    public Mono<Void> initialize() {
+        if (isInitialized()) {
+            return Mono.empty();
+        }
+        return Flux.fromIterable(endpoints).flatMap(endpoint -> endpoint.getMcpClient().initialize()
+                .thenReturn(endpoint).onErrorResume(error -> {
+                    log.warn("Failed to initialize MCP client {} for endpoint {}, remove it from pool.", name,
+                            endpoint.getUrl(), error);
+                    endpoint.getMcpClient().close();
+                    return Mono.empty();
+                })).collectList().flatMap(initialized -> {
+                    if (initialized.isEmpty()) {
+                        return Mono.error(new NacosRuntimeException(NacosException.SERVER_ERROR,
+                                String.format("All endpoints of MCP server %s failed to initialize.", name)));
+                    }
+                    this.endpoints = List.copyOf(initialized);
+                    this.initialized = true;
+                    return Mono.empty();
+                });
+    }
+    
+    @Override
+    public Mono<List<McpSchema.Tool>> listTools() {
+        return Mono.defer(() -> selectEndpoint().getMcpClient().listTools());
+    }
+    
+    @Override
+    public Mono<McpSchema.CallToolResult> callTool(String toolName, Map<String, Object> arguments) {
+        return Mono.defer(() -> {
+            McpEndpoint endpoint = selectEndpoint();
+            if (!isHedgeable(toolName)) {
+                return callTool(endpoint, toolName, arguments, () -> false);
+            }
+            LatencyTracker latencyTracker = latencyTrackers.computeIfAbsent(toolName,
+                    key -> new LatencyTracker(hedgingConfig.getPercentile()));
+            long startNanos = System.nanoTime();
+            // Set by the first signal of primary or hedged call, before the other one is cancelled as loser.
+            AtomicBoolean settled = new AtomicBoolean();
+            // Record elapsed time of cancelled primary call too, otherwise the slowest calls won by hedged calls
+            // are never recorded and the percentile becomes lower and lower.
+            Mono<McpSchema.CallToolResult> primary = callTool(endpoint, toolName, arguments, settled::get)
+                    .doOnSuccess(result -> latencyTracker.record(System.nanoTime() - startNanos))
+                    .doOnCancel(() -> latencyTracker.record(System.nanoTime() - startNanos));
+            Mono<McpSchema.CallToolResult> hedged = Mono.delay(hedgeDelay(latencyTracker))
+                    .then(Mono.defer(() -> hedgedCallTool(endpoint, toolName, arguments, settled::get)));
+            // Primary errors are returned directly, hedged errors are ignored and wait for primary.
+            return Mono.firstWithSignal(primary.doOnEach(signal -> settled.set(true)),
+                    hedged.doOnEach(signal -> settled.set(true)));
+        });
+    }
+    
+    /**
+     * Call tool by the endpoint. Cancelled calls which lost hedging are neutral to circuit breaker, other cancelled
+     * calls are checked by timeout and latency.
+     */
+    private Mono<McpSchema.CallToolResult> callTool(McpEndpoint endpoint, String toolName,
+            Map<String, Object> arguments, BooleanSupplier hedgeLost) {
+        return Mono.deferContextual(context -> {
+            log.debug("Call tool {} of MCP server {} by endpoint {}", toolName, name, endpoint.getUrl());
+            boolean probe = endpoint.onRequestStart();
+            long startNanos = System.nanoTime();
+            return metrics.timeToolCall(name, toolName, endpoint.getUrl(),
+                            endpoint.getMcpClient().callTool(toolName, arguments))
+                    .doOnSuccess(result -> endpoint.onRequestFinish(probe, false, System.nanoTime() - startNanos))
+                    .doOnError(error -> endpoint.onRequestFinish(probe, true, System.nanoTime() - startNanos))
+                    .doOnCancel(() -> {
+                        if (hedgeLost.getAsBoolean()) {
+                            endpoint.onRequestHedgeLost(probe);
+                        } else {
+                            endpoint.onRequestCancel(probe, CallTimeout.isExpired(context),
+                                    System.nanoTime() - startNanos);
+                        }
+                    });
+        });
+    }
+    
+    private Mono<McpSchema.CallToolResult> hedgedCallTool(McpEndpoint primary, String toolName,
+            Map<String, Object> arguments, BooleanSupplier hedgeLost) {
+        List<McpEndpoint> others = availableEndpoints().stream().filter(endpoint -> endpoint != primary).toList();
+        if (others.isEmpty()) {
+            return Mono.never();
+        }
+        McpEndpoint endpoint = others.size() == 1 ? others.get(0) : selector.select(others);
+        log.debug("Hedge call of tool {} of MCP server {} to endpoint {}", toolName, name, endpoint.getUrl());
+        return callTool(endpoint, toolName, arguments, hedgeLost).onErrorResume(error -> {
+            log.debug("Hedged call of tool {} to endpoint {} failed, wait for primary call.", toolName,
+                    endpoint.getUrl(), error);
+            return Mono.never();
+        });
+    }
+    
+    private boolean isHedgeable(String toolName) {
+        if (null == hedgingConfig || endpoints.size() < 2) {
+            return false;
+        }
+        McpSchema.Tool tool = getCachedTool(toolName);
+        if (null == tool || null == tool.annotations()) {
+            return false;
+        }
+        return Boolean.TRUE.equals(tool.annotations().readOnlyHint()) || Boolean.TRUE.equals(
+                tool.annotations().idempotentHint());
+    }
+    
+    private Duration hedgeDelay(LatencyTracker latencyTracker) {
+        long percentileNanos = latencyTracker.getPercentileNanos();
+        if (percentileNanos < 0) {
+            return hedgingConfig.getInitialDelay();
+        }
+        Duration result = Duration.ofNanos(percentileNanos);
+        return result.compareTo(hedgingConfig.getMinDelay()) < 0 ? hedgingConfig.getMinDelay() : result;
+    }
+    
+    @Override
+    public McpSchema.Tool getCachedTool(String toolName) {
+        // All endpoints serve the same MCP server, so the tools cached by any endpoint are the same.
+        return endpoints.stream().map(endpoint -> endpoint.getMcpClient().getCachedTool(toolName))
+                .filter(Objects::nonNull).findFirst().orElse(null);
+    }
+    
+    @Override
+    public void close() {
+        endpoints.forEach(endpoint -> endpoint.getMcpClient().close());
+        this.initialized = false;
+    }
+    
+    /**
+     * Get current endpoints in the pool.
+     *
+     * @return the endpoints in the pool
+     */
+    public List<McpEndpoint> getEndpoints() {
+        return endpoints;
+    }
+    
+    private McpEndpoint selectEndpoint() {
+        List<McpEndpoint> current = availableEndpoints();
+        if (current.isEmpty()) {
+            throw new NacosRuntimeException(NacosException.NOT_FOUND, "No endpoint found.");
+        }
+        return current.size() == 1 ? current.get(0) : selector.select(current);
+    }
+    
+    /**
+     * Get endpoints not ejected by circuit breaker. If all endpoints are ejected, use all of them rather than failing
+     * all requests.
+     */
+    private List<McpEndpoint> availableEndpoints() {
+        List<McpEndpoint> current = this.endpoints;
+        if (current.stream().allMatch(McpEndpoint::isAvailable)) {
+            return current;
+        }
+        List<McpEndpoint> result = current.stream().filter(McpEndpoint::isAvailable).toList();
+        if (result.isEmpty()) {
+            log.warn("All endpoints of MCP server {} are ejected, select from all endpoints.", name);
+            return current;
+        }
+        return result;
+    }
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright 1999-2025 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.agentscope.extensions.nacos.mcp.client.balancer;
+
+import com.alibaba.nacos.api.ai.model.mcp.McpEndpointInfo;
+import io.agentscope.core.tool.mcp.McpClientWrapper;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * One endpoint of a MCP server in {@link LoadBalancedMcpClientWrapper}, owning the connection to this endpoint.
+ *
+ * <p>Selectors can read the endpoint information and the number of outstanding requests to choose an endpoint.
+ *
+ * @author xiweng.yy
+ * @see EndpointSelector
+ */
+public final class McpEndpoint {
+    
+    private final McpEndpointInfo endpointInfo;
+    
+    private final String url;
+    
+    private final McpClientWrapper mcpClient;
+    
+    private final AtomicInteger outstandingRequests;
+    
+    private final EndpointCircuitBreaker circuitBreaker;
+    
+    public McpEndpoint(McpEndpointInfo endpointInfo, String url, McpClientWrapper mcpClient) {
+        this(endpointInfo, url, mcpClient, null);
+    }
+    
+    /**
+     * Create endpoint with circuit breaker.
+     *
+     * @param endpointInfo   the endpoint information from Nacos
+     * @param url            the url of endpoint
+     * @param mcpClient      the MCP client connecting to this endpoint
+     * @param circuitBreaker the circuit breaker of this endpoint, {@code null} means never ejected
+     */
+    public McpEndpoint(McpEndpointInfo endpointInfo, String url, McpClientWrapper mcpClient,
+            EndpointCircuitBreaker circuitBreaker) {
+        this.endpointInfo = endpointInfo;
+        this.url = url;
+        this.mcpClient = mcpClient;
+        this.outstandingRequests = new AtomicInteger();
+        this.circuitBreaker = circuitBreaker;
+    }
+    
+    public McpEndpointInfo getEndpointInfo() {
+        return endpointInfo;
+    }
+    
+    public String getUrl() {
+        return url;
+    }
+    
+    /**
+     * Get the number of requests which have been sent to this endpoint but not finished yet.
+     *
+     * @return the number of outstanding requests
+     */
+    public int getOutstandingRequests() {
+        return outstandingRequests.get();
+    }
+    
+    /**
+     * Whether this endpoint can be selected, endpoints ejected by circuit breaker can't be selected.
+     *
+     * @return {@code true} if available
+     */
+    public boolean isAvailable() {
+        return null == circuitBreaker || circuitBreaker.isAvailable();
+    }
+    
+    McpClientWrapper getMcpClient() {
+        return mcpClient;
+    }
+    
+    /**
+     * Called when a request starts.
+     *
+     * @return {@code true} if the request is a probe after ejection
+     */
+    boolean onRequestStart() {
+        outstandingRequests.incrementAndGet();
+        return null != circuitBreaker && circuitBreaker.onCallStart();
+    }
+    
+    void onRequestFinish(boolean probe, boolean failed, long latencyNanos) {
+        outstandingRequests.decrementAndGet();
+        if (null != circuitBreaker) {
+            circuitBreaker.onCallFinish(probe, failed, latencyNanos);
+        }
+    }
+    
+    void onRequestCancel(boolean probe, boolean timedOut, long latencyNanos) {
+        outstandingRequests.decrementAndGet();
+        if (null != circuitBreaker) {
+            circuitBreaker.onCallCancel(probe, timedOut, latencyNanos);
+        }
+    }
+    
+    void onRequestHedgeLost(boolean probe) {
+        outstandingRequests.decrementAndGet();
+        if (null != circuitBreaker) {
+            circuitBreaker.onHedgeLost(probe);
+        }
+    }
+    
+    @Override
+    public String toString() {
+        return "McpEndpoint{url='" + url + "', outstandingRequests=" + outstandingRequests.get() + '}';
+    }
+}
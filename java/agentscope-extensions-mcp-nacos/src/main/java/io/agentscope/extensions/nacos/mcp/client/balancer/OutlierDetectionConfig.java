@@ -0,0 +1,170 @@
+/*
+ * Copyright 1999-2025 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.agentscope.extensions.nacos.mcp.client.balancer;
+
+import java.time.Duration;
+
+/**
+ * Config of {@link EndpointCircuitBreaker}.
+ *
+ * <p>Example usage:
+ * <pre>{@code
+ *  // Eject endpoint when half of last 20 calls failed or slower than 3 seconds.
+ *  OutlierDetectionConfig config = OutlierDetectionConfig.create()
+ *      .windowSize(20)
+ *      .failureRateThreshold(0.5)
+ *      .slowCallThreshold(Duration.ofSeconds(3))
+ *      .baseEjectionTime(Duration.ofSeconds(10));
+ * }</pre>
+ *
+ * @author xiweng.yy
+ */
+public class OutlierDetectionConfig {
+    
+    private int windowSize;
+    
+    private int minimumCalls;
+    
+    private double failureRateThreshold;
+    
+    private Duration slowCallThreshold;
+    
+    private Duration baseEjectionTime;
+    
+    private Duration maxEjectionTime;
+    
+    private OutlierDetectionConfig() {
+        this.windowSize = 20;
+        this.minimumCalls = 10;
+        this.failureRateThreshold = 0.5;
+        this.slowCallThreshold = null;
+        this.baseEjectionTime = Duration.ofSeconds(10);
+        this.maxEjectionTime = Duration.ofMinutes(5);
+    }
+    
+    public static OutlierDetectionConfig create() {
+        return new OutlierDetectionConfig();
+    }
+    
+    /**
+     * Set the number of latest calls to calculate failure rate. Default is 20.
+     *
+     * @param windowSize number of latest calls
+     * @return this config
+     */
+    public OutlierDetectionConfig windowSize(int windowSize) {
+        this.windowSize = windowSize;
+        return this;
+    }
+    
+    /**
+     * Set the min number of calls in window before calculating failure rate. Default is 10.
+     *
+     * @param minimumCalls min number of calls
+     * @return this config
+     */
+    public OutlierDetectionConfig minimumCalls(int minimumCalls) {
+        this.minimumCalls = minimumCalls;
+        return this;
+    }
+    
+    /**
+     * Set the failure rate to eject endpoint. Default is 0.5.
+     *
+     * @param failureRateThreshold failure rate in (0, 1]
+     * @return this config
+     */
+    public OutlierDetectionConfig failureRateThreshold(double failureRateThreshold) {
+        this.failureRateThreshold = failureRateThreshold;
+        return this;
+    }
+    
+    /**
+     * Set the latency above which calls are regarded as failed. Default is {@code null}, which means latency is not
+     * regarded.
+     *
+     * @param slowCallThreshold latency threshold
+     * @return this config
+     */
+    public OutlierDetectionConfig slowCallThreshold(Duration slowCallThreshold) {
+        this.slowCallThreshold = slowCallThreshold;
+        return this;
+    }
+    
+    /**
+     * Set the time of first ejection, doubled for each consecutive ejection. Default is 10 seconds.
+     *
+     * @param baseEjectionTime time of first ejection
+     * @return this config
+     */
+    public OutlierDetectionConfig baseEjectionTime(Duration baseEjectionTime) {
+        this.baseEjectionTime = baseEjectionTime;
+        return this;
+    }
+    
+    /**
+     * Set the max time of ejection. Default is 5 minutes.
+     *
+     * @param maxEjectionTime max time of ejection
+     * @return this config
+     */
+    public OutlierDetectionConfig maxEjectionTime(Duration maxEjectionTime) {
+        this.maxEjectionTime = maxEjectionTime;
+        return this;
+    }
+    
+    public int getWindowSize() {
+        return windowSize;
+    }
+    
+    public int getMinimumCalls() {
+        return minimumCalls;
+    }
+    
+    public double getFailureRateThreshold() {
+        return failureRateThreshold;
+    }
+    
+    public Duration getSlowCallThreshold() {
+        return slowCallThreshold;
+    }
+    
+    public Duration getBaseEjectionTime() {
+        return baseEjectionTime;
+    }
+    
+    public Duration getMaxEjectionTime() {
+        return maxEjectionTime;
+    }
+    
+    /**
+     * Check whether the config is valid.
+     *
+     * @throws IllegalArgumentException if config is invalid
+     */
+    public void validate() {
+        if (windowSize <= 0 || minimumCalls <= 0 || minimumCalls > windowSize) {
+            throw new IllegalArgumentException("Outlier detection window should match 0 < minimumCalls <= windowSize.");
+        }
+        if (failureRateThreshold <= 0 || failureRateThreshold > 1) {
+            throw new IllegalArgumentException("Failure rate threshold of outlier detection should be in (0, 1].");
+        }
+        if (null == baseEjectionTime || null == maxEjectionTime || baseEjectionTime.compareTo(maxEjectionTime) > 0) {
+            throw new IllegalArgumentException("Ejection time should match baseEjectionTime <= maxEjectionTime.");
+        }
+    }
+}
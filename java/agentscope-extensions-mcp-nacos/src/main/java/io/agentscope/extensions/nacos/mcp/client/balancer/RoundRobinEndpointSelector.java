@@ -0,0 +1,36 @@
+/*
+ * Copyright 1999-2025 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.agentscope.extensions.nacos.mcp.client.balancer;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Select endpoints one by one in order.
+ *
+ * @author xiweng.yy
+ */
+public class RoundRobinEndpointSelector implements EndpointSelector {
+    
+    private final AtomicInteger index = new AtomicInteger();
+    
+    @Override
+    public McpEndpoint select(List<McpEndpoint> endpoints) {
+        int next = index.getAndIncrement() & Integer.MAX_VALUE;
+        return endpoints.get(next % endpoints.size());
+    }
+}
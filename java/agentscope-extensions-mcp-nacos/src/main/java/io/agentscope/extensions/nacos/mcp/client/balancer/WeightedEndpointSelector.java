@@ -0,0 +1,62 @@
+/*
+ * Copyright 1999-2025 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.agentscope.extensions.nacos.mcp.client.balancer;
+
+import com.alibaba.nacos.api.ai.model.mcp.McpEndpointInfo;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.ToIntFunction;
+
+/**
+ * Select endpoints randomly with the weight of each endpoint.
+ *
+ * <p>Nacos does not store weight for MCP endpoints, so the weight is calculated by input weight function, such as
+ * by address of endpoint. Endpoint with weight less than or equal to 0 will not be selected unless all endpoints
+ * have no weight.
+ *
+ * @author xiweng.yy
+ */
+public class WeightedEndpointSelector implements EndpointSelector {
+    
+    private final ToIntFunction<McpEndpointInfo> weightFunction;
+    
+    public WeightedEndpointSelector(ToIntFunction<McpEndpointInfo> weightFunction) {
+        this.weightFunction = weightFunction;
+    }
+    
+    @Override
+    public McpEndpoint select(List<McpEndpoint> endpoints) {
+        int[] weights = new int[endpoints.size()];
+        long totalWeight = 0;
+        for (int i = 0; i < weights.length; i++) {
+            weights[i] = Math.max(0, weightFunction.applyAsInt(endpoints.get(i).getEndpointInfo()));
+            totalWeight += weights[i];
+        }
+        if (totalWeight <= 0) {
+            return endpoints.get(ThreadLocalRandom.current().nextInt(endpoints.size()));
+        }
+        long random = ThreadLocalRandom.current().nextLong(totalWeight);
+        for (int i = 0; i < weights.length; i++) {
+            random -= weights[i];
+            if (random < 0) {
+                return endpoints.get(i);
+            }
+        }
+        return endpoints.get(endpoints.size() - 1);
+    }
+}
@@ -0,0 +1,36 @@
+/*
+ * Copyright 1999-2025 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.agentscope.extensions.nacos.mcp.client.cache;
+
+import io.agentscope.extensions.nacos.mcp.utils.CanonicalJsonUtils;
+
+import java.util.Map;
+
+/**
+ * Generate keys of tool calls, calls with the same tool name and equal arguments get the same key.
+ *
+ * @author xiweng.yy
+ */
+final class ToolCallKeys {
+    
+    private ToolCallKeys() {
+    }
+    
+    static String of(String toolName, Map<String, Object> arguments) {
+        return toolName + '|' + CanonicalJsonUtils.toJson(arguments);
+    }
+}
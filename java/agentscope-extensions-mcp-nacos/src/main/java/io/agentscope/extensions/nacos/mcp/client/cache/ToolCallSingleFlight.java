@@ -0,0 +1,103 @@
+/*
+ * Copyright 1999-2025 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.agentscope.extensions.nacos.mcp.client.cache;
+
+import io.modelcontextprotocol.spec.McpSchema;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Deduplicate concurrent identical tool calls, calls with the same tool name and arguments share one in-flight call.
+ *
+ * <p>Different from {@link ToolResultCache}, the result is only shared during the call is in-flight, calls started
+ * after it finished always call the MCP server again.
+ *
+ * @author xiweng.yy
+ */
+public class ToolCallSingleFlight {
+    
+    private static final Logger log = LoggerFactory.getLogger(ToolCallSingleFlight.class);
+    
+    private final Set<String> tools;
+    
+    private final Map<String, Mono<McpSchema.CallToolResult>> inflightCalls;
+    
+    /**
+     * Create single flight for tools.
+     *
+     * @param tools names of tools to deduplicate calls
+     */
+    public ToolCallSingleFlight(Collection<String> tools) {
+        this.tools = Set.copyOf(tools);
+        this.inflightCalls = new ConcurrentHashMap<>(2);
+    }
+    
+    /**
+     * Whether concurrent calls of the tool should be deduplicated.
+     *
+     * @param toolName the name of tool
+     * @return {@code true} if enabled for the tool
+     */
+    public boolean isEnabled(String toolName) {
+        return tools.contains(toolName);
+    }
+    
+    /**
+     * Join the in-flight call with the same tool name and arguments, or start a new call if absent.
+     *
+     * <p>The actual call is cancelled only when all joined callers cancelled.
+     *
+     * @param toolName  the name of tool
+     * @param arguments the arguments of tool call
+     * @param call      the actual tool call
+     * @return the result of shared tool call
+     */
+    public Mono<McpSchema.CallToolResult> call(String toolName, Map<String, Object> arguments,
+            Supplier<Mono<McpSchema.CallToolResult>> call) {
+        return Mono.defer(() -> {
+            String key = ToolCallKeys.of(toolName, arguments);
+            Mono<McpSchema.CallToolResult> inflight = inflightCalls.get(key);
+            if (null != inflight) {
+                log.debug("Join in-flight call of tool {}.", toolName);
+                return inflight;
+            }
+            return inflightCalls.computeIfAbsent(key, ignored -> newSharedCall(key, call));
+        });
+    }
+    
+    /**
+     * Get the number of in-flight calls.
+     *
+     * @return the number of in-flight calls
+     */
+    public int size() {
+        return inflightCalls.size();
+    }
+    
+    private Mono<McpSchema.CallToolResult> newSharedCall(String key, Supplier<Mono<McpSchema.CallToolResult>> call) {
+        // Remove before the result delivered to callers, so that calls started after that won't join a finished call.
+        return call.get().doOnTerminate(() -> inflightCalls.remove(key)).doOnCancel(() -> inflightCalls.remove(key))
+                .share();
+    }
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright 1999-2025 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.agentscope.extensions.nacos.mcp.client.cache;
+
+import io.modelcontextprotocol.spec.McpSchema;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Mono;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * LRU cache of tool call results with TTL, keyed by tool name and canonical JSON of arguments.
+ *
+ * <p>Only successful results are cached. Results put after {@link #invalidateAll()} from calls started before it are
+ * dropped, so that results from old version of MCP server won't be cached.
+ *
+ * @author xiweng.yy
+ * @see ToolResultCacheConfig
+ */
+public class ToolResultCache {
+    
+    private static final Logger log = LoggerFactory.getLogger(ToolResultCache.class);
+    
+    private final ToolResultCacheConfig config;
+    
+    private final LinkedHashMap<String, CacheEntry> entries;
+    
+    private long generation;
+    
+    public ToolResultCache(ToolResultCacheConfig config) {
+        this.config = config;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CacheEntry> eldest) {
+                return size() > config.getMaxSize();
+            }
+        };
+        this.generation = 0;
+    }
+    
+    /**
+     * Whether results of the tool should be cached.
+     *
+     * @param toolName the name of tool
+     * @param tool     the tool spec from MCP server, might be {@code null} if not listed yet
+     * @return {@code true} if results of the tool should be cached
+     */
+    public boolean isCacheable(String toolName, McpSchema.Tool tool) {
+        if (config.getCacheTools().contains(toolName)) {
+            return true;
+        }
+        if (null == tool || null == tool.annotations()) {
+            return false;
+        }
+        McpSchema.ToolAnnotations annotations = tool.annotations();
+        return (config.isCacheReadOnlyTools() && Boolean.TRUE.equals(annotations.readOnlyHint())) || (
+                config.isCacheIdempotentTools() && Boolean.TRUE.equals(annotations.idempotentHint()));
+    }
+    
+    /**
+     * Get the cached result of tool call, or call the tool and cache the result if absent or expired.
+     *
+     * @param toolName  the name of tool
+     * @param arguments the arguments of tool call
+     * @param call      the actual tool call
+     * @return the result of tool call
+     */
+    public Mono<McpSchema.CallToolResult> getOrCall(String toolName, Map<String, Object> arguments,
+            Supplier<Mono<McpSchema.CallToolResult>> call) {
+        return Mono.defer(() -> {
+            String key = ToolCallKeys.of(toolName, arguments);
+            long currentGeneration;
+            synchronized (this) {
+                CacheEntry entry = entries.get(key);
+                if (null != entry && entry.expireAt() > System.currentTimeMillis()) {
+                    log.debug("Hit cached result of tool {}.", toolName);
+                    return Mono.just(entry.result());
+                }
+                if (null != entry) {
+                    entries.remove(key);
+                }
+                currentGeneration = generation;
+            }
+            return call.get().doOnNext(result -> {
+                if (!Boolean.TRUE.equals(result.isError())) {
+                    put(key, result, currentGeneration);
+                }
+            });
+        });
+    }
+    
+    /**
+     * Invalidate all cached results.
+     */
+    public synchronized void invalidateAll() {
+        generation++;
+        entries.clear();
+    }
+    
+    /**
+     * Get the number of cached results, including expired results which are not evicted yet.
+     *
+     * @return the number of cached results
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+    
+    private synchronized void put(String key, McpSchema.CallToolResult result, long callGeneration) {
+        if (callGeneration != generation) {
+            return;
+        }
+        entries.put(key, new CacheEntry(result, System.currentTimeMillis() + config.getTtl().toMillis()));
+    }
+    
+    private record CacheEntry(McpSchema.CallToolResult result, long expireAt) {
+    
+    }
+}
@@ -0,0 +1,142 @@
+/*
+ * Copyright 1999-2025 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.agentscope.extensions.nacos.mcp.client.cache;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Config of {@link ToolResultCache}.
+ *
+ * <p>Example usage:
+ * <pre>{@code
+ *  // Cache read-only and idempotent tools, and tool `search_catalog`.
+ *  ToolResultCacheConfig config = ToolResultCacheConfig.create()
+ *      .ttl(Duration.ofMinutes(5))
+ *      .maxSize(1000)
+ *      .cacheTools(List.of("search_catalog"));
+ * }</pre>
+ *
+ * @author xiweng.yy
+ */
+public class ToolResultCacheConfig {
+    
+    private Duration ttl;
+    
+    private int maxSize;
+    
+    private boolean cacheReadOnlyTools;
+    
+    private boolean cacheIdempotentTools;
+    
+    private Set<String> cacheTools;
+    
+    private ToolResultCacheConfig() {
+        this.ttl = Duration.ofMinutes(1);
+        this.maxSize = 1000;
+        this.cacheReadOnlyTools = true;
+        this.cacheIdempotentTools = true;
+        this.cacheTools = new HashSet<>();
+    }
+    
+    public static ToolResultCacheConfig create() {
+        return new ToolResultCacheConfig();
+    }
+    
+    /**
+     * Set the time to live of each cached result. Default is 1 minute.
+     *
+     * @param ttl time to live of cached result
+     * @return this config
+     */
+    public ToolResultCacheConfig ttl(Duration ttl) {
+        if (null == ttl || ttl.isNegative() || ttl.isZero()) {
+            throw new IllegalArgumentException("Ttl of tool result cache must be positive.");
+        }
+        this.ttl = ttl;
+        return this;
+    }
+    
+    /**
+     * Set the max number of cached results, the least recently used result is evicted when exceeded. Default is 1000.
+     *
+     * @param maxSize max number of cached results
+     * @return this config
+     */
+    public ToolResultCacheConfig maxSize(int maxSize) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("Max size of tool result cache must be positive.");
+        }
+        this.maxSize = maxSize;
+        return this;
+    }
+    
+    /**
+     * Whether to cache results of tools annotated with {@code readOnlyHint}. Default is {@code true}.
+     *
+     * @param cacheReadOnlyTools whether to cache read-only tools
+     * @return this config
+     */
+    public ToolResultCacheConfig cacheReadOnlyTools(boolean cacheReadOnlyTools) {
+        this.cacheReadOnlyTools = cacheReadOnlyTools;
+        return this;
+    }
+    
+    /**
+     * Whether to cache results of tools annotated with {@code idempotentHint}. Default is {@code true}.
+     *
+     * @param cacheIdempotentTools whether to cache idempotent tools
+     * @return this config
+     */
+    public ToolResultCacheConfig cacheIdempotentTools(boolean cacheIdempotentTools) {
+        this.cacheIdempotentTools = cacheIdempotentTools;
+        return this;
+    }
+    
+    /**
+     * Set the tools to cache results whatever the annotations of them.
+     *
+     * @param cacheTools names of tools to cache
+     * @return this config
+     */
+    public ToolResultCacheConfig cacheTools(Collection<String> cacheTools) {
+        this.cacheTools = new HashSet<>(cacheTools);
+        return this;
+    }
+    
+    public Duration getTtl() {
+        return ttl;
+    }
+    
+    public int getMaxSize() {
+        return maxSize;
+    }
+    
+    public boolean isCacheReadOnlyTools() {
+        return cacheReadOnlyTools;
+    }
+    
+    public boolean isCacheIdempotentTools() {
+        return cacheIdempotentTools;
+    }
+    
+    public Set<String> getCacheTools() {
+        return cacheTools;
+    }
+}
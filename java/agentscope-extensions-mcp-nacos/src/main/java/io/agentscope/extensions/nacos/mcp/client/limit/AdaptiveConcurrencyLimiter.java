@@ -0,0 +1,247 @@
+/*
+ * Copyright 1999-2025 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.agentscope.extensions.nacos.mcp.client.limit;
+
+import com.alibaba.nacos.api.ai.model.mcp.McpServerDetailInfo;
+import com.alibaba.nacos.api.exception.NacosException;
+import com.alibaba.nacos.api.exception.runtime.NacosRuntimeException;
+import io.agentscope.extensions.nacos.mcp.client.CallTimeout;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Bulkhead of calls to one MCP server with adaptive concurrency limit.
+ *
+ * <p>The limit is adjusted by AIMD (additive increase, multiplicative decrease):
+ * <ul>
+ *     <li>When a call failed or its latency exceeded the threshold, limit is multiplied by backoff ratio. Calls
+ *     cancelled by {@link CallTimeout}, or cancelled after running longer than the threshold, are regarded as failed
+ *     too.</li>
+ *     <li>When a call succeeded while at least half of limit in use, limit is increased by 1.</li>
+ * </ul>
+ *
+ * <p>Calls exceeding the limit wait in a bounded queue, or fail fast with
+ * {@link NacosException#CLIENT_OVER_THRESHOLD} when queue is full or waiting timeout.
+ *
+ * @author xiweng.yy
+ * @see ConcurrencyLimitConfig
+ */
+public class AdaptiveConcurrencyLimiter {
+    
+    private static final Logger log = LoggerFactory.getLogger(AdaptiveConcurrencyLimiter.class);
+    
+    private static final int WAITING = 0;
+    
+    private static final int GRANTED = 1;
+    
+    private static final int ABANDONED = 2;
+    
+    private final String name;
+    
+    private final ConcurrencyLimitConfig baseConfig;
+    
+    private final Deque<Waiter> waiters;
+    
+    private volatile ConcurrencyLimitConfig config;
+    
+    private double limit;
+    
+    private int inflight;
+    
+    /**
+     * Create limiter.
+     *
+     * @param name   the name of MCP server
+     * @param config the config of limiter, which might be overridden by metadata of MCP server
+     */
+    public AdaptiveConcurrencyLimiter(String name, ConcurrencyLimitConfig config) {
+        config.validate();
+        this.name = name;
+        this.baseConfig = config;
+        this.config = config;
+        this.waiters = new ArrayDeque<>();
+        this.limit = Math.min(config.getMaxLimit(), Math.max(config.getMinLimit(), config.getInitialLimit()));
+        this.inflight = 0;
+    }
+    
+    /**
+     * Run the call within the concurrency limit.
+     *
+     * @param call the actual call
+     * @param <T>  type of call result
+     * @return the result of call, or error if the limit reached
+     */
+    public <T> Mono<T> run(Supplier<Mono<T>> call) {
+        return acquire().flatMap(permit -> Mono.deferContextual(context -> Mono.defer(() -> {
+            permit.startNanos = System.nanoTime();
+            return call.get();
+        }).doOnSuccess(result -> release(permit, true, false)).doOnError(error -> release(permit, true, true))
+                .doOnCancel(() -> cancel(permit, CallTimeout.isExpired(context)))));
+    }
+    
+    /**
+     * Update config by the metadata of MCP server in Nacos. Invalid metadata will be ignored.
+     *
+     * @param mcpServer the MCP server detail info
+     */
+    public void updateConfig(McpServerDetailInfo mcpServer) {
+        ConcurrencyLimitConfig newConfig;
+        try {
+            newConfig = baseConfig.overrideBy(mcpServer);
+        } catch (IllegalArgumentException e) {
+            log.warn("{}, keep current concurrency limit config.", e.getMessage());
+            return;
+        }
+        List<Waiter> granted;
+        synchronized (this) {
+            this.config = newConfig;
+            this.limit = Math.min(newConfig.getMaxLimit(), Math.max(newConfig.getMinLimit(), limit));
+            granted = grantWaiters();
+        }
+        granted.forEach(Waiter::notifyGranted);
+    }
+    
+    public synchronized int getLimit() {
+        return (int) limit;
+    }
+    
+    public synchronized int getInflight() {
+        return inflight;
+    }
+    
+    public synchronized int getQueueSize() {
+        return waiters.size();
+    }
+    
+    private Mono<Permit> acquire() {
+        return Mono.defer(() -> {
+            Waiter waiter;
+            synchronized (this) {
+                if (inflight < (int) limit) {
+                    inflight++;
+                    return Mono.just(new Permit());
+                }
+                if (waiters.size() >= config.getMaxQueueSize()) {
+                    return Mono.error(overThreshold("reached"));
+                }
+                waiter = new Waiter();
+                waiters.addLast(waiter);
+            }
+            return waiter.sink.asMono().doOnCancel(() -> abandon(waiter))
+                    .timeout(config.getQueueTimeout(), Mono.error(() -> overThreshold("waiting timeout")));
+        });
+    }
+    
+    private NacosRuntimeException overThreshold(String reason) {
+        return new NacosRuntimeException(NacosException.CLIENT_OVER_THRESHOLD,
+                String.format("Concurrency limit %d of MCP server %s %s.", getLimit(), name, reason));
+    }
+    
+    private void abandon(Waiter waiter) {
+        if (waiter.state.compareAndSet(WAITING, ABANDONED)) {
+            synchronized (this) {
+                waiters.remove(waiter);
+            }
+            return;
+        }
+        // Granted but the caller has gone, give the permit back.
+        release(waiter.permit, false, false);
+    }
+    
+    /**
+     * Release permit of cancelled call. Calls cancelled by timeout or slower than latency threshold are sampled as
+     * dropped, otherwise a hanging MCP server whose calls all end by timeout never reduces the limit.
+     */
+    private void cancel(Permit permit, boolean timedOut) {
+        boolean slow = System.nanoTime() - permit.startNanos > config.getLatencyThreshold().toNanos();
+        if (timedOut || slow) {
+            release(permit, true, true);
+        } else {
+            release(permit, false, false);
+        }
+    }
+    
+    private void release(Permit permit, boolean sample, boolean dropped) {
+        if (!permit.released.compareAndSet(false, true)) {
+            return;
+        }
+        List<Waiter> granted;
+        synchronized (this) {
+            if (sample) {
+                updateLimit(System.nanoTime() - permit.startNanos, dropped);
+            }
+            inflight--;
+            granted = grantWaiters();
+        }
+        granted.forEach(Waiter::notifyGranted);
+    }
+    
+    private void updateLimit(long latencyNanos, boolean dropped) {
+        ConcurrencyLimitConfig current = this.config;
+        if (dropped || latencyNanos > current.getLatencyThreshold().toNanos()) {
+            limit = Math.max(current.getMinLimit(), limit * current.getBackoffRatio());
+        } else if (inflight * 2 >= limit) {
+            limit = Math.min(current.getMaxLimit(), limit + 1);
+        }
+    }
+    
+    /**
+     * Grant permits to waiters while limit allowed, must be called with lock held, and notify returned waiters after
+     * lock released.
+     */
+    private List<Waiter> grantWaiters() {
+        List<Waiter> result = new ArrayList<>();
+        while (inflight < (int) limit && !waiters.isEmpty()) {
+            Waiter waiter = waiters.pollFirst();
+            if (waiter.state.compareAndSet(WAITING, GRANTED)) {
+                inflight++;
+                result.add(waiter);
+            }
+        }
+        return result;
+    }
+    
+    private static class Permit {
+        
+        private final AtomicBoolean released = new AtomicBoolean(false);
+        
+        private volatile long startNanos = System.nanoTime();
+    }
+    
+    private static class Waiter {
+        
+        private final Sinks.One<Permit> sink = Sinks.one();
+        
+        private final AtomicInteger state = new AtomicInteger(WAITING);
+        
+        private final Permit permit = new Permit();
+        
+        private void notifyGranted() {
+            sink.tryEmitValue(permit);
+        }
+    }
+}
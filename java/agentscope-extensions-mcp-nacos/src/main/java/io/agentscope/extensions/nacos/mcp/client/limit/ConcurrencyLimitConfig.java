@@ -0,0 +1,234 @@
+/*
+ * Copyright 1999-2025 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.agentscope.extensions.nacos.mcp.client.limit;
+
+import com.alibaba.nacos.api.ai.model.mcp.McpServerDetailInfo;
+import io.agentscope.extensions.nacos.mcp.McpServerMetadata;
+
+import java.time.Duration;
+
+/**
+ * Config of {@link AdaptiveConcurrencyLimiter}.
+ *
+ * <p>Example usage:
+ * <pre>{@code
+ *  // Limit concurrency between 5 and 100, queue at most 50 calls when limit reached.
+ *  ConcurrencyLimitConfig config = ConcurrencyLimitConfig.create()
+ *      .minLimit(5)
+ *      .maxLimit(100)
+ *      .maxQueueSize(50)
+ *      .latencyThreshold(Duration.ofSeconds(3));
+ * }</pre>
+ *
+ * <p>Limits, queue size and latency threshold can be overridden by metadata of MCP server in Nacos, see
+ * {@link McpServerMetadata}.
+ *
+ * @author xiweng.yy
+ */
+public class ConcurrencyLimitConfig {
+    
+    private int initialLimit;
+    
+    private int minLimit;
+    
+    private int maxLimit;
+    
+    private double backoffRatio;
+    
+    private Duration latencyThreshold;
+    
+    private int maxQueueSize;
+    
+    private Duration queueTimeout;
+    
+    private ConcurrencyLimitConfig() {
+        this.initialLimit = 20;
+        this.minLimit = 1;
+        this.maxLimit = 200;
+        this.backoffRatio = 0.9;
+        this.latencyThreshold = Duration.ofSeconds(5);
+        this.maxQueueSize = 0;
+        this.queueTimeout = Duration.ofSeconds(10);
+    }
+    
+    public static ConcurrencyLimitConfig create() {
+        return new ConcurrencyLimitConfig();
+    }
+    
+    /**
+     * Set the concurrency limit at start. Default is 20.
+     *
+     * @param initialLimit initial concurrency limit
+     * @return this config
+     */
+    public ConcurrencyLimitConfig initialLimit(int initialLimit) {
+        this.initialLimit = initialLimit;
+        return this;
+    }
+    
+    /**
+     * Set the min concurrency limit, the limit won't be decreased below it. Default is 1.
+     *
+     * @param minLimit min concurrency limit
+     * @return this config
+     */
+    public ConcurrencyLimitConfig minLimit(int minLimit) {
+        this.minLimit = minLimit;
+        return this;
+    }
+    
+    /**
+     * Set the max concurrency limit, the limit won't be increased above it. Default is 200.
+     *
+     * @param maxLimit max concurrency limit
+     * @return this config
+     */
+    public ConcurrencyLimitConfig maxLimit(int maxLimit) {
+        this.maxLimit = maxLimit;
+        return this;
+    }
+    
+    /**
+     * Set the ratio to multiply the limit when calls failed or slow. Default is 0.9.
+     *
+     * @param backoffRatio ratio between 0.5 and 1
+     * @return this config
+     */
+    public ConcurrencyLimitConfig backoffRatio(double backoffRatio) {
+        this.backoffRatio = backoffRatio;
+        return this;
+    }
+    
+    /**
+     * Set the latency above which calls are regarded as slow and the limit will be decreased. Default is 5 seconds.
+     *
+     * @param latencyThreshold latency threshold
+     * @return this config
+     */
+    public ConcurrencyLimitConfig latencyThreshold(Duration latencyThreshold) {
+        this.latencyThreshold = latencyThreshold;
+        return this;
+    }
+    
+    /**
+     * Set the max number of calls waiting when limit reached, calls exceeding it fail fast. Default is 0, which means
+     * all calls exceeding the limit fail fast.
+     *
+     * @param maxQueueSize max number of waiting calls
+     * @return this config
+     */
+    public ConcurrencyLimitConfig maxQueueSize(int maxQueueSize) {
+        this.maxQueueSize = maxQueueSize;
+        return this;
+    }
+    
+    /**
+     * Set the max time of calls waiting when limit reached. Default is 10 seconds.
+     *
+     * @param queueTimeout max waiting time
+     * @return this config
+     */
+    public ConcurrencyLimitConfig queueTimeout(Duration queueTimeout) {
+        this.queueTimeout = queueTimeout;
+        return this;
+    }
+    
+    public int getInitialLimit() {
+        return initialLimit;
+    }
+    
+    public int getMinLimit() {
+        return minLimit;
+    }
+    
+    public int getMaxLimit() {
+        return maxLimit;
+    }
+    
+    public double getBackoffRatio() {
+        return backoffRatio;
+    }
+    
+    public Duration getLatencyThreshold() {
+        return latencyThreshold;
+    }
+    
+    public int getMaxQueueSize() {
+        return maxQueueSize;
+    }
+    
+    public Duration getQueueTimeout() {
+        return queueTimeout;
+    }
+    
+    /**
+     * Check whether the config is valid.
+     *
+     * @throws IllegalArgumentException if config is invalid
+     */
+    public void validate() {
+        if (minLimit <= 0 || maxLimit < minLimit) {
+            throw new IllegalArgumentException("Concurrency limits should match 0 < minLimit <= maxLimit.");
+        }
+        if (backoffRatio < 0.5 || backoffRatio >= 1) {
+            throw new IllegalArgumentException("Backoff ratio of concurrency limit should be in [0.5, 1).");
+        }
+        if (maxQueueSize < 0) {
+            throw new IllegalArgumentException("Max queue size of concurrency limit can not be negative.");
+        }
+        if (null == latencyThreshold || null == queueTimeout) {
+            throw new IllegalArgumentException("Latency threshold and queue timeout can not be null.");
+        }
+    }
+    
+    /**
+     * Create a new config with values overridden by metadata of MCP server in Nacos.
+     *
+     * @param mcpServer the MCP server detail info
+     * @return new config, this config is not changed
+     */
+    ConcurrencyLimitConfig overrideBy(McpServerDetailInfo mcpServer) {
+        ConcurrencyLimitConfig result = copy();
+        McpServerMetadata.getServerMetadataAsLong(mcpServer, McpServerMetadata.CONCURRENCY_MIN_LIMIT)
+                .ifPresent(value -> result.minLimit = value.intValue());
+        McpServerMetadata.getServerMetadataAsLong(mcpServer, McpServerMetadata.CONCURRENCY_MAX_LIMIT)
+                .ifPresent(value -> result.maxLimit = value.intValue());
+        McpServerMetadata.getServerMetadataAsLong(mcpServer, McpServerMetadata.CONCURRENCY_MAX_QUEUE_SIZE)
+                .ifPresent(value -> result.maxQueueSize = value.intValue());
+        McpServerMetadata.getServerMetadataAsLong(mcpServer, McpServerMetadata.CONCURRENCY_LATENCY_THRESHOLD_MILLIS)
+                .ifPresent(value -> result.latencyThreshold = Duration.ofMillis(value));
+        try {
+            result.validate();
+            return result;
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException(
+                    "Invalid concurrency limit metadata of MCP server " + mcpServer.getName() + ": " + e.getMessage());
+        }
+    }
+    
+    private ConcurrencyLimitConfig copy() {
+        ConcurrencyLimitConfig result = new ConcurrencyLimitConfig();
+        result.initialLimit = initialLimit;
+        result.minLimit = minLimit;
+        result.maxLimit = maxLimit;
+        result.backoffRatio = backoffRatio;
+        result.latencyThreshold = latencyThreshold;
+        result.maxQueueSize = maxQueueSize;
+        result.queueTimeout = queueTimeout;
+        return result;
+    }
+}
@@ -0,0 +1,48 @@
+/*
+ * Copyright 1999-2025 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.agentscope.extensions.nacos.mcp.discovery;
+
+import com.alibaba.nacos.api.ai.model.mcp.McpServerBasicInfo;
+import com.alibaba.nacos.api.model.Page;
+import reactor.core.publisher.Mono;
+
+/**
+ * Source of MCP servers registered in a namespace of Nacos, used by {@link McpServerDiscovery} to list MCP servers.
+ *
+ * <p>{@link com.alibaba.nacos.api.ai.AiService} of Nacos client can only get MCP server by exact name, so listing is
+ * provided by users, usually by {@code AiMaintainerService#searchMcpServer} of nacos-maintainer-client:
+ * <pre>{@code
+ *  McpServerCatalog catalog = (keyword, pageNo, pageSize) -> Mono.fromCallable(
+ *          () -> aiMaintainerService.searchMcpServer(namespaceId, keyword, pageNo, pageSize))
+ *      .subscribeOn(Schedulers.boundedElastic());
+ * }</pre>
+ *
+ * @author xiweng.yy
+ */
+@FunctionalInterface
+public interface McpServerCatalog {
+    
+    /**
+     * List one page of MCP servers whose name contains the keyword.
+     *
+     * @param keyword  the keyword of MCP server name, empty means all MCP servers
+     * @param pageNo   the number of page, starting from 1
+     * @param pageSize the max number of MCP servers in one page
+     * @return the page of MCP servers
+     */
+    Mono<Page<McpServerBasicInfo>> listMcpServers(String keyword, int pageNo, int pageSize);
+}
@@ -0,0 +1,231 @@
+/*
+ * Copyright 1999-2025 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.agentscope.extensions.nacos.mcp.discovery;
+
+import com.alibaba.nacos.api.ai.model.mcp.McpServerBasicInfo;
+import com.alibaba.nacos.api.ai.model.mcp.McpServerDetailInfo;
+import com.alibaba.nacos.api.model.Page;
+import io.agentscope.extensions.nacos.mcp.NacosMcpServerManager;
+import io.agentscope.extensions.nacos.mcp.client.NacosMcpClientBuilder;
+import io.agentscope.extensions.nacos.mcp.client.NacosMcpClientWrapper;
+import io.agentscope.extensions.nacos.mcp.tool.NacosToolkit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Discover MCP servers matching a {@link McpServerQuery} instead of hardcoding MCP server names, MCP servers are
+ * listed page by page from {@link McpServerCatalog} and got from {@link NacosMcpServerManager}.
+ *
+ * <p>Example usage:
+ * <pre>{@code
+ *  McpServerDiscovery discovery = new McpServerDiscovery(mcpServerManager, catalog);
+ *  McpServerQuery query = McpServerQuery.create().tags(List.of("prod"));
+ *
+ *  // Register matched MCP servers into toolkit, and MCP servers added later within 30 seconds.
+ *  Disposable registration = discovery.registerInto(toolkit, query, Duration.ofSeconds(30)).subscribe();
+ *
+ *  // Stop picking up new MCP servers, registered MCP clients are kept.
+ *  registration.dispose();
+ * }</pre>
+ *
+ * <p>Tags are checked with MCP servers queried from Nacos without subscribing, only matched MCP servers are got from
+ * manager and subscribed. MCP servers not matched yet are queried again by the next poll, so that tags changed later
+ * are seen.
+ *
+ * @author xiweng.yy
+ */
+public class McpServerDiscovery {
+    
+    private static final Logger log = LoggerFactory.getLogger(McpServerDiscovery.class);
+    
+    private static final int DEFAULT_PARALLELISM = 8;
+    
+    private final NacosMcpServerManager mcpServerManager;
+    
+    private final McpServerCatalog catalog;
+    
+    private final int parallelism;
+    
+    public McpServerDiscovery(NacosMcpServerManager mcpServerManager, McpServerCatalog catalog) {
+        this(mcpServerManager, catalog, DEFAULT_PARALLELISM);
+    }
+    
+    /**
+     * Create discovery of MCP servers.
+     *
+     * @param mcpServerManager the manager to get MCP servers, should use the same namespace as catalog
+     * @param catalog          the catalog to list MCP servers
+     * @param parallelism      max number of MCP servers got or registered concurrently
+     */
+    public McpServerDiscovery(NacosMcpServerManager mcpServerManager, McpServerCatalog catalog, int parallelism) {
+        if (null == mcpServerManager) {
+            throw new IllegalArgumentException("Mcp server manager can not be null.");
+        }
+        if (null == catalog) {
+            throw new IllegalArgumentException("Mcp server catalog can not be null.");
+        }
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("Parallelism should be positive.");
+        }
+        this.mcpServerManager = mcpServerManager;
+        this.catalog = catalog;
+        this.parallelism = parallelism;
+    }
+    
+    /**
+     * Discover MCP servers matching the query once, MCP servers are emitted as soon as got, not in catalog order.
+     * MCP servers failed to get are skipped.
+     *
+     * @param query the query of MCP servers
+     * @return the matched MCP servers, error if listing from catalog failed
+     */
+    public Flux<McpServerDetailInfo> discover(McpServerQuery query) {
+        if (null == query) {
+            throw new IllegalArgumentException("Mcp server query can not be null.");
+        }
+        return discover(query, mcpName -> true);
+    }
+    
+    private Flux<McpServerDetailInfo> discover(McpServerQuery query, Predicate<String> nameFilter) {
+        return listMcpServerNames(query).filter(nameFilter)
+                .flatMap(mcpName -> getMatched(mcpName, query), parallelism);
+    }
+    
+    /**
+     * Discover MCP servers matching the query now and then every interval, each matched MCP server is emitted once.
+     * Failures of listing are logged and retried at next interval.
+     *
+     * @param query    the query of MCP servers
+     * @param interval the interval to discover MCP servers added later
+     * @return the matched MCP servers, never completes until disposed
+     */
+    public Flux<McpServerDetailInfo> watch(McpServerQuery query, Duration interval) {
+        return poll(query, interval, Mono::just);
+    }
+    
+    /**
+     * Build MCP clients of MCP servers matching the query and register them into toolkit, now and then every
+     * interval. MCP servers failed to build or register are retried at next interval.
+     *
+     * @param toolkit  the toolkit to register MCP clients
+     * @param query    the query of MCP servers
+     * @param interval the interval to discover MCP servers added later
+     * @return the registered MCP clients, never completes until disposed
+     */
+    public Flux<NacosMcpClientWrapper> registerInto(NacosToolkit toolkit, McpServerQuery query, Duration interval) {
+        return registerInto(toolkit, query, interval,
+                mcpName -> NacosMcpClientBuilder.create(mcpName, mcpServerManager));
+    }
+    
+    /**
+     * Build MCP clients of MCP servers matching the query and register them into toolkit, now and then every
+     * interval. MCP servers failed to build or register are retried at next interval.
+     *
+     * @param toolkit        the toolkit to register MCP clients
+     * @param query          the query of MCP servers
+     * @param interval       the interval to discover MCP servers added later
+     * @param builderFactory the factory to create MCP client builder by MCP server name, to customize MCP clients
+     * @return the registered MCP clients, never completes until disposed
+     */
+    public Flux<NacosMcpClientWrapper> registerInto(NacosToolkit toolkit, McpServerQuery query, Duration interval,
+            Function<String, NacosMcpClientBuilder> builderFactory) {
+        if (null == toolkit) {
+            throw new IllegalArgumentException("Toolkit can not be null.");
+        }
+        if (null == builderFactory) {
+            throw new IllegalArgumentException("Mcp client builder factory can not be null.");
+        }
+        return poll(query, interval, mcpServer -> builderFactory.apply(mcpServer.getName()).buildAsync()
+                .flatMap(mcpClient -> toolkit.registerMcpClient(mcpClient).thenReturn(mcpClient)
+                        .onErrorResume(error -> {
+                            mcpClient.close();
+                            return Mono.error(error);
+                        })));
+    }
+    
+    private <T> Flux<T> poll(McpServerQuery query, Duration interval,
+            Function<McpServerDetailInfo, Mono<T>> onNewMatch) {
+        if (null == query) {
+            throw new IllegalArgumentException("Mcp server query can not be null.");
+        }
+        if (null == interval || interval.isNegative() || interval.isZero()) {
+            throw new IllegalArgumentException("Discovery interval should be positive.");
+        }
+        return Flux.defer(() -> {
+            Set<String> handled = ConcurrentHashMap.newKeySet();
+            // MCP servers handled are skipped before querying, so they won't be queried by every poll.
+            Predicate<String> notHandled = mcpName -> !handled.contains(mcpName);
+            return Flux.interval(Duration.ZERO, interval).onBackpressureDrop()
+                    .concatMap(tick -> discover(query, notHandled).onErrorResume(error -> {
+                        log.warn("Failed to discover MCP Servers matching {}, retry later.",
+                                query.getNamePattern(), error);
+                        return Flux.empty();
+                    }).filter(mcpServer -> handled.add(mcpServer.getName()))
+                            .flatMap(mcpServer -> onNewMatch.apply(mcpServer).onErrorResume(error -> {
+                                log.warn("Failed to handle discovered MCP Server {}, retry later.",
+                                        mcpServer.getName(), error);
+                                handled.remove(mcpServer.getName());
+                                return Mono.empty();
+                            }), parallelism));
+        });
+    }
+    
+    private Flux<String> listMcpServerNames(McpServerQuery query) {
+        String keyword = query.getKeyword();
+        int pageSize = query.getPageSize();
+        return listPage(keyword, 1, pageSize)
+                .expand(page -> page.hasNext() ? listPage(keyword, page.pageNo() + 1, pageSize) : Mono.empty())
+                .flatMapIterable(CatalogPage::mcpNames).filter(query::matchesName).distinct();
+    }
+    
+    private Mono<CatalogPage> listPage(String keyword, int pageNo, int pageSize) {
+        return catalog.listMcpServers(keyword, pageNo, pageSize).map(page -> CatalogPage.of(pageNo, pageSize, page))
+                .defaultIfEmpty(new CatalogPage(pageNo, List.of(), false));
+    }
+    
+    private Mono<McpServerDetailInfo> getMatched(String mcpName, McpServerQuery query) {
+        // Query without subscribing, only MCP servers matched by tags are subscribed.
+        return mcpServerManager.queryMcpServerAsync(mcpName).filter(query::matchesTags)
+                .flatMap(matched -> mcpServerManager.getMcpServerAsync(mcpName)).onErrorResume(error -> {
+                    log.warn("Failed to get MCP Server {} listed from catalog, skip it.", mcpName, error);
+                    return Mono.empty();
+                });
+    }
+    
+    private record CatalogPage(int pageNo, List<String> mcpNames, boolean hasNext) {
+        
+        static CatalogPage of(int pageNo, int pageSize, Page<McpServerBasicInfo> page) {
+            List<McpServerBasicInfo> items = null == page.getPageItems() ? List.of() : page.getPageItems();
+            List<String> mcpNames = items.stream().map(McpServerBasicInfo::getName).filter(Objects::nonNull)
+                    .toList();
+            // Catalogs may only set one of pages available and total count.
+            boolean hasNext = !items.isEmpty() && (pageNo < page.getPagesAvailable()
+                    || (long) pageNo * pageSize < page.getTotalCount());
+            return new CatalogPage(pageNo, mcpNames, hasNext);
+        }
+    }
+}
@@ -0,0 +1,158 @@
+/*
+ * Copyright 1999-2025 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.agentscope.extensions.nacos.mcp.discovery;
+
+import com.alibaba.nacos.api.ai.model.mcp.McpServerDetailInfo;
+import io.agentscope.extensions.nacos.mcp.McpServerMetadata;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Query of MCP servers discovered by {@link McpServerDiscovery}, matching MCP server name by glob pattern and MCP
+ * server tags set by metadata {@link McpServerMetadata#TAGS}.
+ *
+ * <p>Example usage:
+ * <pre>{@code
+ *  // MCP servers whose name starts with `weather-` and tagged with `prod`.
+ *  McpServerQuery query = McpServerQuery.create()
+ *      .namePattern("weather-*")
+ *      .tags(List.of("prod"));
+ * }</pre>
+ *
+ * @author xiweng.yy
+ */
+public class McpServerQuery {
+    
+    private String namePattern;
+    
+    private Pattern nameRegex;
+    
+    private Set<String> tags;
+    
+    private int pageSize;
+    
+    private McpServerQuery() {
+        namePattern("*");
+        this.tags = new LinkedHashSet<>();
+        this.pageSize = 100;
+    }
+    
+    public static McpServerQuery create() {
+        return new McpServerQuery();
+    }
+    
+    /**
+     * Set the glob pattern of MCP server name, {@code *} matches any characters and {@code ?} matches one character.
+     * Default is {@code *}, matching all MCP servers.
+     *
+     * @param namePattern the glob pattern of MCP server name
+     * @return this query
+     */
+    public McpServerQuery namePattern(String namePattern) {
+        if (null == namePattern || namePattern.isBlank()) {
+            throw new IllegalArgumentException("Name pattern of MCP server can not be blank.");
+        }
+        this.namePattern = namePattern;
+        this.nameRegex = toRegex(namePattern);
+        return this;
+    }
+    
+    /**
+     * Set the tags of MCP server, MCP servers should have all tags to match. Default is empty, matching all MCP
+     * servers.
+     *
+     * @param tags the tags of MCP server
+     * @return this query
+     */
+    public McpServerQuery tags(Collection<String> tags) {
+        this.tags = new LinkedHashSet<>(tags);
+        return this;
+    }
+    
+    /**
+     * Set the max number of MCP servers listed in one page from {@link McpServerCatalog}. Default is 100.
+     *
+     * @param pageSize the max number of MCP servers in one page
+     * @return this query
+     */
+    public McpServerQuery pageSize(int pageSize) {
+        if (pageSize <= 0) {
+            throw new IllegalArgumentException("Page size should be positive.");
+        }
+        this.pageSize = pageSize;
+        return this;
+    }
+    
+    public String getNamePattern() {
+        return namePattern;
+    }
+    
+    public Set<String> getTags() {
+        return tags;
+    }
+    
+    public int getPageSize() {
+        return pageSize;
+    }
+    
+    /**
+     * Get the keyword to list MCP servers from {@link McpServerCatalog}, which is the longest literal part of name
+     * pattern, so that catalog can filter most unmatched MCP servers.
+     *
+     * @return the keyword of MCP server name, empty if name pattern has no literal part
+     */
+    String getKeyword() {
+        String result = "";
+        for (String each : namePattern.split("[*?]")) {
+            if (each.length() > result.length()) {
+                result = each;
+            }
+        }
+        return result;
+    }
+    
+    boolean matchesName(String mcpName) {
+        return null != mcpName && nameRegex.matcher(mcpName).matches();
+    }
+    
+    boolean matchesTags(McpServerDetailInfo mcpServer) {
+        return tags.isEmpty() || McpServerMetadata.getServerTags(mcpServer).containsAll(tags);
+    }
+    
+    private static Pattern toRegex(String globPattern) {
+        StringBuilder result = new StringBuilder();
+        StringBuilder literal = new StringBuilder();
+        for (char each : globPattern.toCharArray()) {
+            if ('*' == each || '?' == each) {
+                if (literal.length() > 0) {
+                    result.append(Pattern.quote(literal.toString()));
+                    literal.setLength(0);
+                }
+                result.append('*' == each ? ".*" : ".");
+            } else {
+                literal.append(each);
+            }
+        }
+        if (literal.length() > 0) {
+            result.append(Pattern.quote(literal.toString()));
+        }
+        return Pattern.compile(result.toString());
+    }
+}
@@ -0,0 +1,179 @@
+/*
+ * Copyright 1999-2025 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.agentscope.extensions.nacos.mcp.metrics;
+
+import io.modelcontextprotocol.spec.McpSchema;
+import reactor.core.publisher.Mono;
+
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Metrics of MCP clients and MCP server manager.
+ *
+ * <p>Use {@link #detect()} to get the default implementation, which records to the global registry of Micrometer when
+ * Micrometer is on the classpath, otherwise records nothing.
+ *
+ * @author xiweng.yy
+ * @see MicrometerMcpMetrics
+ */
+public interface McpMetrics {
+    
+    /**
+     * Whether this metrics records anything, callers can skip preparing metrics data if not.
+     *
+     * @return {@code true} if enabled
+     */
+    default boolean isEnabled() {
+        return true;
+    }
+    
+    /**
+     * Record a finished call of tool to an endpoint of MCP server.
+     *
+     * @param mcpServer    the name of MCP server
+     * @param toolName     the name of tool
+     * @param endpoint     the url of endpoint which served the call
+     * @param outcome      the outcome of call
+     * @param latencyNanos the latency of call in nanoseconds
+     */
+    void recordToolCall(String mcpServer, String toolName, String endpoint, Outcome outcome, long latencyNanos);
+    
+    /**
+     * Record an error of calling tool, including the calls timeout.
+     *
+     * @param mcpServer the name of MCP server
+     * @param toolName  the name of tool
+     * @param endpoint  the url of endpoint which served the call, empty if unknown
+     * @param error     the error
+     */
+    void recordToolError(String mcpServer, String toolName, String endpoint, Throwable error);
+    
+    /**
+     * Record a refresh of MCP client.
+     *
+     * @param mcpServer    the name of MCP server
+     * @param rebuild      whether the actual MCP client is rebuilt
+     * @param latencyNanos the duration of refresh in nanoseconds
+     * @param error        the error of refresh, {@code null} if succeed
+     */
+    void recordRefresh(String mcpServer, boolean rebuild, long latencyNanos, Throwable error);
+    
+    /**
+     * Record a run of refresh hook of MCP client.
+     *
+     * @param mcpServer    the name of MCP server
+     * @param hook         the name of hook
+     * @param latencyNanos the duration of hook in nanoseconds
+     * @param error        the error thrown by hook, {@code null} if succeed
+     */
+    void recordRefreshHook(String mcpServer, String hook, long latencyNanos, Throwable error);
+    
+    /**
+     * Register a gauge whose value is read from the state object, tagged by the instance owning the state object.
+     *
+     * @param name        the name of gauge
+     * @param description the description of gauge
+     * @param instance    the id of instance owning the state object, such as a manager
+     * @param state       the state object
+     * @param valueGetter the function to read value from state object
+     * @param <T>         the type of state object
+     */
+    <T> void gauge(String name, String description, String instance, T state, ToDoubleFunction<T> valueGetter);
+    
+    /**
+     * Remove gauges registered by the instance, called when the instance closed.
+     *
+     * @param instance the id of instance owning the gauges
+     */
+    void removeGauges(String instance);
+    
+    /**
+     * Record latency, outcome and error of the call of tool to an endpoint, and the endpoint into
+     * {@link ToolCallEndpoint} of the call if tracked.
+     *
+     * @param mcpServer the name of MCP server
+     * @param toolName  the name of tool
+     * @param endpoint  the url of endpoint which serves the call
+     * @param call      the call of tool
+     * @return the call of tool with metrics recorded
+     */
+    default Mono<McpSchema.CallToolResult> timeToolCall(String mcpServer, String toolName, String endpoint,
+            Mono<McpSchema.CallToolResult> call) {
+        return Mono.deferContextual(context -> {
+            ToolCallEndpoint.from(context).ifPresent(chosen -> chosen.choose(endpoint));
+            long startNanos = System.nanoTime();
+            return call.doOnSuccess(result -> {
+                Outcome outcome = null != result && Boolean.TRUE.equals(result.isError()) ? Outcome.TOOL_ERROR
+                        : Outcome.SUCCESS;
+                recordToolCall(mcpServer, toolName, endpoint, outcome, System.nanoTime() - startNanos);
+            }).doOnError(error -> {
+                recordToolCall(mcpServer, toolName, endpoint, Outcome.ERROR, System.nanoTime() - startNanos);
+                recordToolError(mcpServer, toolName, endpoint, error);
+            }).doOnCancel(() -> recordToolCall(mcpServer, toolName, endpoint, Outcome.CANCELLED,
+                    System.nanoTime() - startNanos));
+        });
+    }
+    
+    /**
+     * Detect the default metrics implementation.
+     *
+     * @return metrics recording to global registry of Micrometer if Micrometer present, otherwise no-op metrics
+     */
+    static McpMetrics detect() {
+        try {
+            Class.forName("io.micrometer.core.instrument.Metrics", false, McpMetrics.class.getClassLoader());
+        } catch (ClassNotFoundException | LinkageError e) {
+            return noop();
+        }
+        return MicrometerMcpMetrics.global();
+    }
+    
+    /**
+     * Get metrics which records nothing.
+     *
+     * @return no-op metrics
+     */
+    static McpMetrics noop() {
+        return NoopMcpMetrics.INSTANCE;
+    }
+    
+    /**
+     * Outcome of tool call.
+     */
+    enum Outcome {
+        
+        /**
+         * Call succeed.
+         */
+        SUCCESS,
+        
+        /**
+         * Call succeed but the tool returned an error result.
+         */
+        TOOL_ERROR,
+        
+        /**
+         * Call failed, such as connection errors.
+         */
+        ERROR,
+        
+        /**
+         * Call cancelled, such as timeout or lost to hedged call.
+         */
+        CANCELLED
+    }
+}
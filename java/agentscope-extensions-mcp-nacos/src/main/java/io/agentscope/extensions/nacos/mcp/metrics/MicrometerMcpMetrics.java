@@ -0,0 +1,156 @@
+/*
+ * Copyright 1999-2025 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.agentscope.extensions.nacos.mcp.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * {@link McpMetrics} recording to Micrometer {@link MeterRegistry}.
+ *
+ * <ul>
+ *     <li>{@code agentscope.mcp.tool.calls}: timer of tool calls, tagged by server, tool, endpoint and outcome.</li>
+ *     <li>{@code agentscope.mcp.tool.errors}: counter of tool call errors, tagged by server, tool, endpoint and
+ *     exception.</li>
+ *     <li>{@code agentscope.mcp.client.refreshes}: timer of MCP client refreshes, tagged by server, type and
+ *     outcome.</li>
+ *     <li>{@code agentscope.mcp.client.refresh.hooks}: timer of refresh hooks, tagged by server, hook and outcome.</li>
+ *     <li>Gauges registered by {@link io.agentscope.extensions.nacos.mcp.NacosMcpServerManager}, such as cache sizes
+ *     and the number of subscribed clients, tagged by instance of manager and removed when manager closed.</li>
+ * </ul>
+ *
+ * <p>Meters of tool calls are registered once for each tool and endpoint and reused by later calls. Percentile
+ * histogram of tool calls is disabled by default, since it adds dozens of buckets to each timer, enable it by
+ * {@link #MicrometerMcpMetrics(MeterRegistry, boolean)} if the registry needs it to aggregate percentiles.
+ *
+ * @author xiweng.yy
+ */
+public class MicrometerMcpMetrics implements McpMetrics {
+    
+    public static final String TOOL_CALLS = "agentscope.mcp.tool.calls";
+    
+    public static final String TOOL_ERRORS = "agentscope.mcp.tool.errors";
+    
+    public static final String CLIENT_REFRESHES = "agentscope.mcp.client.refreshes";
+    
+    public static final String CLIENT_REFRESH_HOOKS = "agentscope.mcp.client.refresh.hooks";
+    
+    private final MeterRegistry registry;
+    
+    private final boolean percentileHistogram;
+    
+    private final Map<ToolMeterKey, Timer> toolCallTimers;
+    
+    private final Map<ToolMeterKey, Counter> toolErrorCounters;
+    
+    private final Map<String, List<Gauge>> gauges;
+    
+    public MicrometerMcpMetrics(MeterRegistry registry) {
+        this(registry, false);
+    }
+    
+    /**
+     * Create metrics recording to Micrometer.
+     *
+     * @param registry            the meter registry
+     * @param percentileHistogram whether to publish percentile histogram of tool calls
+     */
+    public MicrometerMcpMetrics(MeterRegistry registry, boolean percentileHistogram) {
+        this.registry = registry;
+        this.percentileHistogram = percentileHistogram;
+        this.toolCallTimers = new ConcurrentHashMap<>(16);
+        this.toolErrorCounters = new ConcurrentHashMap<>(16);
+        this.gauges = new ConcurrentHashMap<>(2);
+    }
+    
+    static MicrometerMcpMetrics global() {
+        return new MicrometerMcpMetrics(Metrics.globalRegistry);
+    }
+    
+    @Override
+    public void recordToolCall(String mcpServer, String toolName, String endpoint, Outcome outcome,
+            long latencyNanos) {
+        toolCallTimers.computeIfAbsent(new ToolMeterKey(mcpServer, toolName, endpoint, outcome.name()),
+                this::registerToolCallTimer).record(latencyNanos, TimeUnit.NANOSECONDS);
+    }
+    
+    private Timer registerToolCallTimer(ToolMeterKey key) {
+        return Timer.builder(TOOL_CALLS).description("Latency of calling tools of MCP server.")
+                .tags(Tags.of("server", key.mcpServer(), "tool", key.toolName(), "endpoint", key.endpoint(),
+                        "outcome", key.kind().toLowerCase(Locale.ROOT)))
+                .publishPercentileHistogram(percentileHistogram).register(registry);
+    }
+    
+    @Override
+    public void recordToolError(String mcpServer, String toolName, String endpoint, Throwable error) {
+        toolErrorCounters.computeIfAbsent(
+                new ToolMeterKey(mcpServer, toolName, endpoint, error.getClass().getSimpleName()),
+                key -> Counter.builder(TOOL_ERRORS).description("Errors of calling tools of MCP server.")
+                        .tags(Tags.of("server", key.mcpServer(), "tool", key.toolName(), "endpoint", key.endpoint(),
+                                "exception", key.kind())).register(registry)).increment();
+    }
+    
+    @Override
+    public void recordRefresh(String mcpServer, boolean rebuild, long latencyNanos, Throwable error) {
+        Timer.builder(CLIENT_REFRESHES).description("Duration of refreshing MCP clients by changes from Nacos.")
+                .tags(Tags.of("server", mcpServer, "type", rebuild ? "rebuild" : "update", "outcome",
+                        null == error ? "success" : "error")).register(registry)
+                .record(latencyNanos, TimeUnit.NANOSECONDS);
+    }
+    
+    @Override
+    public void recordRefreshHook(String mcpServer, String hook, long latencyNanos, Throwable error) {
+        Timer.builder(CLIENT_REFRESH_HOOKS).description("Duration of running refresh hooks of MCP clients.")
+                .tags(Tags.of("server", mcpServer, "hook", hook, "outcome", null == error ? "success" : "error"))
+                .register(registry).record(latencyNanos, TimeUnit.NANOSECONDS);
+    }
+    
+    @Override
+    public <T> void gauge(String name, String description, String instance, T state,
+            ToDoubleFunction<T> valueGetter) {
+        Gauge gauge = Gauge.builder(name, state, valueGetter).description(description).tag("instance", instance)
+                .register(registry);
+        gauges.computeIfAbsent(instance, key -> new CopyOnWriteArrayList<>()).add(gauge);
+    }
+    
+    @Override
+    public void removeGauges(String instance) {
+        List<Gauge> removed = gauges.remove(instance);
+        if (null != removed) {
+            removed.forEach(registry::remove);
+        }
+    }
+    
+    /**
+     * Tags of tool meters, the kind is outcome for timers and exception for counters.
+     */
+    private record ToolMeterKey(String mcpServer, String toolName, String endpoint, String kind) {
+    
+    }
+}
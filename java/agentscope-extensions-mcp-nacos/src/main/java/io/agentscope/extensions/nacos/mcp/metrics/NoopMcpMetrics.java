@@ -0,0 +1,72 @@
+/*
+ * Copyright 1999-2025 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.agentscope.extensions.nacos.mcp.metrics;
+
+import io.modelcontextprotocol.spec.McpSchema;
+import reactor.core.publisher.Mono;
+
+import java.util.function.ToDoubleFunction;
+
+/**
+ * {@link McpMetrics} which records nothing, used when Micrometer is absent.
+ *
+ * @author xiweng.yy
+ */
+final class NoopMcpMetrics implements McpMetrics {
+    
+    static final NoopMcpMetrics INSTANCE = new NoopMcpMetrics();
+    
+    private NoopMcpMetrics() {
+    }
+    
+    @Override
+    public boolean isEnabled() {
+        return false;
+    }
+    
+    @Override
+    public void recordToolCall(String mcpServer, String toolName, String endpoint, Outcome outcome,
+            long latencyNanos) {
+    }
+    
+    @Override
+    public void recordToolError(String mcpServer, String toolName, String endpoint, Throwable error) {
+    }
+    
+    @Override
+    public void recordRefresh(String mcpServer, boolean rebuild, long latencyNanos, Throwable error) {
+    }
+    
+    @Override
+    public void recordRefreshHook(String mcpServer, String hook, long latencyNanos, Throwable error) {
+    }
+    
+    @Override
+    public <T> void gauge(String name, String description, String instance, T state,
+            ToDoubleFunction<T> valueGetter) {
+    }
+    
+    @Override
+    public void removeGauges(String instance) {
+    }
+    
+    @Override
+    public Mono<McpSchema.CallToolResult> timeToolCall(String mcpServer, String toolName, String endpoint,
+            Mono<McpSchema.CallToolResult> call) {
+        return call;
+    }
+}
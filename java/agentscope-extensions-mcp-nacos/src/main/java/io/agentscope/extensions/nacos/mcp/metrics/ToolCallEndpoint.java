@@ -0,0 +1,82 @@
+/*
+ * Copyright 1999-2025 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.agentscope.extensions.nacos.mcp.metrics;
+
+import reactor.core.publisher.Mono;
+import reactor.util.context.ContextView;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * The endpoint chosen to serve one tool call, so that errors recorded outside the call, such as timeout, are tagged
+ * by the endpoint too.
+ *
+ * <p>The endpoint is recorded by {@link McpMetrics#timeToolCall} of the call, only the first endpoint is kept if the
+ * call is hedged to another endpoint.
+ *
+ * @author xiweng.yy
+ */
+public final class ToolCallEndpoint {
+    
+    private static final Class<ToolCallEndpoint> CONTEXT_KEY = ToolCallEndpoint.class;
+    
+    private final AtomicReference<String> endpoint;
+    
+    private ToolCallEndpoint() {
+        this.endpoint = new AtomicReference<>();
+    }
+    
+    public static ToolCallEndpoint create() {
+        return new ToolCallEndpoint();
+    }
+    
+    /**
+     * Get the tracking endpoint from reactor context.
+     *
+     * @param context the reactor context
+     * @return the tracking endpoint, empty if not set
+     */
+    public static Optional<ToolCallEndpoint> from(ContextView context) {
+        return context.getOrEmpty(CONTEXT_KEY);
+    }
+    
+    /**
+     * Record the endpoint chosen by the tool call.
+     *
+     * @param call the tool call
+     * @param <T>  the type of call result
+     * @return the tool call recording the endpoint into this
+     */
+    public <T> Mono<T> track(Mono<T> call) {
+        return call.contextWrite(context -> context.put(CONTEXT_KEY, this));
+    }
+    
+    /**
+     * Get the endpoint chosen by the tool call.
+     *
+     * @return the url of endpoint, empty if no endpoint chosen yet
+     */
+    public String getEndpoint() {
+        String result = endpoint.get();
+        return null == result ? "" : result;
+    }
+    
+    void choose(String chosen) {
+        endpoint.compareAndSet(null, chosen);
+    }
+}
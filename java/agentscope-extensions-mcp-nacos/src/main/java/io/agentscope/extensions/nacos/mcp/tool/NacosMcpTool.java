@@ -16,18 +16,27 @@
 
 package io.agentscope.extensions.nacos.mcp.tool;
 
-import com.alibaba.nacos.api.ai.model.mcp.McpServerDetailInfo;
 import com.alibaba.nacos.api.ai.model.mcp.McpTool;
 import com.alibaba.nacos.api.exception.NacosException;
 import com.alibaba.nacos.api.exception.runtime.NacosRuntimeException;
+import io.agentscope.core.message.TextBlock;
 import io.agentscope.core.message.ToolResultBlock;
 import io.agentscope.core.tool.AgentTool;
+import io.agentscope.core.tool.NoOpToolEmitter;
 import io.agentscope.core.tool.ToolCallParam;
+import io.agentscope.core.tool.ToolEmitter;
+import io.agentscope.extensions.nacos.mcp.client.CallDeadline;
+import io.agentscope.extensions.nacos.mcp.client.McpToolTable;
 import io.agentscope.extensions.nacos.mcp.client.NacosMcpClientWrapper;
+import io.agentscope.extensions.nacos.mcp.client.ToolCallProgress;
+import io.modelcontextprotocol.spec.McpSchema;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.HashMap;
 import java.util.Map;
 
 /**
@@ -35,6 +44,12 @@ import java.util.Map;
  *
  * <p>This Mcp Tool supported auto-updated from Nacos when MCP Server or Tools changed.
  * <p>This Mcp Tool will get Tool spec from Nacos according to input tool name and Nacos MCP client.
+ * <p>Tool spec is looked up from the {@link McpToolTable} of Nacos MCP client by name, and transformed again only
+ * when the table is replaced by refresh.
+ * <p>Progress notifications of long-running tools are streamed by {@link #callStream(ToolCallParam)}.
+ * <p>Calls are cancelled when the {@link CallDeadline} of caller expired. The deadline is read from reactor context
+ * of the call, such as {@code agent.call(msg).contextWrite(CallDeadline.after(timeout)::writeTo)}, and from the
+ * {@link io.agentscope.core.tool.ToolExecutionContext} of {@link ToolCallParam}, the earlier one applies.
  *
  * @author xiweng.yy
  */
@@ -42,20 +57,32 @@ public class NacosMcpTool implements AgentTool {
     
     private static final Logger log = LoggerFactory.getLogger(NacosMcpTool.class);
     
+    /**
+     * Metadata key of progress in {@link ToolResultBlock}s streamed from progress notifications of MCP server.
+     */
+    public static final String METADATA_PROGRESS = "mcp.progress";
+    
+    /**
+     * Metadata key of total progress in {@link ToolResultBlock}s streamed from progress notifications, absent if
+     * total is unknown.
+     */
+    public static final String METADATA_PROGRESS_TOTAL = "mcp.progress.total";
+    
     private final String toolName;
     
     private final NacosMcpClientWrapper mcpClient;
     
-    private io.agentscope.core.tool.mcp.McpTool mcpTool;
+    private volatile ResolvedTool resolvedTool;
     
     public NacosMcpTool(String toolName, NacosMcpClientWrapper mcpClient) {
         this.toolName = toolName;
         this.mcpClient = mcpClient;
-        this.mcpTool = transform(getMcpTool(mcpClient.getMcpServer()));
-        this.mcpClient.registerRefreshHook((mcpServer, mcpClient1) -> {
-            log.debug("Refresh Tool {} by Nacos MCP client {}", toolName, mcpClient1.getName());
-            this.mcpTool = transform(getMcpTool(mcpServer));
-        });
+        McpToolTable toolTable = mcpClient.getToolTable();
+        McpTool toolSpec = toolTable.get(toolName);
+        if (null == toolSpec) {
+            throw new NacosRuntimeException(NacosException.NOT_FOUND, String.format("tool %s not found.", toolName));
+        }
+        this.resolvedTool = new ResolvedTool(toolTable, transform(toolSpec));
     }
     
     @Override
@@ -65,27 +92,106 @@ public class NacosMcpTool implements AgentTool {
     
     @Override
     public String getDescription() {
-        return mcpTool.getDescription();
+        return getMcpTool().getDescription();
     }
     
     @Override
     public Map<String, Object> getParameters() {
-        return mcpTool.getParameters();
+        return getMcpTool().getParameters();
     }
     
+    /**
+     * Call tool of MCP server, progress notifications of the call are emitted to {@link ToolCallParam#getEmitter()}
+     * as {@link ToolResultBlock}s with metadata {@link #METADATA_PROGRESS}, if emitter set.
+     *
+     * @param param the param of tool call
+     * @return the result of tool call
+     */
     @Override
     public Mono<ToolResultBlock> callAsync(ToolCallParam param) {
-        return mcpTool.callAsync(param);
+        ToolEmitter emitter = param.getEmitter();
+        if (null == emitter || emitter instanceof NoOpToolEmitter) {
+            return call(param);
+        }
+        return ToolCallProgress.create(notification -> emitter.emit(toProgressBlock(notification)))
+                .track(call(param));
     }
     
-    private McpTool getMcpTool(McpServerDetailInfo mcpServer) {
-        return mcpServer.getToolSpec().getTools().stream().filter(mcpTool -> getName().equals(mcpTool.getName()))
-                .findFirst().orElseThrow(() -> new NacosRuntimeException(NacosException.NOT_FOUND,
-                        String.format("tool %s not found.", getName())));
+    /**
+     * Call tool of MCP server and stream the progress notifications of the call, as {@link ToolResultBlock}s with
+     * metadata {@link #METADATA_PROGRESS}, followed by the result of tool call as the last element.
+     *
+     * <p>If the MCP client is refreshed during the call, the call keeps running and streaming progress on the old MCP
+     * client until finished or the drain timeout of MCP client expired.
+     *
+     * @param param the param of tool call
+     * @return the progress and the result of tool call
+     */
+    public Flux<ToolResultBlock> callStream(ToolCallParam param) {
+        return Flux.create(sink -> {
+            ToolCallProgress progress = ToolCallProgress.create(
+                    notification -> sink.next(toProgressBlock(notification)));
+            Disposable call = progress.track(call(param)).subscribe(sink::next, sink::error, sink::complete);
+            sink.onDispose(call);
+        });
+    }
+    
+    private Mono<ToolResultBlock> call(ToolCallParam param) {
+        io.agentscope.core.tool.mcp.McpTool mcpTool = getMcpTool();
+        // Pass the deadline of agent to MCP client, so that tool call won't outlive the agent. Deadline in reactor
+        // context of caller flows to MCP client as is, and writeTo keeps the earlier one of both.
+        CallDeadline deadline = null == param.getContext() ? null : param.getContext().get(CallDeadline.class);
+        if (null == deadline) {
+            return mcpTool.callAsync(param);
+        }
+        return mcpTool.callAsync(param).contextWrite(deadline::writeTo);
+    }
+    
+    private ToolResultBlock toProgressBlock(McpSchema.ProgressNotification notification) {
+        Map<String, Object> metadata = new HashMap<>(4);
+        metadata.put(METADATA_PROGRESS, notification.progress());
+        if (null != notification.total()) {
+            metadata.put(METADATA_PROGRESS_TOTAL, notification.total());
+        }
+        String text = null != notification.message() ? notification.message()
+                : String.format("Progress of tool %s: %s%s", toolName, notification.progress(),
+                        null == notification.total() ? "" : "/" + notification.total());
+        return ToolResultBlock.of(TextBlock.builder().text(text).build(), metadata);
+    }
+    
+    /**
+     * Get tool spec from the tool table of MCP client, only transformed again when the table replaced by refresh.
+     * If the tool is removed from Nacos, keep using the last tool spec.
+     */
+    private io.agentscope.core.tool.mcp.McpTool getMcpTool() {
+        ResolvedTool current = this.resolvedTool;
+        McpToolTable toolTable = mcpClient.getToolTable();
+        if (current.toolTable() == toolTable) {
+            return current.mcpTool();
+        }
+        McpTool toolSpec = toolTable.get(toolName);
+        io.agentscope.core.tool.mcp.McpTool result;
+        if (null == toolSpec) {
+            log.warn("Tool {} not found in Nacos MCP client {}, keep the last tool spec.", toolName,
+                    mcpClient.getName());
+            result = current.mcpTool();
+        } else {
+            log.debug("Refresh Tool {} by Nacos MCP client {}", toolName, mcpClient.getName());
+            result = transform(toolSpec);
+        }
+        this.resolvedTool = new ResolvedTool(toolTable, result);
+        return result;
     }
     
     private io.agentscope.core.tool.mcp.McpTool transform(McpTool mcpTool) {
         return new io.agentscope.core.tool.mcp.McpTool(this.toolName, mcpTool.getDescription(),
                 mcpTool.getInputSchema(), mcpClient);
     }
+    
+    /**
+     * Tool transformed from the tool spec in tool table, only valid for the table it transformed from.
+     */
+    private record ResolvedTool(McpToolTable toolTable, io.agentscope.core.tool.mcp.McpTool mcpTool) {
+    
+    }
 }
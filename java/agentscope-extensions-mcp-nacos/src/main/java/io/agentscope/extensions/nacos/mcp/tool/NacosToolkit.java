@@ -17,23 +17,39 @@
 package io.agentscope.extensions.nacos.mcp.tool;
 
 import com.alibaba.nacos.api.ai.model.mcp.McpServerDetailInfo;
+import com.alibaba.nacos.common.utils.CollectionUtils;
+import com.alibaba.nacos.common.utils.StringUtils;
+import io.agentscope.core.model.ToolSchema;
+import io.agentscope.core.tool.AgentTool;
+import io.agentscope.core.tool.ToolGroup;
 import io.agentscope.core.tool.Toolkit;
 import io.agentscope.core.tool.ToolkitConfig;
 import io.agentscope.core.tool.mcp.McpClientWrapper;
 import io.agentscope.extensions.nacos.mcp.client.NacosMcpClientWrapper;
+import io.agentscope.extensions.nacos.mcp.tool.index.ToolIndex;
+import io.agentscope.extensions.nacos.mcp.tool.index.ToolIndexConfig;
+import io.modelcontextprotocol.spec.McpSchema;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import reactor.core.publisher.Mono;
 
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.function.Supplier;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * Extension for {@link io.agentscope.core.tool.Toolkit}.
  *
- * <p>Support dynamic refresh tools when MCP Server in Nacos changed.
+ * <p>Support dynamic refresh tools when MCP Server in Nacos changed. Only the tools added, removed or changed in
+ * Nacos will be re-registered, other tools keep registered during refresh. If tool deletion is disabled by
+ * {@link ToolkitConfig}, all tools of the MCP client are registered again instead.
  * <p>Full replace {@link Toolkit} with same usages.
  *
  * <p>Example usage:
@@ -51,6 +67,11 @@ import java.util.function.Supplier;
  *  toolkit.registerMcpClient(nacosMcpClient);
  *  ReActAgent agent = new ReActAgent(..., toolkit, ...);
  *  agent.call()
+ *
+ *  // Only send tools relevant to the latest user message to LLM when there are lots of tools.
+ *  NacosToolkit toolkit = new NacosToolkit(ToolkitConfig.defaultConfig(), ToolIndexConfig.create().topK(20));
+ *  ReActAgent agent = new ReActAgent(..., new ToolSelectingModel(model, toolkit), toolkit, ...);
+ *  agent.call(userMessage)
  * }
  * </pre>
  *
@@ -61,17 +82,195 @@ public class NacosToolkit extends Toolkit {
     
     private static final Logger log = LoggerFactory.getLogger(NacosToolkit.class);
     
-    private static final McpClientInfo EMPTY_MCP_CLIENT_INFO = new McpClientInfo(null, null, null);
+    private static final McpClientInfo EMPTY_MCP_CLIENT_INFO = new McpClientInfo(null, null, null,
+            Collections.emptyMap(), null, null);
     
     private final Map<String, McpClientInfo> mcpClientInfos;
     
+    private final ToolIndexConfig toolIndexConfig;
+    
+    private final ToolIndex toolIndex;
+    
+    private final Map<String, IndexedTool> indexedTools;
+    
+    private final AtomicLong toolsVersion;
+    
+    private volatile long indexedVersion;
+    
+    private final boolean allowToolDeletion;
+    
     public NacosToolkit() {
         this(ToolkitConfig.defaultConfig());
     }
     
     public NacosToolkit(ToolkitConfig config) {
+        this(config, null);
+    }
+    
+    /**
+     * Create toolkit which only exposes the tools relevant to the query to LLM.
+     *
+     * @param config          the config of toolkit
+     * @param toolIndexConfig the config of tool index, {@code null} means exposing all tools
+     * @see #getToolSchemas(String)
+     * @see ToolSelectingModel
+     */
+    public NacosToolkit(ToolkitConfig config, ToolIndexConfig toolIndexConfig) {
         super(config);
         this.mcpClientInfos = new ConcurrentHashMap<>(2);
+        this.toolIndexConfig = toolIndexConfig;
+        this.toolIndex = null == toolIndexConfig ? null : toolIndexConfig.getToolIndex().get();
+        this.indexedTools = new ConcurrentHashMap<>();
+        this.toolsVersion = new AtomicLong();
+        this.indexedVersion = -1;
+        this.allowToolDeletion = (null == config ? ToolkitConfig.defaultConfig() : config).isAllowToolDeletion();
+    }
+    
+    /**
+     * Get schemas of the top k tools relevant to the query and tools always included. All tools are returned if no
+     * tool index, no query or no tool relevant.
+     *
+     * <p>Tools are returned in the order of registration rather than relevance, so that the prompt keeps stable for
+     * similar queries.
+     *
+     * <p>The query is passed for each call rather than kept by toolkit, so that agents sharing one toolkit select
+     * tools by their own queries.
+     *
+     * @param query the query to select tools, {@code null} or blank means exposing all tools
+     * @return schemas of tools exposed to LLM
+     */
+    public List<ToolSchema> getToolSchemas(String query) {
+        return selectToolSchemas(super.getToolSchemas(), query);
+    }
+    
+    /**
+     * Select schemas of the top k tools relevant to the query and tools always included from the given schemas.
+     *
+     * @param schemas the schemas of tools to select from, such as schemas of active tool groups
+     * @param query   the query to select tools
+     * @return schemas of selected tools
+     */
+    List<ToolSchema> selectToolSchemas(List<ToolSchema> schemas, String query) {
+        if (null == toolIndex || StringUtils.isBlank(query) || schemas.size() <= toolIndexConfig.getTopK()) {
+            return schemas;
+        }
+        // Only sync when tools registered or removed out of refresh events, since ToolsRefresher updates index
+        // incrementally. Size check catches tools selected from another group of schemas.
+        long version = toolsVersion.get();
+        if (version != indexedVersion || schemas.size() != indexedTools.size()) {
+            syncToolIndex(schemas);
+            indexedVersion = version;
+        }
+        List<String> relevantTools = toolIndex.search(query, toolIndexConfig.getTopK());
+        if (relevantTools.isEmpty()) {
+            log.debug("No tool relevant to query in Toolkit {}, expose all tools.", NacosToolkit.this);
+            return schemas;
+        }
+        Set<String> selected = new HashSet<>(relevantTools);
+        selected.addAll(toolIndexConfig.getAlwaysIncludeTools());
+        return schemas.stream().filter(schema -> selected.contains(schema.getName())).toList();
+    }
+    
+    /**
+     * Index tools registered or changed without refresh events, such as tools registered directly, and remove tools
+     * no longer registered. Changed tools of Nacos MCP clients are updated by {@link ToolsRefresher} incrementally.
+     */
+    private void syncToolIndex(List<ToolSchema> schemas) {
+        Set<String> indexed = toolIndex.getToolNames();
+        Set<String> registered = new HashSet<>(schemas.size());
+        for (ToolSchema each : schemas) {
+            registered.add(each.getName());
+            IndexedTool tool = new IndexedTool(each.getDescription(), each.getParameters());
+            if (!indexed.contains(each.getName()) || !tool.equals(indexedTools.get(each.getName()))) {
+                indexTool(each.getName(), tool);
+            }
+        }
+        indexed.removeAll(registered);
+        indexed.forEach(this::removeIndexedTool);
+    }
+    
+    private void updateToolIndex(Set<String> removedTools, List<String> changedTools) {
+        if (null == toolIndex) {
+            return;
+        }
+        removedTools.forEach(this::removeIndexedTool);
+        for (String each : changedTools) {
+            AgentTool tool = getTool(each);
+            if (null != tool) {
+                indexTool(each, new IndexedTool(tool.getDescription(), tool.getParameters()));
+            }
+        }
+    }
+    
+    private void indexTool(String toolName, IndexedTool tool) {
+        toolIndex.upsert(toolName, tool.description(), tool.parameters());
+        indexedTools.put(toolName, tool);
+    }
+    
+    private void removeIndexedTool(String toolName) {
+        toolIndex.remove(toolName);
+        indexedTools.remove(toolName);
+    }
+    
+    /**
+     * Mark tools changed out of refresh events, so that tool index is synced by the next query.
+     */
+    private void markToolsChanged() {
+        toolsVersion.incrementAndGet();
+    }
+    
+    @Override
+    public ToolRegistration registration() {
+        markToolsChanged();
+        return super.registration();
+    }
+    
+    @Override
+    public void registerTool(Object tool) {
+        super.registerTool(tool);
+        markToolsChanged();
+    }
+    
+    @Override
+    public void registerAgentTool(AgentTool tool) {
+        super.registerAgentTool(tool);
+        markToolsChanged();
+    }
+    
+    @Override
+    public void registerSchema(ToolSchema toolSchema) {
+        super.registerSchema(toolSchema);
+        markToolsChanged();
+    }
+    
+    @Override
+    public void registerSchemas(List<ToolSchema> toolSchemas) {
+        super.registerSchemas(toolSchemas);
+        markToolsChanged();
+    }
+    
+    @Override
+    public void removeTool(String toolName) {
+        super.removeTool(toolName);
+        markToolsChanged();
+    }
+    
+    @Override
+    public void removeToolGroups(List<String> groupNames) {
+        super.removeToolGroups(groupNames);
+        markToolsChanged();
+    }
+    
+    @Override
+    public void updateToolGroups(List<String> groupNames, boolean active) {
+        super.updateToolGroups(groupNames, active);
+        markToolsChanged();
+    }
+    
+    @Override
+    public void setActiveGroups(List<String> activeGroups) {
+        super.setActiveGroups(activeGroups);
+        markToolsChanged();
     }
     
     @Override
@@ -90,13 +289,17 @@ public class NacosToolkit extends Toolkit {
     
     public Mono<Void> registerMcpClient(McpClientWrapper mcpClientWrapper, List<String> enableTools,
             List<String> disableTools, String groupName) {
-        return delegateRegisterMcpClient(mcpClientWrapper, enableTools, disableTools, groupName).doOnSuccess(
-                unused -> cacheMcpClientInfo(mcpClientWrapper, enableTools, disableTools, groupName));
+        return delegateRegisterMcpClient(mcpClientWrapper, enableTools, disableTools, groupName).then(
+                        Mono.defer(() -> cacheMcpClientInfo(mcpClientWrapper, enableTools, disableTools, groupName)))
+                .doFinally(signal -> markToolsChanged());
     }
     
     @Override
     public Mono<Void> removeMcpClient(String mcpClientName) {
-        return delegateRemoveMcpClient(mcpClientName).doOnSuccess(unused -> mcpClientInfos.remove(mcpClientName));
+        return delegateRemoveMcpClient(mcpClientName).doOnSuccess(unused -> {
+            unregisterToolsRefresher(mcpClientInfos.remove(mcpClientName));
+            markToolsChanged();
+        });
     }
     
     private Mono<Void> delegateRegisterMcpClient(McpClientWrapper mcpClientWrapper, List<String> enableTools,
@@ -111,13 +314,40 @@ public class NacosToolkit extends Toolkit {
         return super.removeMcpClient(mcpClientName);
     }
     
-    private void cacheMcpClientInfo(McpClientWrapper mcpClientWrapper, List<String> enableTools,
+    private Mono<Void> cacheMcpClientInfo(McpClientWrapper mcpClientWrapper, List<String> enableTools,
             List<String> disableTools, String groupName) {
-        if (mcpClientWrapper instanceof NacosMcpClientWrapper nacosMcpClient) {
-            log.debug("Register Nacos MCP client {} to Toolkit {}", mcpClientWrapper.getName(), NacosToolkit.this);
-            McpClientInfo mcpClientInfo = new McpClientInfo(groupName, enableTools, disableTools);
-            mcpClientInfos.put(nacosMcpClient.getName(), mcpClientInfo);
-            nacosMcpClient.registerRefreshHook(new ToolsRefresher());
+        if (!(mcpClientWrapper instanceof NacosMcpClientWrapper nacosMcpClient)) {
+            return Mono.empty();
+        }
+        log.debug("Register Nacos MCP client {} to Toolkit {}", mcpClientWrapper.getName(), NacosToolkit.this);
+        // Same tools as registered into toolkit, which are merged with tool specs in Nacos.
+        return nacosMcpClient.listTools().map(NacosToolkit::toolsByName).doOnNext(tools -> {
+            ToolsRefresher toolsRefresher = new ToolsRefresher();
+            McpClientInfo mcpClientInfo = new McpClientInfo(groupName, enableTools, disableTools, tools,
+                    nacosMcpClient, toolsRefresher);
+            // Registering the same client again replaces the former one, whose refresher should not run anymore.
+            unregisterToolsRefresher(mcpClientInfos.put(nacosMcpClient.getName(), mcpClientInfo));
+            nacosMcpClient.registerRefreshHook(toolsRefresher);
+        }).then();
+    }
+    
+    private void unregisterToolsRefresher(McpClientInfo mcpClientInfo) {
+        if (null != mcpClientInfo && null != mcpClientInfo.mcpClient()) {
+            mcpClientInfo.mcpClient().unregisterRefreshHook(mcpClientInfo.toolsRefresher());
+        }
+    }
+    
+    private static Map<String, McpSchema.Tool> toolsByName(List<McpSchema.Tool> tools) {
+        return tools.stream().collect(Collectors.toMap(McpSchema.Tool::name, Function.identity(),
+                (former, latter) -> latter));
+    }
+    
+    private void removeRegisteredTool(String toolName, String groupName) {
+        // Removed from index by ToolsRefresher, no need to mark tools changed.
+        super.removeTool(toolName);
+        ToolGroup group = null == groupName ? null : getToolGroup(groupName);
+        if (null != group) {
+            group.removeTool(toolName);
         }
     }
     
@@ -127,13 +357,52 @@ public class NacosToolkit extends Toolkit {
         public void postRefresh(McpServerDetailInfo mcpServer, NacosMcpClientWrapper mcpClient) {
             log.debug("Refresh Tools in Toolkit {} by Nacos MCP client {}", NacosToolkit.this, mcpClient.getName());
             McpClientInfo info = mcpClientInfos.getOrDefault(mcpClient.getName(), EMPTY_MCP_CLIENT_INFO);
-            delegateRemoveMcpClient(mcpClient.getName()).then(Mono.defer(
-                    (Supplier<Mono<?>>) () -> delegateRegisterMcpClient(mcpClient, info.enableTools(),
-                            info.disableTools(), info.groupName()))).block();
+            // Diff the tools registered into toolkit, which are merged from MCP server and Nacos.
+            Map<String, McpSchema.Tool> oldTools = info.tools();
+            Map<String, McpSchema.Tool> newTools = toolsByName(mcpClient.listTools().block());
+            Set<String> removedTools = new HashSet<>(oldTools.keySet());
+            removedTools.removeAll(newTools.keySet());
+            List<String> changedTools = newTools.values().stream()
+                    .filter(tool -> !Objects.equals(oldTools.get(tool.name()), tool)).map(McpSchema.Tool::name)
+                    .filter(info::isEnabled).toList();
+            log.debug("Tools changed in Nacos MCP client {}, removed: {}, added or updated: {}", mcpClient.getName(),
+                    removedTools, changedTools);
+            if (!removedTools.isEmpty() && !allowToolDeletion) {
+                // Tools can't be removed one by one, register all tools again so that at least changes are applied.
+                log.info("Tool deletion is disabled in Toolkit {}, register all tools of Nacos MCP client {} again.",
+                        NacosToolkit.this, mcpClient.getName());
+                delegateRegisterMcpClient(mcpClient, info.enableTools(), info.disableTools(), info.groupName())
+                        .block();
+                updateToolIndex(Set.of(), newTools.keySet().stream().filter(info::isEnabled).toList());
+            } else {
+                removedTools.forEach(each -> removeRegisteredTool(each, info.groupName()));
+                if (!changedTools.isEmpty()) {
+                    // Registering tool with same name will replace the old one, so no need to remove before register.
+                    delegateRegisterMcpClient(mcpClient, changedTools, info.disableTools(), info.groupName()).block();
+                }
+                updateToolIndex(removedTools, changedTools);
+            }
+            mcpClientInfos.computeIfPresent(mcpClient.getName(), (name, current) -> current.withTools(newTools));
+        }
+    }
+    
+    private record McpClientInfo(String groupName, List<String> enableTools, List<String> disableTools,
+            Map<String, McpSchema.Tool> tools, NacosMcpClientWrapper mcpClient, ToolsRefresher toolsRefresher) {
+        
+        private McpClientInfo withTools(Map<String, McpSchema.Tool> tools) {
+            return new McpClientInfo(groupName, enableTools, disableTools, tools, mcpClient, toolsRefresher);
+        }
+        
+        private boolean isEnabled(String toolName) {
+            return (CollectionUtils.isEmpty(enableTools) || enableTools.contains(toolName))
+                    && (CollectionUtils.isEmpty(disableTools) || !disableTools.contains(toolName));
         }
     }
     
-    private record McpClientInfo(String groupName, List<String> enableTools, List<String> disableTools) {
+    /**
+     * The indexed fields of tool, to find tools changed without refresh events.
+     */
+    private record IndexedTool(String description, Map<String, Object> parameters) {
     
     }
 }
@@ -0,0 +1,80 @@
+/*
+ * Copyright 1999-2025 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.agentscope.extensions.nacos.mcp.tool;
+
+import io.agentscope.core.message.Msg;
+import io.agentscope.core.message.MsgRole;
+import io.agentscope.core.model.ChatResponse;
+import io.agentscope.core.model.GenerateOptions;
+import io.agentscope.core.model.Model;
+import io.agentscope.core.model.ToolSchema;
+import reactor.core.publisher.Flux;
+
+import java.util.List;
+
+/**
+ * {@link Model} which only sends the tools relevant to the latest user message to LLM, selected by
+ * {@link NacosToolkit#getToolSchemas(String)} for each call.
+ *
+ * <p>The query is taken from the messages of each call, so that one {@link NacosToolkit} can be shared by agents
+ * handling different users concurrently.
+ *
+ * @author xiweng.yy
+ */
+public class ToolSelectingModel implements Model {
+    
+    private final Model delegate;
+    
+    private final NacosToolkit toolkit;
+    
+    /**
+     * Create model selecting tools.
+     *
+     * @param delegate the actual model
+     * @param toolkit  the toolkit with {@link io.agentscope.extensions.nacos.mcp.tool.index.ToolIndexConfig} set
+     */
+    public ToolSelectingModel(Model delegate, NacosToolkit toolkit) {
+        this.delegate = delegate;
+        this.toolkit = toolkit;
+    }
+    
+    @Override
+    public Flux<ChatResponse> stream(List<Msg> messages, List<ToolSchema> tools, GenerateOptions options) {
+        if (null == tools || tools.isEmpty()) {
+            return delegate.stream(messages, tools, options);
+        }
+        return delegate.stream(messages, toolkit.selectToolSchemas(tools, latestUserMessage(messages)), options);
+    }
+    
+    @Override
+    public String getModelName() {
+        return delegate.getModelName();
+    }
+    
+    private static String latestUserMessage(List<Msg> messages) {
+        if (null == messages) {
+            return null;
+        }
+        for (int i = messages.size() - 1; i >= 0; i--) {
+            Msg each = messages.get(i);
+            if (MsgRole.USER == each.getRole()) {
+                return each.getTextContent();
+            }
+        }
+        return null;
+    }
+}
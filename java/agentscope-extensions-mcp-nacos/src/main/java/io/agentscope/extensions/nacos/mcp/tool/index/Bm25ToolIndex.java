@@ -0,0 +1,159 @@
+/*
+ * Copyright 1999-2025 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.agentscope.extensions.nacos.mcp.tool.index;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * {@link ToolIndex} ranking tools by Okapi BM25 over terms of tool name, description and parameter names.
+ *
+ * <p>Tools are kept in an inverted index, upserting or removing one tool only updates the postings of its own terms,
+ * and searching only scores the tools containing terms of query.
+ *
+ * @author xiweng.yy
+ */
+public class Bm25ToolIndex implements ToolIndex {
+    
+    private static final double DEFAULT_K1 = 1.2D;
+    
+    private static final double DEFAULT_B = 0.75D;
+    
+    private final double k1;
+    
+    private final double b;
+    
+    private final ReadWriteLock lock;
+    
+    private final Map<String, Map<String, Integer>> postings;
+    
+    private final Map<String, Map<String, Integer>> termFrequencies;
+    
+    private final Map<String, Integer> lengths;
+    
+    private long totalLength;
+    
+    public Bm25ToolIndex() {
+        this(DEFAULT_K1, DEFAULT_B);
+    }
+    
+    /**
+     * Create BM25 index with parameters.
+     *
+     * @param k1 term frequency saturation, usually between 1.2 and 2.0
+     * @param b  document length normalization, between 0 and 1
+     */
+    public Bm25ToolIndex(double k1, double b) {
+        if (k1 < 0 || b < 0 || b > 1) {
+            throw new IllegalArgumentException("k1 should not be negative and b should be between 0 and 1.");
+        }
+        this.k1 = k1;
+        this.b = b;
+        this.lock = new ReentrantReadWriteLock();
+        this.postings = new HashMap<>();
+        this.termFrequencies = new HashMap<>();
+        this.lengths = new HashMap<>();
+    }
+    
+    @Override
+    public void upsert(String toolName, String description, Map<String, Object> parameters) {
+        List<String> terms = ToolDocuments.tokenize(ToolDocuments.text(toolName, description, parameters));
+        Map<String, Integer> frequencies = new HashMap<>(terms.size());
+        terms.forEach(term -> frequencies.merge(term, 1, Integer::sum));
+        lock.writeLock().lock();
+        try {
+            removeWithoutLock(toolName);
+            termFrequencies.put(toolName, frequencies);
+            lengths.put(toolName, terms.size());
+            totalLength += terms.size();
+            frequencies.forEach((term, frequency) -> postings.computeIfAbsent(term, key -> new HashMap<>())
+                    .put(toolName, frequency));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    @Override
+    public void remove(String toolName) {
+        lock.writeLock().lock();
+        try {
+            removeWithoutLock(toolName);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    private void removeWithoutLock(String toolName) {
+        Map<String, Integer> frequencies = termFrequencies.remove(toolName);
+        if (null == frequencies) {
+            return;
+        }
+        totalLength -= lengths.remove(toolName);
+        frequencies.keySet().forEach(term -> {
+            Map<String, Integer> posting = postings.get(term);
+            posting.remove(toolName);
+            if (posting.isEmpty()) {
+                postings.remove(term);
+            }
+        });
+    }
+    
+    @Override
+    public Set<String> getToolNames() {
+        lock.readLock().lock();
+        try {
+            return new HashSet<>(lengths.keySet());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    @Override
+    public List<String> search(String query, int topK) {
+        Set<String> queryTerms = new LinkedHashSet<>(ToolDocuments.tokenize(query));
+        lock.readLock().lock();
+        try {
+            if (queryTerms.isEmpty() || lengths.isEmpty()) {
+                return Collections.emptyList();
+            }
+            int documents = lengths.size();
+            double averageLength = Math.max(1D, (double) totalLength / documents);
+            Map<String, Double> scores = new HashMap<>();
+            for (String term : queryTerms) {
+                Map<String, Integer> posting = postings.get(term);
+                if (null == posting) {
+                    continue;
+                }
+                double idf = Math.log(1D + (documents - posting.size() + 0.5D) / (posting.size() + 0.5D));
+                posting.forEach((toolName, frequency) -> {
+                    double norm = k1 * (1D - b + b * lengths.get(toolName) / averageLength);
+                    scores.merge(toolName, idf * frequency * (k1 + 1D) / (frequency + norm), Double::sum);
+                });
+            }
+            return ToolDocuments.topK(scores.keySet(), scores::get, topK);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright 1999-2025 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.agentscope.extensions.nacos.mcp.tool.index;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * {@link ToolIndex} ranking tools by cosine similarity of embeddings, with embedding function provided by users, such
+ * as a local embedding model.
+ *
+ * <p>Each tool is embedded once when upserted, searching only embeds the query.
+ *
+ * @author xiweng.yy
+ */
+public class EmbeddingToolIndex implements ToolIndex {
+    
+    private final Function<String, float[]> embeddingFunction;
+    
+    private final Map<String, float[]> embeddings;
+    
+    /**
+     * Create embedding index.
+     *
+     * @param embeddingFunction function to embed text into vector, vectors of all texts should have same dimension
+     */
+    public EmbeddingToolIndex(Function<String, float[]> embeddingFunction) {
+        if (null == embeddingFunction) {
+            throw new IllegalArgumentException("Embedding function can not be null.");
+        }
+        this.embeddingFunction = embeddingFunction;
+        this.embeddings = new ConcurrentHashMap<>(2);
+    }
+    
+    @Override
+    public void upsert(String toolName, String description, Map<String, Object> parameters) {
+        embeddings.put(toolName, normalize(embeddingFunction.apply(
+                ToolDocuments.text(toolName, description, parameters))));
+    }
+    
+    @Override
+    public void remove(String toolName) {
+        embeddings.remove(toolName);
+    }
+    
+    @Override
+    public Set<String> getToolNames() {
+        return new HashSet<>(embeddings.keySet());
+    }
+    
+    @Override
+    public List<String> search(String query, int topK) {
+        if (null == query || query.isBlank() || embeddings.isEmpty()) {
+            return Collections.emptyList();
+        }
+        float[] queryEmbedding = normalize(embeddingFunction.apply(query));
+        return ToolDocuments.topK(embeddings.keySet(), toolName -> dot(queryEmbedding, embeddings.get(toolName)),
+                topK);
+    }
+    
+    private static double dot(float[] left, float[] right) {
+        if (null == right || left.length != right.length) {
+            return 0D;
+        }
+        double result = 0D;
+        for (int i = 0; i < left.length; i++) {
+            result += left[i] * right[i];
+        }
+        return result;
+    }
+    
+    private static float[] normalize(float[] vector) {
+        double norm = 0D;
+        for (float each : vector) {
+            norm += each * each;
+        }
+        if (0D == norm) {
+            return vector;
+        }
+        float scale = (float) (1D / Math.sqrt(norm));
+        float[] result = new float[vector.length];
+        for (int i = 0; i < vector.length; i++) {
+            result[i] = vector[i] * scale;
+        }
+        return result;
+    }
+}
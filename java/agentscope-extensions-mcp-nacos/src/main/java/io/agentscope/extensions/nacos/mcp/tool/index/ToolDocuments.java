@@ -0,0 +1,132 @@
+/*
+ * Copyright 1999-2025 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.agentscope.extensions.nacos.mcp.tool.index;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Utils to build searchable documents from tools.
+ *
+ * @author xiweng.yy
+ */
+final class ToolDocuments {
+    
+    private ToolDocuments() {
+    }
+    
+    /**
+     * Build the text of tool to index, including name, description and parameter names.
+     *
+     * @param toolName    the name of tool
+     * @param description the description of tool
+     * @param parameters  the JSON schema of tool parameters
+     * @return the text of tool
+     */
+    static String text(String toolName, String description, Map<String, Object> parameters) {
+        StringBuilder result = new StringBuilder(toolName);
+        if (null != description) {
+            result.append(' ').append(description);
+        }
+        if (null != parameters && parameters.get("properties") instanceof Map<?, ?> properties) {
+            properties.keySet().forEach(each -> result.append(' ').append(each));
+        }
+        return result.toString();
+    }
+    
+    /**
+     * Split text into lower case terms. Words in camel case, snake case and kebab case are split, and each CJK
+     * character is a term since there is no space between CJK words.
+     *
+     * @param text the text
+     * @return terms of text
+     */
+    static List<String> tokenize(String text) {
+        List<String> result = new ArrayList<>();
+        if (null == text) {
+            return result;
+        }
+        StringBuilder word = new StringBuilder();
+        char previous = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char each = text.charAt(i);
+            if (isCjk(each)) {
+                flush(word, result);
+                result.add(String.valueOf(each));
+            } else if (Character.isLetterOrDigit(each)) {
+                if (Character.isUpperCase(each) && Character.isLowerCase(previous)) {
+                    flush(word, result);
+                }
+                word.append(each);
+            } else {
+                flush(word, result);
+            }
+            previous = each;
+        }
+        flush(word, result);
+        return result;
+    }
+    
+    /**
+     * Select names of the top k scored items, ties are broken by name for stable results.
+     *
+     * @param names  names of items
+     * @param scorer the score of item, items scored not positive are skipped
+     * @param topK   max number of names
+     * @return names ordered by score, the highest first
+     */
+    static List<String> topK(Iterable<String> names, ToDoubleFunction<String> scorer, int topK) {
+        Comparator<Map.Entry<String, Double>> order = Map.Entry.<String, Double>comparingByValue()
+                .thenComparing(Map.Entry.comparingByKey(Comparator.reverseOrder()));
+        PriorityQueue<Map.Entry<String, Double>> heap = new PriorityQueue<>(topK + 1, order);
+        for (String each : names) {
+            double score = scorer.applyAsDouble(each);
+            if (score <= 0) {
+                continue;
+            }
+            heap.offer(Map.entry(each, score));
+            if (heap.size() > topK) {
+                heap.poll();
+            }
+        }
+        List<String> result = new ArrayList<>(heap.size());
+        while (!heap.isEmpty()) {
+            result.add(heap.poll().getKey());
+        }
+        Collections.reverse(result);
+        return result;
+    }
+    
+    private static void flush(StringBuilder word, List<String> terms) {
+        if (word.length() > 0) {
+            terms.add(word.toString().toLowerCase(Locale.ROOT));
+            word.setLength(0);
+        }
+    }
+    
+    private static boolean isCjk(char character) {
+        Character.UnicodeScript script = Character.UnicodeScript.of(character);
+        return Character.UnicodeScript.HAN == script || Character.UnicodeScript.HIRAGANA == script
+                || Character.UnicodeScript.KATAKANA == script || Character.UnicodeScript.HANGUL == script;
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright 1999-2025 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.agentscope.extensions.nacos.mcp.tool.index;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * In-memory index of tools to find the tools relevant to a query, so that only relevant tool schemas are sent to
+ * LLM when there are lots of tools.
+ *
+ * <p>Tools are indexed by name, description and parameter names. Implementations should be thread-safe, tools are
+ * updated by refreshes of MCP clients while agents searching.
+ *
+ * @author xiweng.yy
+ * @see Bm25ToolIndex
+ * @see EmbeddingToolIndex
+ */
+public interface ToolIndex {
+    
+    /**
+     * Add or replace a tool in index.
+     *
+     * @param toolName    the name of tool
+     * @param description the description of tool
+     * @param parameters  the JSON schema of tool parameters
+     */
+    void upsert(String toolName, String description, Map<String, Object> parameters);
+    
+    /**
+     * Remove a tool from index.
+     *
+     * @param toolName the name of tool
+     */
+    void remove(String toolName);
+    
+    /**
+     * Get names of all indexed tools.
+     *
+     * @return names of indexed tools
+     */
+    Set<String> getToolNames();
+    
+    /**
+     * Search the most relevant tools to the query.
+     *
+     * @param query the query, such as the latest user message
+     * @param topK  max number of tools returned
+     * @return names of tools ordered by relevance, the most relevant first
+     */
+    List<String> search(String query, int topK);
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright 1999-2025 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.agentscope.extensions.nacos.mcp.tool.index;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * Config of selecting relevant tools by {@link ToolIndex} in
+ * {@link io.agentscope.extensions.nacos.mcp.tool.NacosToolkit}.
+ *
+ * <p>Example usage:
+ * <pre>{@code
+ *  // Send 20 most relevant tools ranked by BM25 to LLM, and tool `get_time` always.
+ *  ToolIndexConfig config = ToolIndexConfig.create()
+ *      .topK(20)
+ *      .alwaysIncludeTools(List.of("get_time"));
+ *
+ *  // Rank tools by local embedding model.
+ *  ToolIndexConfig config = ToolIndexConfig.create()
+ *      .toolIndex(() -> new EmbeddingToolIndex(embeddingModel::embed));
+ * }</pre>
+ *
+ * @author xiweng.yy
+ */
+public class ToolIndexConfig {
+    
+    private int topK;
+    
+    private Supplier<ToolIndex> toolIndex;
+    
+    private Set<String> alwaysIncludeTools;
+    
+    private ToolIndexConfig() {
+        this.topK = 20;
+        this.toolIndex = Bm25ToolIndex::new;
+        this.alwaysIncludeTools = new HashSet<>();
+    }
+    
+    public static ToolIndexConfig create() {
+        return new ToolIndexConfig();
+    }
+    
+    /**
+     * Set the max number of relevant tools sent to LLM, tools in {@link #alwaysIncludeTools(Collection)} are not
+     * counted. Default is 20.
+     *
+     * @param topK max number of relevant tools
+     * @return this config
+     */
+    public ToolIndexConfig topK(int topK) {
+        if (topK <= 0) {
+            throw new IllegalArgumentException("Top k of tool index must be positive.");
+        }
+        this.topK = topK;
+        return this;
+    }
+    
+    /**
+     * Set the factory of tool index. Default is {@link Bm25ToolIndex}.
+     *
+     * @param toolIndex the factory of tool index
+     * @return this config
+     */
+    public ToolIndexConfig toolIndex(Supplier<ToolIndex> toolIndex) {
+        if (null == toolIndex) {
+            throw new IllegalArgumentException("Tool index can not be null.");
+        }
+        this.toolIndex = toolIndex;
+        return this;
+    }
+    
+    /**
+     * Set the tools always sent to LLM whatever the query is.
+     *
+     * @param alwaysIncludeTools names of tools always sent
+     * @return this config
+     */
+    public ToolIndexConfig alwaysIncludeTools(Collection<String> alwaysIncludeTools) {
+        this.alwaysIncludeTools = new HashSet<>(alwaysIncludeTools);
+        return this;
+    }
+    
+    public int getTopK() {
+        return topK;
+    }
+    
+    public Supplier<ToolIndex> getToolIndex() {
+        return toolIndex;
+    }
+    
+    public Set<String> getAlwaysIncludeTools() {
+        return alwaysIncludeTools;
+    }
+}
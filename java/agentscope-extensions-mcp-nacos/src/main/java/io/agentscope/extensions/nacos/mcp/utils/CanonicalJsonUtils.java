@@ -0,0 +1,60 @@
+/*
+ * Copyright 1999-2025 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.agentscope.extensions.nacos.mcp.utils;
+
+import com.alibaba.nacos.common.utils.JacksonUtils;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Utils to serialize objects to canonical JSON, equal objects always get the same JSON whatever the order of keys.
+ *
+ * @author xiweng.yy
+ */
+public final class CanonicalJsonUtils {
+    
+    private CanonicalJsonUtils() {
+    }
+    
+    /**
+     * Serialize object to JSON with keys of all nested maps sorted.
+     *
+     * @param object the object to serialize
+     * @return canonical JSON, empty string if object is {@code null}
+     */
+    public static String toJson(Object object) {
+        if (null == object) {
+            return "";
+        }
+        return JacksonUtils.toJson(sortKeys(JacksonUtils.toObj(JacksonUtils.toJson(object), Object.class)));
+    }
+    
+    @SuppressWarnings("unchecked")
+    private static Object sortKeys(Object object) {
+        if (object instanceof Map<?, ?> map) {
+            Map<String, Object> result = new TreeMap<>();
+            ((Map<String, Object>) map).forEach((key, value) -> result.put(key, sortKeys(value)));
+            return result;
+        }
+        if (object instanceof List<?> list) {
+            return list.stream().map(CanonicalJsonUtils::sortKeys).toList();
+        }
+        return object;
+    }
+}
@@ -0,0 +1,52 @@
+/*
+ * Copyright 1999-2025 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.agentscope.extensions.nacos.mcp;
+
+import com.alibaba.nacos.api.ai.AiService;
+import com.alibaba.nacos.api.ai.model.mcp.McpServerDetailInfo;
+
+import java.lang.reflect.Proxy;
+import java.util.function.Function;
+
+/**
+ * Fake Nacos AI service for tests, which returns MCP servers from function without remote requests.
+ *
+ * @author xiweng.yy
+ */
+public final class FakeAiService {
+    
+    private FakeAiService() {
+    }
+    
+    /**
+     * Create fake Nacos AI service, subscribing MCP servers always succeeds and notifies nothing.
+     *
+     * @param mcpServers function to get MCP server by name
+     * @return the fake Nacos AI service
+     */
+    public static AiService create(Function<String, McpServerDetailInfo> mcpServers) {
+        return (AiService) Proxy.newProxyInstance(AiService.class.getClassLoader(), new Class[] {AiService.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "getMcpServer", "subscribeMcpServer" -> mcpServers.apply((String) args[0]);
+                    case "toString" -> "FakeAiService";
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    default -> null;
+                });
+    }
+}
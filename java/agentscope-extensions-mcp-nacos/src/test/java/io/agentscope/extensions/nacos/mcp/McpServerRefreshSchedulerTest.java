@@ -0,0 +1,142 @@
+/*
+ * Copyright 1999-2025 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.agentscope.extensions.nacos.mcp;
+
+import com.alibaba.nacos.api.ai.model.mcp.McpServerDetailInfo;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class McpServerRefreshSchedulerTest {
+    
+    private final McpServerRefreshScheduler scheduler = new McpServerRefreshScheduler(2, Duration.ofMillis(50));
+    
+    private final List<String> refreshed = new CopyOnWriteArrayList<>();
+    
+    private final AtomicInteger running = new AtomicInteger();
+    
+    private final AtomicInteger maxRunning = new AtomicInteger();
+    
+    @AfterEach
+    void tearDown() {
+        scheduler.shutdown();
+    }
+    
+    @Test
+    void collapseChangesWithinCoalesceDelay() throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(1);
+        for (int i = 1; i <= 3; i++) {
+            scheduler.scheduleAsync("mcp", mcpServer("v" + i), latest -> refresh(latest, Mono.empty(), done));
+        }
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        Thread.sleep(200L);
+        assertEquals(List.of("v3"), refreshed);
+    }
+    
+    @Test
+    void collapseChangesDuringRunningRefresh() throws InterruptedException {
+        Sinks.Empty<Void> blocking = Sinks.empty();
+        CountDownLatch first = new CountDownLatch(1);
+        CountDownLatch second = new CountDownLatch(1);
+        scheduler.scheduleAsync("mcp", mcpServer("v1"), latest -> refresh(latest, blocking.asMono(), first));
+        awaitRunning(1);
+        scheduler.scheduleAsync("mcp", mcpServer("v2"), latest -> refresh(latest, Mono.empty(), second));
+        scheduler.scheduleAsync("mcp", mcpServer("v3"), latest -> refresh(latest, Mono.empty(), second));
+        Thread.sleep(200L);
+        assertEquals(List.of("v1"), refreshed);
+        
+        blocking.tryEmitEmpty();
+        assertTrue(second.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of("v1", "v3"), refreshed);
+        assertEquals(1, maxRunning.get());
+    }
+    
+    @Test
+    void cancelDropsPendingRefresh() throws InterruptedException {
+        scheduler.scheduleAsync("mcp", mcpServer("v1"), latest -> refresh(latest, Mono.empty(), null));
+        scheduler.cancel("mcp");
+        Thread.sleep(200L);
+        assertTrue(refreshed.isEmpty());
+    }
+    
+    @Test
+    void subscribeAgainAfterCancelWaitsForRunningRefresh() throws InterruptedException {
+        Sinks.Empty<Void> blocking = Sinks.empty();
+        CountDownLatch resubscribed = new CountDownLatch(1);
+        scheduler.scheduleAsync("mcp", mcpServer("v1"), latest -> refresh(latest, blocking.asMono(), null));
+        awaitRunning(1);
+        scheduler.cancel("mcp");
+        scheduler.scheduleAsync("mcp", mcpServer("v2"), latest -> refresh(latest, Mono.empty(), resubscribed));
+        Thread.sleep(200L);
+        assertEquals(List.of("v1"), refreshed);
+        
+        blocking.tryEmitEmpty();
+        assertTrue(resubscribed.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of("v1", "v2"), refreshed);
+        assertEquals(1, maxRunning.get());
+    }
+    
+    @Test
+    void failedRefreshNotBlockNextRefresh() throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(1);
+        scheduler.scheduleAsync("mcp", mcpServer("v1"), latest -> {
+            throw new IllegalStateException("failed");
+        });
+        Thread.sleep(200L);
+        scheduler.scheduleAsync("mcp", mcpServer("v2"), latest -> refresh(latest, Mono.empty(), done));
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of("v2"), refreshed);
+    }
+    
+    private Mono<Void> refresh(McpServerDetailInfo mcpServer, Mono<Void> action, CountDownLatch done) {
+        refreshed.add(mcpServer.getDescription());
+        maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+        return action.doFinally(signal -> {
+            running.decrementAndGet();
+            if (null != done) {
+                done.countDown();
+            }
+        });
+    }
+    
+    private void awaitRunning(int expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000L;
+        while (running.get() < expected && System.currentTimeMillis() < deadline) {
+            Thread.sleep(1L);
+        }
+        assertEquals(expected, running.get());
+    }
+    
+    private static McpServerDetailInfo mcpServer(String version) {
+        McpServerDetailInfo result = new McpServerDetailInfo();
+        result.setName("mcp");
+        result.setDescription(version);
+        return result;
+    }
+}
@@ -0,0 +1,148 @@
+/*
+ * Copyright 1999-2025 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.agentscope.extensions.nacos.mcp;
+
+import com.alibaba.nacos.api.ai.model.mcp.McpServerDetailInfo;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class McpServerSnapshotStoreTest {
+    
+    private Path directory;
+    
+    private Path file;
+    
+    @BeforeEach
+    void setUp() throws IOException {
+        directory = Files.createTempDirectory("mcp-snapshot");
+        file = directory.resolve("snapshot").resolve("mcp-servers.json");
+    }
+    
+    @AfterEach
+    void tearDown() throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path each : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(each);
+            }
+        }
+    }
+    
+    @Test
+    void loadNothingWithoutSnapshot() {
+        assertTrue(loadSnapshot().isEmpty());
+        assertFalse(Files.exists(file));
+    }
+    
+    @Test
+    void loadSavedMcpServers() {
+        McpServerSnapshotStore store = new McpServerSnapshotStore(file, Duration.ofMinutes(1));
+        store.save(mcpServer("mcp-a", "first"));
+        store.save(mcpServer("mcp-b", "second"));
+        store.save(mcpServer("mcp-a", "third"));
+        // Pending changes are written when shutdown.
+        store.shutdown();
+        
+        Map<String, McpServerDetailInfo> loaded = loadSnapshot();
+        assertEquals(Set.of("mcp-a", "mcp-b"), loaded.keySet());
+        assertEquals("third", loaded.get("mcp-a").getDescription());
+        assertEquals("second", loaded.get("mcp-b").getDescription());
+    }
+    
+    @Test
+    void removedMcpServerIsNotLoaded() {
+        McpServerSnapshotStore store = new McpServerSnapshotStore(file, Duration.ofMinutes(1));
+        store.save(mcpServer("mcp-a", "first"));
+        store.save(mcpServer("mcp-b", "second"));
+        store.flush();
+        store.remove("mcp-a");
+        store.shutdown();
+        
+        assertEquals(Set.of("mcp-b"), loadSnapshot().keySet());
+    }
+    
+    @Test
+    void keepLoadedMcpServersNotSubscribedYet() {
+        McpServerSnapshotStore store = new McpServerSnapshotStore(file);
+        store.save(mcpServer("mcp-a", "first"));
+        store.flush();
+        store.shutdown();
+        
+        McpServerSnapshotStore reloaded = new McpServerSnapshotStore(file, Duration.ZERO);
+        reloaded.load();
+        reloaded.save(mcpServer("mcp-b", "second"));
+        reloaded.flush();
+        reloaded.shutdown();
+        
+        assertEquals(Set.of("mcp-a", "mcp-b"), loadSnapshot().keySet());
+    }
+    
+    @Test
+    void ignoreBrokenSnapshot() throws IOException {
+        Files.createDirectories(file.getParent());
+        Files.write(file, "{broken".getBytes(StandardCharsets.UTF_8));
+        assertTrue(loadSnapshot().isEmpty());
+        Files.write(file, "{\"version\":99,\"mcpServers\":{}}".getBytes(StandardCharsets.UTF_8));
+        assertTrue(loadSnapshot().isEmpty());
+    }
+    
+    @Test
+    void snapshotOnlyReadableByOwner() throws IOException {
+        if (!FileSystems.getDefault().supportedFileAttributeViews().contains("posix")) {
+            return;
+        }
+        McpServerSnapshotStore store = new McpServerSnapshotStore(file);
+        store.save(mcpServer("mcp-a", "first"));
+        store.flush();
+        store.shutdown();
+        assertEquals(PosixFilePermissions.fromString("rw-------"), Files.getPosixFilePermissions(file));
+        assertFalse(Files.exists(file.resolveSibling(file.getFileName() + ".tmp")));
+    }
+    
+    private Map<String, McpServerDetailInfo> loadSnapshot() {
+        McpServerSnapshotStore store = new McpServerSnapshotStore(file);
+        try {
+            return store.load();
+        } finally {
+            store.shutdown();
+        }
+    }
+    
+    private static McpServerDetailInfo mcpServer(String name, String description) {
+        McpServerDetailInfo result = new McpServerDetailInfo();
+        result.setName(name);
+        result.setDescription(description);
+        return result;
+    }
+}
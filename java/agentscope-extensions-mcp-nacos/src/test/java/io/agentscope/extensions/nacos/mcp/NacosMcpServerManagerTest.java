@@ -0,0 +1,197 @@
+/*
+ * Copyright 1999-2025 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.agentscope.extensions.nacos.mcp;
+
+import com.alibaba.nacos.api.ai.AiService;
+import com.alibaba.nacos.api.ai.listener.AbstractNacosMcpServerListener;
+import com.alibaba.nacos.api.ai.model.mcp.McpServerDetailInfo;
+import com.alibaba.nacos.api.exception.NacosException;
+import io.agentscope.extensions.nacos.mcp.client.NacosMcpClientWrapper;
+import io.agentscope.extensions.nacos.mcp.metrics.McpMetrics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class NacosMcpServerManagerTest {
+    
+    private final Map<String, Set<AbstractNacosMcpServerListener>> subscribed = new ConcurrentHashMap<>();
+    
+    private final Map<String, AtomicInteger> subscribeTimes = new ConcurrentHashMap<>();
+    
+    private ManualEvictionScheduler refreshScheduler;
+    
+    private NacosMcpServerManager manager;
+    
+    @BeforeEach
+    void setUp() throws NacosException {
+        AiService aiService = mock(AiService.class);
+        when(aiService.subscribeMcpServer(anyString(), any(AbstractNacosMcpServerListener.class))).thenAnswer(
+                invocation -> {
+                    String mcpName = invocation.getArgument(0);
+                    subscribeTimes.computeIfAbsent(mcpName, name -> new AtomicInteger()).incrementAndGet();
+                    subscribed.computeIfAbsent(mcpName, name -> ConcurrentHashMap.newKeySet())
+                            .add(invocation.getArgument(1));
+                    McpServerDetailInfo mcpServer = new McpServerDetailInfo();
+                    mcpServer.setName(mcpName);
+                    return mcpServer;
+                });
+        doAnswer(invocation -> {
+            Set<AbstractNacosMcpServerListener> listeners = subscribed.get(invocation.<String>getArgument(0));
+            if (null != listeners) {
+                listeners.remove(invocation.<AbstractNacosMcpServerListener>getArgument(1));
+            }
+            return null;
+        }).when(aiService).unsubscribeMcpServer(anyString(), any(AbstractNacosMcpServerListener.class));
+        refreshScheduler = new ManualEvictionScheduler();
+        manager = new NacosMcpServerManager(aiService, refreshScheduler, McpMetrics.noop());
+        manager.setIdleTimeout(Duration.ofMinutes(1));
+    }
+    
+    @AfterEach
+    void tearDown() {
+        manager.close();
+        refreshScheduler.shutdown();
+    }
+    
+    @Test
+    void evictIdleMcpServer() {
+        manager.getMcpServer("idle-mcp");
+        assertEquals(1, subscribed.get("idle-mcp").size());
+        
+        refreshScheduler.evictions.remove().run();
+        
+        assertTrue(subscribed.get("idle-mcp").isEmpty());
+    }
+    
+    @Test
+    void registerClientAfterEvictionSubscribesAgainAndRefreshesClient() throws Exception {
+        manager.getMcpServer("evicted-mcp");
+        refreshScheduler.evictions.remove().run();
+        assertTrue(subscribed.get("evicted-mcp").isEmpty());
+        
+        AtomicInteger refreshes = new AtomicInteger();
+        manager.registerSubscribeMcpClient("evicted-mcp", refreshCountingClient(refreshes));
+        
+        assertTrue(awaitSubscribed("evicted-mcp"));
+        assertTrue(awaitRefreshes(refreshes, 1), "Client is not refreshed by the MCP server subscribed again");
+    }
+    
+    @Test
+    void registerClientConcurrentlyWithEvictionKeepsSubscription() throws Exception {
+        for (int i = 0; i < 1000; i++) {
+            String mcpName = "racing-mcp-" + i;
+            refreshScheduler.evictions.clear();
+            manager.getMcpServer(mcpName);
+            Runnable eviction = refreshScheduler.evictions.poll();
+            assertNotNull(eviction);
+            
+            CyclicBarrier barrier = new CyclicBarrier(2);
+            CompletableFuture<Void> evicting = CompletableFuture.runAsync(() -> {
+                await(barrier);
+                eviction.run();
+            });
+            AtomicInteger refreshes = new AtomicInteger();
+            NacosMcpClientWrapper mcpClient = refreshCountingClient(refreshes);
+            await(barrier);
+            manager.registerSubscribeMcpClient(mcpName, mcpClient);
+            evicting.join();
+            
+            assertTrue(awaitSubscribed(mcpName), "MCP server " + mcpName + " is not subscribed by registered client");
+            // Client is refreshed only when it subscribes the MCP server again after eviction.
+            int expectedRefreshes = subscribeTimes.get(mcpName).get() - 1;
+            assertTrue(awaitRefreshes(refreshes, expectedRefreshes),
+                    "Client of " + mcpName + " is refreshed " + refreshes.get() + " times");
+        }
+    }
+    
+    private static NacosMcpClientWrapper refreshCountingClient(AtomicInteger refreshes) {
+        NacosMcpClientWrapper result = mock(NacosMcpClientWrapper.class);
+        when(result.refreshAsync(any(McpServerDetailInfo.class))).thenAnswer(invocation -> {
+            refreshes.incrementAndGet();
+            return Mono.empty();
+        });
+        return result;
+    }
+    
+    private static boolean awaitRefreshes(AtomicInteger refreshes, int expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000L;
+        while (refreshes.get() < expected && System.currentTimeMillis() < deadline) {
+            Thread.sleep(1L);
+        }
+        return refreshes.get() == expected;
+    }
+    
+    private boolean awaitSubscribed(String mcpName) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000L;
+        while (System.currentTimeMillis() < deadline) {
+            Set<AbstractNacosMcpServerListener> listeners = subscribed.get(mcpName);
+            if (null != listeners && !listeners.isEmpty()) {
+                return true;
+            }
+            Thread.sleep(1L);
+        }
+        return false;
+    }
+    
+    private static void await(CyclicBarrier barrier) {
+        try {
+            barrier.await();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+    
+    /**
+     * Keep delayed evictions instead of running them, so that tests decide when they run.
+     */
+    private static class ManualEvictionScheduler extends McpServerRefreshScheduler {
+        
+        private final BlockingQueue<Runnable> evictions = new LinkedBlockingQueue<>();
+        
+        ManualEvictionScheduler() {
+            super(Executors.newSingleThreadScheduledExecutor(), Duration.ZERO);
+        }
+        
+        @Override
+        ScheduledFuture<?> scheduleDelayed(Runnable task, Duration delay) {
+            evictions.add(task);
+            return null;
+        }
+    }
+}
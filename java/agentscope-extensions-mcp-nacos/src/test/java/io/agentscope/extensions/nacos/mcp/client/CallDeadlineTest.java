@@ -0,0 +1,63 @@
+/*
+ * Copyright 1999-2025 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.agentscope.extensions.nacos.mcp.client;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CallDeadlineTest {
+    
+    @Test
+    void keepEarlierDeadlineInContext() {
+        CallDeadline earlier = CallDeadline.after(Duration.ofSeconds(1));
+        CallDeadline later = CallDeadline.after(Duration.ofMinutes(1));
+        
+        assertSame(earlier, CallDeadline.from(later.writeTo(earlier.writeTo(Context.empty()))).orElseThrow());
+        assertSame(earlier, CallDeadline.from(earlier.writeTo(later.writeTo(Context.empty()))).orElseThrow());
+    }
+    
+    @Test
+    void readDeadlineFromSubscriberContext() {
+        CallDeadline deadline = CallDeadline.after(Duration.ofMinutes(1));
+        CallDeadline read = Mono.deferContextual(context -> Mono.justOrEmpty(CallDeadline.from(context)))
+                .contextWrite(deadline::writeTo).block();
+        assertSame(deadline, read);
+    }
+    
+    @Test
+    void expiredDeadlineHasNoRemainingTime() {
+        CallDeadline deadline = CallDeadline.after(Duration.ZERO);
+        assertTrue(deadline.isExpired());
+        assertTrue(deadline.remaining().isZero());
+        assertFalse(CallDeadline.after(Duration.ofMinutes(1)).isExpired());
+    }
+    
+    @Test
+    void rejectNegativeTimeout() {
+        assertThrows(IllegalArgumentException.class, () -> CallDeadline.after(Duration.ofMillis(-1)));
+        assertThrows(IllegalArgumentException.class, () -> CallDeadline.after(null));
+    }
+}
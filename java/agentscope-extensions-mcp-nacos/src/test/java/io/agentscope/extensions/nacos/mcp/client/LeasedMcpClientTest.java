@@ -0,0 +1,92 @@
+/*
+ * Copyright 1999-2025 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.agentscope.extensions.nacos.mcp.client;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LeasedMcpClientTest {
+    
+    private static final Duration DRAIN_TIMEOUT = Duration.ofMillis(100);
+    
+    private final StubMcpClientWrapper stub = new StubMcpClientWrapper("leased-mcp", List.of());
+    
+    private final LeasedMcpClient client = new LeasedMcpClient(stub);
+    
+    @Test
+    void retireIdleClientClosesImmediately() throws InterruptedException {
+        client.retire(DRAIN_TIMEOUT);
+        assertFalse(client.tryAcquire());
+        awaitClosed();
+    }
+    
+    @Test
+    void retiredClientClosedAfterLastLeaseReleased() throws InterruptedException {
+        assertTrue(client.tryAcquire());
+        assertTrue(client.tryAcquire());
+        client.retire(Duration.ofMinutes(1));
+        client.release();
+        Thread.sleep(50L);
+        assertFalse(stub.isClosed());
+        
+        client.release();
+        
+        awaitClosed();
+        assertFalse(client.tryAcquire());
+    }
+    
+    @Test
+    void retiredClientForceClosedAfterDrainTimeout() throws InterruptedException {
+        assertTrue(client.tryAcquire());
+        client.retire(DRAIN_TIMEOUT);
+        awaitClosed();
+        // Late release of the in-flight call never reopens the client.
+        client.release();
+        assertFalse(client.tryAcquire());
+    }
+    
+    @Test
+    void releaseWithoutRetireKeepsClientOpen() throws InterruptedException {
+        assertTrue(client.tryAcquire());
+        client.release();
+        Thread.sleep(50L);
+        assertFalse(stub.isClosed());
+        assertTrue(client.tryAcquire());
+    }
+    
+    @Test
+    void forceCloseRejectsNewLeases() throws InterruptedException {
+        assertTrue(client.tryAcquire());
+        client.forceClose();
+        awaitClosed();
+        assertFalse(client.tryAcquire());
+    }
+    
+    private void awaitClosed() throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000L;
+        while (!stub.isClosed() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(1L);
+        }
+        assertTrue(stub.isClosed());
+    }
+}
@@ -0,0 +1,190 @@
+/*
+ * Copyright 1999-2025 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.agentscope.extensions.nacos.mcp.client;
+
+import com.alibaba.nacos.api.ai.constant.AiConstants;
+import com.alibaba.nacos.api.ai.model.mcp.McpEndpointInfo;
+import com.alibaba.nacos.api.ai.model.mcp.McpServerDetailInfo;
+import com.alibaba.nacos.api.exception.runtime.NacosRuntimeException;
+import io.agentscope.extensions.nacos.mcp.FakeAiService;
+import io.agentscope.extensions.nacos.mcp.McpServerRefreshScheduler;
+import io.agentscope.extensions.nacos.mcp.NacosMcpServerManager;
+import io.agentscope.extensions.nacos.mcp.client.balancer.RoundRobinEndpointSelector;
+import io.agentscope.extensions.nacos.mcp.client.cache.ToolResultCacheConfig;
+import io.agentscope.extensions.nacos.mcp.metrics.McpMetrics;
+import io.modelcontextprotocol.spec.McpSchema;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.ToDoubleFunction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class NacosMcpClientWrapperTest {
+    
+    private static final String MCP_NAME = "nacos-mcp";
+    
+    private static final List<McpSchema.Tool> TOOLS = List.of(StubMcpClientWrapper.tool("read", true),
+            StubMcpClientWrapper.tool("write", false));
+    
+    private final McpServerRefreshScheduler refreshScheduler = new McpServerRefreshScheduler(1, Duration.ZERO);
+    
+    private final Map<Integer, StubMcpClientWrapper> clients = new ConcurrentHashMap<>();
+    
+    private final List<String> callEndpoints = new CopyOnWriteArrayList<>();
+    
+    private NacosMcpServerManager manager;
+    
+    @AfterEach
+    void tearDown() {
+        if (null != manager) {
+            manager.close();
+        }
+        refreshScheduler.shutdown();
+    }
+    
+    @Test
+    void skipEndpointsFailedToBuild() {
+        NacosMcpClientWrapper client = builder(mcpServer(8001, 8002, 8003), Set.of(8001, 8003))
+                .endpointSelector(new RoundRobinEndpointSelector()).build();
+        
+        assertTrue(client.isInitialized());
+        for (int i = 0; i < 4; i++) {
+            client.callTool("write", Map.of()).block();
+        }
+        assertEquals(Set.of(8002), clients.keySet());
+        assertEquals(4, clients.get(8002).getCalls());
+        client.close();
+    }
+    
+    @Test
+    void failWhenAllEndpointsFailedToBuild() {
+        NacosMcpClientWrapper client = builder(mcpServer(8001, 8002), Set.of(8001, 8002))
+                .endpointSelector(new RoundRobinEndpointSelector()).delayInitialize(true).build();
+        
+        assertThrows(NacosRuntimeException.class, () -> client.initialize().block());
+        assertFalse(client.isInitialized());
+    }
+    
+    @Test
+    void recordToolCallsByEndpointOfLatestMcpServer() {
+        NacosMcpClientWrapper client = builder(mcpServer(8001), Set.of()).build();
+        client.callTool("read", Map.of()).block();
+        client.refreshAsync(mcpServer(8002)).block();
+        client.callTool("read", Map.of()).block();
+        
+        assertEquals(List.of("http://127.0.0.1:8001/mcp", "http://127.0.0.1:8002/mcp"), callEndpoints);
+        client.close();
+    }
+    
+    @Test
+    void keepCachedResultsUntilVersionChanged() {
+        NacosMcpClientWrapper client = builder(mcpServer(8001), Set.of())
+                .toolResultCache(ToolResultCacheConfig.create()).build();
+        client.callTool("read", Map.of()).block();
+        client.refreshAsync(mcpServer("1.0.0", 8001)).block();
+        client.callTool("read", Map.of()).block();
+        assertEquals(1, clients.get(8001).getCalls());
+        
+        client.refreshAsync(mcpServer("1.0.1", 8001)).block();
+        client.callTool("read", Map.of()).block();
+        assertEquals(2, clients.get(8001).getCalls());
+        client.close();
+    }
+    
+    /**
+     * Build client whose MCP clients are stubs, keyed by the port of endpoint.
+     *
+     * @param mcpServer   the MCP server in Nacos
+     * @param brokenPorts the ports of endpoints failed to build MCP client
+     * @return the builder
+     */
+    NacosMcpClientBuilder builder(McpServerDetailInfo mcpServer, Set<Integer> brokenPorts) {
+        manager = new NacosMcpServerManager(FakeAiService.create(name -> mcpServer), refreshScheduler,
+                new RecordingMetrics());
+        return NacosMcpClientBuilder.create(MCP_NAME, manager).refreshHookExecutor(Runnable::run)
+                .clientProvider((protocol, baseUrl, endpoint, toolsChangedListener) -> {
+                    int port = Integer.parseInt(baseUrl.substring(baseUrl.lastIndexOf(':') + 1));
+                    if (brokenPorts.contains(port)) {
+                        return Mono.error(new IllegalStateException("Unknown transport of " + baseUrl));
+                    }
+                    return Mono.just(clients.computeIfAbsent(port, key -> new StubMcpClientWrapper(MCP_NAME, TOOLS)));
+                });
+    }
+    
+    static McpServerDetailInfo mcpServer(int... ports) {
+        return mcpServer("1.0.0", ports);
+    }
+    
+    static McpServerDetailInfo mcpServer(String version, int... ports) {
+        McpServerDetailInfo result = new McpServerDetailInfo();
+        result.setId(MCP_NAME);
+        result.setName(MCP_NAME);
+        result.setProtocol(AiConstants.Mcp.MCP_PROTOCOL_STREAMABLE);
+        result.setVersion(version);
+        result.setBackendEndpoints(Arrays.stream(ports).mapToObj(port -> {
+            McpEndpointInfo endpoint = new McpEndpointInfo();
+            endpoint.setAddress("127.0.0.1");
+            endpoint.setPort(port);
+            endpoint.setPath("/mcp");
+            return endpoint;
+        }).toList());
+        return result;
+    }
+    
+    private class RecordingMetrics implements McpMetrics {
+        
+        @Override
+        public void recordToolCall(String mcpServer, String toolName, String endpoint, Outcome outcome,
+                long latencyNanos) {
+            callEndpoints.add(endpoint);
+        }
+        
+        @Override
+        public void recordToolError(String mcpServer, String toolName, String endpoint, Throwable error) {
+        }
+        
+        @Override
+        public void recordRefresh(String mcpServer, boolean rebuild, long latencyNanos, Throwable error) {
+        }
+        
+        @Override
+        public void recordRefreshHook(String mcpServer, String hook, long latencyNanos, Throwable error) {
+        }
+        
+        @Override
+        public <T> void gauge(String name, String description, String instance, T state,
+                ToDoubleFunction<T> valueGetter) {
+        }
+        
+        @Override
+        public void removeGauges(String instance) {
+        }
+    }
+}
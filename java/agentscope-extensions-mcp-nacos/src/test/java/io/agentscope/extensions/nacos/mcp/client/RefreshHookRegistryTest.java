@@ -0,0 +1,154 @@
+/*
+ * Copyright 1999-2025 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.agentscope.extensions.nacos.mcp.client;
+
+import com.alibaba.nacos.api.ai.model.mcp.McpServerDetailInfo;
+import io.agentscope.extensions.nacos.mcp.metrics.McpMetrics;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.ToDoubleFunction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RefreshHookRegistryTest {
+    
+    private static final String MCP_NAME = "hook-mcp";
+    
+    private final List<String> notified = new ArrayList<>();
+    
+    private final List<Throwable> hookErrors = new ArrayList<>();
+    
+    @Test
+    void registerSameHookOnce() {
+        RefreshHookRegistry registry = new RefreshHookRegistry(MCP_NAME, Runnable::run, new RecordingMetrics());
+        NacosMcpClientWrapper.RefreshHook hook = (mcpServer, mcpClient) -> notified.add("hook");
+        registry.register(hook);
+        registry.register(hook);
+        assertEquals(1, registry.size());
+        
+        assertTrue(registry.unregister(hook));
+        assertFalse(registry.unregister(hook));
+        assertEquals(0, registry.size());
+    }
+    
+    @Test
+    void failedHookNotStopOtherHooks() {
+        RefreshHookRegistry registry = new RefreshHookRegistry(MCP_NAME, Runnable::run, new RecordingMetrics());
+        IllegalStateException error = new IllegalStateException("failed hook");
+        registry.register((mcpServer, mcpClient) -> {
+            throw error;
+        });
+        registry.register((mcpServer, mcpClient) -> notified.add(mcpServer.getDescription()));
+        
+        registry.notifyHooks(mcpServer("v1"), null);
+        
+        assertEquals(List.of("v1"), notified);
+        assertEquals(2, hookErrors.size());
+        assertSame(error, hookErrors.get(0));
+        assertNull(hookErrors.get(1));
+    }
+    
+    @Test
+    void notifyHooksOnExecutorInOrder() {
+        Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+        RefreshHookRegistry registry = new RefreshHookRegistry(MCP_NAME, tasks::offer, new RecordingMetrics());
+        registry.register((mcpServer, mcpClient) -> notified.add(mcpServer.getDescription()));
+        
+        registry.notifyHooks(mcpServer("v1"), null);
+        registry.notifyHooks(mcpServer("v2"), null);
+        
+        assertTrue(notified.isEmpty());
+        // Both notifications are drained by one task, never run concurrently.
+        assertEquals(1, tasks.size());
+        tasks.poll().run();
+        assertEquals(List.of("v1", "v2"), notified);
+    }
+    
+    @Test
+    void hookRegisteredAfterNotifyNotNotified() {
+        Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+        RefreshHookRegistry registry = new RefreshHookRegistry(MCP_NAME, tasks::offer, new RecordingMetrics());
+        registry.register((mcpServer, mcpClient) -> notified.add("first"));
+        registry.notifyHooks(mcpServer("v1"), null);
+        registry.register((mcpServer, mcpClient) -> notified.add("second"));
+        
+        tasks.poll().run();
+        
+        assertEquals(List.of("first"), notified);
+    }
+    
+    @Test
+    void runHooksInCurrentThreadWhenExecutorRejected() {
+        Executor rejecting = command -> {
+            throw new RejectedExecutionException("shutdown");
+        };
+        RefreshHookRegistry registry = new RefreshHookRegistry(MCP_NAME, rejecting, new RecordingMetrics());
+        registry.register((mcpServer, mcpClient) -> notified.add(mcpServer.getDescription()));
+        
+        registry.notifyHooks(mcpServer("v1"), null);
+        
+        assertEquals(List.of("v1"), notified);
+    }
+    
+    private static McpServerDetailInfo mcpServer(String version) {
+        McpServerDetailInfo result = new McpServerDetailInfo();
+        result.setName(MCP_NAME);
+        result.setDescription(version);
+        return result;
+    }
+    
+    private class RecordingMetrics implements McpMetrics {
+        
+        @Override
+        public void recordToolCall(String mcpServer, String toolName, String endpoint, Outcome outcome,
+                long latencyNanos) {
+        }
+        
+        @Override
+        public void recordToolError(String mcpServer, String toolName, String endpoint, Throwable error) {
+        }
+        
+        @Override
+        public void recordRefresh(String mcpServer, boolean rebuild, long latencyNanos, Throwable error) {
+        }
+        
+        @Override
+        public void recordRefreshHook(String mcpServer, String hook, long latencyNanos, Throwable error) {
+            hookErrors.add(error);
+        }
+        
+        @Override
+        public <T> void gauge(String name, String description, String instance, T state,
+                ToDoubleFunction<T> valueGetter) {
+        }
+        
+        @Override
+        public void removeGauges(String instance) {
+        }
+    }
+}
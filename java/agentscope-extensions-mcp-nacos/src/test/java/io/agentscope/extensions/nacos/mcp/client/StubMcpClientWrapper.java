@@ -0,0 +1,111 @@
+/*
+ * Copyright 1999-2025 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.agentscope.extensions.nacos.mcp.client;
+
+import io.agentscope.core.tool.mcp.McpClientWrapper;
+import io.modelcontextprotocol.spec.McpSchema;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * In-process {@link McpClientWrapper} for tests, which answers tool calls by the given function.
+ *
+ * @author xiweng.yy
+ */
+public class StubMcpClientWrapper extends McpClientWrapper {
+    
+    public static final McpSchema.CallToolResult OK = McpSchema.CallToolResult.builder().addTextContent("ok")
+            .isError(false).build();
+    
+    private final List<McpSchema.Tool> tools;
+    
+    private final AtomicInteger calls;
+    
+    private volatile Function<String, Mono<McpSchema.CallToolResult>> answer;
+    
+    private volatile boolean closed;
+    
+    public StubMcpClientWrapper(String name, List<McpSchema.Tool> tools) {
+        super(name);
+        this.tools = tools;
+        this.calls = new AtomicInteger();
+        this.answer = toolName -> Mono.just(OK);
+    }
+    
+    /**
+     * Build a tool with annotations.
+     *
+     * @param name     the name of tool
+     * @param readOnly whether the tool is read-only
+     * @return the tool
+     */
+    public static McpSchema.Tool tool(String name, boolean readOnly) {
+        return McpSchema.Tool.builder().name(name).description("Tool " + name)
+                .inputSchema(new McpSchema.JsonSchema("object", Map.of(), List.of(), null, null, null))
+                .annotations(new McpSchema.ToolAnnotations(null, readOnly, !readOnly, readOnly, false, null)).build();
+    }
+    
+    /**
+     * Set how to answer tool calls.
+     *
+     * @param answer the function from tool name to result
+     * @return this client
+     */
+    public StubMcpClientWrapper answer(Function<String, Mono<McpSchema.CallToolResult>> answer) {
+        this.answer = answer;
+        return this;
+    }
+    
+    public int getCalls() {
+        return calls.get();
+    }
+    
+    public boolean isClosed() {
+        return closed;
+    }
+    
+    @Override
+    public Mono<Void> initialize() {
+        return Mono.fromRunnable(() -> {
+            tools.forEach(tool -> cachedTools.put(tool.name(), tool));
+            initialized = true;
+        });
+    }
+    
+    @Override
+    public Mono<List<McpSchema.Tool>> listTools() {
+        return Mono.just(tools);
+    }
+    
+    @Override
+    public Mono<McpSchema.CallToolResult> callTool(String toolName, Map<String, Object> arguments) {
+        return Mono.defer(() -> {
+            calls.incrementAndGet();
+            return answer.apply(toolName);
+        });
+    }
+    
+    @Override
+    public void close() {
+        closed = true;
+        initialized = false;
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright 1999-2025 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.agentscope.extensions.nacos.mcp.client.balancer;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EndpointCircuitBreakerTest {
+    
+    private static final long FAST_NANOS = Duration.ofMillis(1).toNanos();
+    
+    private static final long SLOW_NANOS = Duration.ofSeconds(2).toNanos();
+    
+    private final EndpointCircuitBreaker circuitBreaker = new EndpointCircuitBreaker("http://127.0.0.1:8080/mcp",
+            OutlierDetectionConfig.create().windowSize(4).minimumCalls(4).failureRateThreshold(0.5)
+                    .slowCallThreshold(Duration.ofSeconds(1)).baseEjectionTime(Duration.ofMillis(20)));
+    
+    @Test
+    void ejectWhenFailureRateReached() {
+        circuitBreaker.onCallFinish(false, false, FAST_NANOS);
+        circuitBreaker.onCallFinish(false, true, FAST_NANOS);
+        circuitBreaker.onCallFinish(false, false, FAST_NANOS);
+        assertFalse(circuitBreaker.isEjected());
+        
+        circuitBreaker.onCallFinish(false, true, FAST_NANOS);
+        
+        assertTrue(circuitBreaker.isEjected());
+        assertFalse(circuitBreaker.isAvailable());
+    }
+    
+    @Test
+    void slowCallsAreFailed() {
+        for (int i = 0; i < 4; i++) {
+            circuitBreaker.onCallFinish(false, false, SLOW_NANOS);
+        }
+        assertTrue(circuitBreaker.isEjected());
+    }
+    
+    @Test
+    void callsCancelledByTimeoutAreFailed() {
+        for (int i = 0; i < 4; i++) {
+            circuitBreaker.onCallCancel(false, true, FAST_NANOS);
+        }
+        assertTrue(circuitBreaker.isEjected());
+    }
+    
+    @Test
+    void callsCancelledAfterSlowThresholdAreFailed() {
+        for (int i = 0; i < 4; i++) {
+            circuitBreaker.onCallCancel(false, false, SLOW_NANOS);
+        }
+        assertTrue(circuitBreaker.isEjected());
+    }
+    
+    @Test
+    void callsCancelledByCallerAreNeutral() {
+        for (int i = 0; i < 10; i++) {
+            circuitBreaker.onCallCancel(false, false, FAST_NANOS);
+        }
+        assertFalse(circuitBreaker.isEjected());
+    }
+    
+    @Test
+    void callsLostHedgingAreNeutral() {
+        for (int i = 0; i < 10; i++) {
+            circuitBreaker.onHedgeLost(false);
+        }
+        assertFalse(circuitBreaker.isEjected());
+    }
+    
+    @Test
+    void recoverWhenProbeSucceeded() throws InterruptedException {
+        ejectByTimeout();
+        Thread.sleep(30L);
+        assertTrue(circuitBreaker.isAvailable());
+        
+        boolean probe = circuitBreaker.onCallStart();
+        assertTrue(probe);
+        assertFalse(circuitBreaker.isAvailable(), "Only one probe is allowed at a time");
+        circuitBreaker.onCallFinish(true, false, FAST_NANOS);
+        
+        assertFalse(circuitBreaker.isEjected());
+        assertTrue(circuitBreaker.isAvailable());
+    }
+    
+    @Test
+    void ejectAgainWhenProbeTimeout() throws InterruptedException {
+        ejectByTimeout();
+        Thread.sleep(30L);
+        
+        boolean probe = circuitBreaker.onCallStart();
+        circuitBreaker.onCallCancel(probe, true, FAST_NANOS);
+        
+        assertTrue(circuitBreaker.isEjected());
+        assertFalse(circuitBreaker.isAvailable());
+    }
+    
+    @Test
+    void probeLostHedgingAllowsAnotherProbe() throws InterruptedException {
+        ejectByTimeout();
+        Thread.sleep(30L);
+        
+        boolean probe = circuitBreaker.onCallStart();
+        circuitBreaker.onHedgeLost(probe);
+        
+        assertTrue(circuitBreaker.isEjected());
+        assertTrue(circuitBreaker.isAvailable());
+    }
+    
+    private void ejectByTimeout() {
+        for (int i = 0; i < 4; i++) {
+            circuitBreaker.onCallCancel(false, true, FAST_NANOS);
+        }
+        assertTrue(circuitBreaker.isEjected());
+    }
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright 1999-2025 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.agentscope.extensions.nacos.mcp.client.balancer;
+
+import com.alibaba.nacos.api.ai.model.mcp.McpEndpointInfo;
+import io.agentscope.extensions.nacos.mcp.client.StubMcpClientWrapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class LeastOutstandingEndpointSelectorTest {
+    
+    @Test
+    void selectEndpointWithLeastOutstandingRequests() {
+        List<McpEndpoint> endpoints = List.of(endpoint("a", 3), endpoint("b", 1), endpoint("c", 2));
+        LeastOutstandingEndpointSelector selector = new LeastOutstandingEndpointSelector();
+        for (int i = 0; i < 100; i++) {
+            assertSame(endpoints.get(1), selector.select(endpoints));
+        }
+    }
+    
+    @Test
+    void selectFinishedEndpointAgain() {
+        McpEndpoint busy = endpoint("a", 1);
+        McpEndpoint idle = endpoint("b", 2);
+        LeastOutstandingEndpointSelector selector = new LeastOutstandingEndpointSelector();
+        assertSame(busy, selector.select(List.of(busy, idle)));
+        idle.onRequestFinish(false, false, 0L);
+        idle.onRequestFinish(false, false, 0L);
+        assertSame(idle, selector.select(List.of(busy, idle)));
+    }
+    
+    private static McpEndpoint endpoint(String name, int outstandingRequests) {
+        McpEndpoint result = new McpEndpoint(new McpEndpointInfo(), "http://" + name + ":8080/mcp",
+                new StubMcpClientWrapper("mcp", List.of()));
+        for (int i = 0; i < outstandingRequests; i++) {
+            result.onRequestStart();
+        }
+        return result;
+    }
+}
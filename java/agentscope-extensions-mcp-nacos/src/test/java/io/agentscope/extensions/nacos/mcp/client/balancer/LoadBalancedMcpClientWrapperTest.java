@@ -0,0 +1,162 @@
+/*
+ * Copyright 1999-2025 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.agentscope.extensions.nacos.mcp.client.balancer;
+
+import com.alibaba.nacos.api.ai.model.mcp.McpEndpointInfo;
+import io.agentscope.extensions.nacos.mcp.client.CallTimeout;
+import io.agentscope.extensions.nacos.mcp.client.StubMcpClientWrapper;
+import io.agentscope.extensions.nacos.mcp.metrics.McpMetrics;
+import io.modelcontextprotocol.spec.McpSchema;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LoadBalancedMcpClientWrapperTest {
+    
+    private static final String MCP_NAME = "lb-mcp";
+    
+    private static final List<McpSchema.Tool> TOOLS = List.of(StubMcpClientWrapper.tool("read", true),
+            StubMcpClientWrapper.tool("write", false));
+    
+    private static final OutlierDetectionConfig OUTLIER_DETECTION = OutlierDetectionConfig.create().windowSize(2)
+            .minimumCalls(2).slowCallThreshold(Duration.ofMillis(50)).baseEjectionTime(Duration.ofMinutes(1));
+    
+    private final StubMcpClientWrapper first = new StubMcpClientWrapper(MCP_NAME, TOOLS);
+    
+    private final StubMcpClientWrapper second = new StubMcpClientWrapper(MCP_NAME, TOOLS);
+    
+    private final McpEndpoint firstEndpoint = endpoint("http://127.0.0.1:8001/mcp", first);
+    
+    private final McpEndpoint secondEndpoint = endpoint("http://127.0.0.1:8002/mcp", second);
+    
+    @Test
+    void initializeSkipsFailedEndpoints() {
+        StubMcpClientWrapper broken = new StubMcpClientWrapper(MCP_NAME, TOOLS) {
+            @Override
+            public Mono<Void> initialize() {
+                return Mono.error(new IllegalStateException("connection refused"));
+            }
+        };
+        LoadBalancedMcpClientWrapper client = new LoadBalancedMcpClientWrapper(MCP_NAME,
+                List.of(firstEndpoint, endpoint("http://127.0.0.1:8003/mcp", broken)),
+                new RoundRobinEndpointSelector());
+        
+        client.initialize().block();
+        
+        assertTrue(client.isInitialized());
+        assertEquals(List.of(firstEndpoint), client.getEndpoints());
+        assertTrue(broken.isClosed());
+    }
+    
+    @Test
+    void initializeFailsWhenAllEndpointsFailed() {
+        StubMcpClientWrapper broken = new StubMcpClientWrapper(MCP_NAME, TOOLS) {
+            @Override
+            public Mono<Void> initialize() {
+                return Mono.error(new IllegalStateException("connection refused"));
+            }
+        };
+        LoadBalancedMcpClientWrapper client = new LoadBalancedMcpClientWrapper(MCP_NAME,
+                List.of(endpoint("http://127.0.0.1:8003/mcp", broken)), new RoundRobinEndpointSelector());
+        
+        assertThrows(RuntimeException.class, () -> client.initialize().block());
+        assertFalse(client.isInitialized());
+    }
+    
+    @Test
+    void spreadCallsAcrossEndpoints() {
+        LoadBalancedMcpClientWrapper client = initialize(new RoundRobinEndpointSelector(), null);
+        for (int i = 0; i < 4; i++) {
+            client.callTool("write", Map.of()).block();
+        }
+        assertEquals(2, first.getCalls());
+        assertEquals(2, second.getCalls());
+    }
+    
+    @Test
+    void ejectEndpointWhoseCallsTimeout() {
+        first.answer(toolName -> Mono.never());
+        LoadBalancedMcpClientWrapper client = initialize(endpoints -> endpoints.get(0), null);
+        for (int i = 0; i < 2; i++) {
+            assertNull(CallTimeout.create().apply(client.callTool("write", Map.of()), Duration.ofMillis(20),
+                    Mono.empty()).block());
+        }
+        assertFalse(firstEndpoint.isAvailable());
+        assertEquals(0, firstEndpoint.getOutstandingRequests());
+        
+        assertSame(StubMcpClientWrapper.OK, client.callTool("write", Map.of()).block());
+        assertEquals(1, second.getCalls());
+    }
+    
+    @Test
+    void hedgeSlowReadOnlyCallToAnotherEndpoint() {
+        first.answer(toolName -> Mono.delay(Duration.ofMillis(200)).thenReturn(StubMcpClientWrapper.OK));
+        LoadBalancedMcpClientWrapper client = initialize(endpoints -> endpoints.get(0),
+                HedgingConfig.create().initialDelay(Duration.ofMillis(10)).minDelay(Duration.ofMillis(10)));
+        
+        assertSame(StubMcpClientWrapper.OK, client.callTool("read", Map.of()).block(Duration.ofMillis(150)));
+        
+        assertEquals(1, first.getCalls());
+        assertEquals(1, second.getCalls());
+    }
+    
+    @Test
+    void slowPrimaryLostHedgingIsNotEjected() {
+        first.answer(toolName -> Mono.delay(Duration.ofMillis(100)).thenReturn(StubMcpClientWrapper.OK));
+        LoadBalancedMcpClientWrapper client = initialize(endpoints -> endpoints.get(0),
+                HedgingConfig.create().initialDelay(Duration.ofMillis(60)).minDelay(Duration.ofMillis(60)));
+        for (int i = 0; i < 4; i++) {
+            client.callTool("read", Map.of()).block();
+        }
+        assertTrue(firstEndpoint.isAvailable());
+        assertEquals(0, firstEndpoint.getOutstandingRequests());
+    }
+    
+    @Test
+    void neverHedgeWritableTool() {
+        first.answer(toolName -> Mono.delay(Duration.ofMillis(50)).thenReturn(StubMcpClientWrapper.OK));
+        LoadBalancedMcpClientWrapper client = initialize(endpoints -> endpoints.get(0),
+                HedgingConfig.create().initialDelay(Duration.ofMillis(10)).minDelay(Duration.ofMillis(10)));
+        
+        client.callTool("write", Map.of()).block();
+        
+        assertEquals(1, first.getCalls());
+        assertEquals(0, second.getCalls());
+    }
+    
+    private LoadBalancedMcpClientWrapper initialize(EndpointSelector selector, HedgingConfig hedgingConfig) {
+        LoadBalancedMcpClientWrapper result = new LoadBalancedMcpClientWrapper(MCP_NAME,
+                List.of(firstEndpoint, secondEndpoint), selector, hedgingConfig, McpMetrics.noop());
+        result.initialize().block();
+        return result;
+    }
+    
+    private static McpEndpoint endpoint(String url, StubMcpClientWrapper mcpClient) {
+        return new McpEndpoint(new McpEndpointInfo(), url, mcpClient,
+                new EndpointCircuitBreaker(url, OUTLIER_DETECTION));
+    }
+}
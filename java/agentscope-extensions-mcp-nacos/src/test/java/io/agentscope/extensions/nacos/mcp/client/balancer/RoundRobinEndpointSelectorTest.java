@@ -0,0 +1,56 @@
+/*
+ * Copyright 1999-2025 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.agentscope.extensions.nacos.mcp.client.balancer;
+
+import com.alibaba.nacos.api.ai.model.mcp.McpEndpointInfo;
+import io.agentscope.extensions.nacos.mcp.client.StubMcpClientWrapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class RoundRobinEndpointSelectorTest {
+    
+    @Test
+    void selectEndpointsInTurn() {
+        List<McpEndpoint> endpoints = List.of(endpoint("a"), endpoint("b"), endpoint("c"));
+        RoundRobinEndpointSelector selector = new RoundRobinEndpointSelector();
+        List<McpEndpoint> selected = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            selected.add(selector.select(endpoints));
+        }
+        assertEquals(List.of(endpoints.get(0), endpoints.get(1), endpoints.get(2), endpoints.get(0),
+                endpoints.get(1), endpoints.get(2)), selected);
+    }
+    
+    @Test
+    void followChangedEndpoints() {
+        RoundRobinEndpointSelector selector = new RoundRobinEndpointSelector();
+        List<McpEndpoint> endpoints = List.of(endpoint("a"), endpoint("b"), endpoint("c"));
+        selector.select(endpoints);
+        List<McpEndpoint> shrunk = List.of(endpoint("d"));
+        assertEquals(shrunk.get(0), selector.select(shrunk));
+    }
+    
+    private static McpEndpoint endpoint(String name) {
+        return new McpEndpoint(new McpEndpointInfo(), "http://" + name + ":8080/mcp",
+                new StubMcpClientWrapper("mcp", List.of()));
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright 1999-2025 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.agentscope.extensions.nacos.mcp.client.balancer;
+
+import com.alibaba.nacos.api.ai.model.mcp.McpEndpointInfo;
+import io.agentscope.extensions.nacos.mcp.client.StubMcpClientWrapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WeightedEndpointSelectorTest {
+    
+    private static final int TIMES = 10000;
+    
+    @Test
+    void selectEndpointsByWeight() {
+        List<McpEndpoint> endpoints = List.of(endpoint(1), endpoint(3));
+        Map<McpEndpoint, Integer> selected = selectMany(new WeightedEndpointSelector(McpEndpointInfo::getPort),
+                endpoints);
+        double ratio = selected.getOrDefault(endpoints.get(1), 0) / (double) TIMES;
+        assertTrue(ratio > 0.7 && ratio < 0.8, "Ratio of heavier endpoint is " + ratio);
+    }
+    
+    @Test
+    void neverSelectEndpointWithoutWeight() {
+        List<McpEndpoint> endpoints = List.of(endpoint(0), endpoint(-1), endpoint(2));
+        Map<McpEndpoint, Integer> selected = selectMany(new WeightedEndpointSelector(McpEndpointInfo::getPort),
+                endpoints);
+        assertEquals(Map.of(endpoints.get(2), TIMES), selected);
+    }
+    
+    @Test
+    void selectRandomlyWhenNoEndpointHasWeight() {
+        List<McpEndpoint> endpoints = List.of(endpoint(0), endpoint(0));
+        Map<McpEndpoint, Integer> selected = selectMany(new WeightedEndpointSelector(McpEndpointInfo::getPort),
+                endpoints);
+        assertEquals(2, selected.size());
+    }
+    
+    private static Map<McpEndpoint, Integer> selectMany(EndpointSelector selector, List<McpEndpoint> endpoints) {
+        Map<McpEndpoint, Integer> result = new HashMap<>(endpoints.size());
+        for (int i = 0; i < TIMES; i++) {
+            result.merge(selector.select(endpoints), 1, Integer::sum);
+        }
+        return result;
+    }
+    
+    /**
+     * Build endpoint whose port is used as weight.
+     */
+    private static McpEndpoint endpoint(int weight) {
+        McpEndpointInfo endpointInfo = new McpEndpointInfo();
+        endpointInfo.setPort(weight);
+        return new McpEndpoint(endpointInfo, "http://127.0.0.1:" + weight + "/mcp",
+                new StubMcpClientWrapper("mcp", List.of()));
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright 1999-2025 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.agentscope.extensions.nacos.mcp.client.cache;
+
+import io.agentscope.extensions.nacos.mcp.client.StubMcpClientWrapper;
+import io.modelcontextprotocol.spec.McpSchema;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ToolCallSingleFlightTest {
+    
+    private final ToolCallSingleFlight singleFlight = new ToolCallSingleFlight(List.of("search"));
+    
+    private final AtomicInteger calls = new AtomicInteger();
+    
+    private final Sinks.One<McpSchema.CallToolResult> result = Sinks.one();
+    
+    @Test
+    void enabledOnlyForConfiguredTools() {
+        assertTrue(singleFlight.isEnabled("search"));
+        assertFalse(singleFlight.isEnabled("write"));
+    }
+    
+    @Test
+    void concurrentIdenticalCallsShareOneCall() {
+        Mono<McpSchema.CallToolResult> first = call(Map.of("query", "nacos")).cache();
+        Mono<McpSchema.CallToolResult> second = call(Map.of("query", "nacos")).cache();
+        first.subscribe();
+        second.subscribe();
+        assertEquals(1, singleFlight.size());
+        
+        result.tryEmitValue(StubMcpClientWrapper.OK);
+        
+        assertSame(StubMcpClientWrapper.OK, first.block());
+        assertSame(StubMcpClientWrapper.OK, second.block());
+        assertEquals(1, calls.get());
+        assertEquals(0, singleFlight.size());
+    }
+    
+    @Test
+    void callsWithDifferentArgumentsNotShared() {
+        Disposable first = call(Map.of("query", "nacos")).subscribe();
+        Disposable second = call(Map.of("query", "agentscope")).subscribe();
+        assertEquals(2, calls.get());
+        assertEquals(2, singleFlight.size());
+        first.dispose();
+        second.dispose();
+    }
+    
+    @Test
+    void callAfterFinishedCallsAgain() {
+        result.tryEmitValue(StubMcpClientWrapper.OK);
+        call(Map.of("query", "nacos")).block();
+        call(Map.of("query", "nacos")).block();
+        assertEquals(2, calls.get());
+    }
+    
+    @Test
+    void actualCallCancelledOnlyWhenAllCallersCancelled() {
+        AtomicBoolean cancelled = new AtomicBoolean();
+        Mono<McpSchema.CallToolResult> shared = singleFlight.call("search", Map.of("query", "nacos"),
+                () -> result.asMono().doOnCancel(() -> cancelled.set(true)));
+        Disposable first = shared.subscribe();
+        Disposable second = shared.subscribe();
+        
+        first.dispose();
+        assertFalse(cancelled.get());
+        second.dispose();
+        
+        assertTrue(cancelled.get());
+        assertEquals(0, singleFlight.size());
+    }
+    
+    private Mono<McpSchema.CallToolResult> call(Map<String, Object> arguments) {
+        return singleFlight.call("search", arguments, () -> {
+            calls.incrementAndGet();
+            return result.asMono();
+        });
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright 1999-2025 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.agentscope.extensions.nacos.mcp.client.cache;
+
+import io.agentscope.extensions.nacos.mcp.client.StubMcpClientWrapper;
+import io.modelcontextprotocol.spec.McpSchema;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ToolResultCacheTest {
+    
+    private static final McpSchema.CallToolResult ERROR = McpSchema.CallToolResult.builder().addTextContent("error")
+            .isError(true).build();
+    
+    private final AtomicInteger calls = new AtomicInteger();
+    
+    @Test
+    void cacheReadOnlyAndIdempotentToolsByDefault() {
+        ToolResultCache cache = new ToolResultCache(ToolResultCacheConfig.create());
+        assertTrue(cache.isCacheable("read", StubMcpClientWrapper.tool("read", true)));
+        assertFalse(cache.isCacheable("write", StubMcpClientWrapper.tool("write", false)));
+        assertFalse(cache.isCacheable("unknown", null));
+    }
+    
+    @Test
+    void cacheToolsSetInConfig() {
+        ToolResultCache cache = new ToolResultCache(ToolResultCacheConfig.create().cacheReadOnlyTools(false)
+                .cacheIdempotentTools(false).cacheTools(List.of("write")));
+        assertTrue(cache.isCacheable("write", StubMcpClientWrapper.tool("write", false)));
+        assertFalse(cache.isCacheable("read", StubMcpClientWrapper.tool("read", true)));
+    }
+    
+    @Test
+    void hitCachedResultOfEqualArguments() {
+        ToolResultCache cache = new ToolResultCache(ToolResultCacheConfig.create());
+        cache.getOrCall("read", Map.of("a", 1, "b", List.of("x")), this::call).block();
+        cache.getOrCall("read", Map.of("b", List.of("x"), "a", 1), this::call).block();
+        cache.getOrCall("read", Map.of("a", 2), this::call).block();
+        assertEquals(2, calls.get());
+    }
+    
+    @Test
+    void neverCacheErrorResults() {
+        ToolResultCache cache = new ToolResultCache(ToolResultCacheConfig.create());
+        cache.getOrCall("read", Map.of(), () -> Mono.just(ERROR)).block();
+        assertEquals(0, cache.size());
+    }
+    
+    @Test
+    void expireResultsAfterTtl() throws InterruptedException {
+        ToolResultCache cache = new ToolResultCache(ToolResultCacheConfig.create().ttl(Duration.ofMillis(20)));
+        cache.getOrCall("read", Map.of(), this::call).block();
+        Thread.sleep(50L);
+        cache.getOrCall("read", Map.of(), this::call).block();
+        assertEquals(2, calls.get());
+    }
+    
+    @Test
+    void evictLeastRecentlyUsedResults() {
+        ToolResultCache cache = new ToolResultCache(ToolResultCacheConfig.create().maxSize(2));
+        cache.getOrCall("read", Map.of("q", 1), this::call).block();
+        cache.getOrCall("read", Map.of("q", 2), this::call).block();
+        cache.getOrCall("read", Map.of("q", 1), this::call).block();
+        cache.getOrCall("read", Map.of("q", 3), this::call).block();
+        assertEquals(2, cache.size());
+        cache.getOrCall("read", Map.of("q", 1), this::call).block();
+        assertEquals(3, calls.get());
+        cache.getOrCall("read", Map.of("q", 2), this::call).block();
+        assertEquals(4, calls.get());
+    }
+    
+    @Test
+    void dropResultsOfCallsStartedBeforeInvalidated() {
+        ToolResultCache cache = new ToolResultCache(ToolResultCacheConfig.create());
+        Sinks.One<McpSchema.CallToolResult> running = Sinks.one();
+        Mono<McpSchema.CallToolResult> call = cache.getOrCall("read", Map.of(), running::asMono).cache();
+        call.subscribe();
+        cache.invalidateAll();
+        running.tryEmitValue(StubMcpClientWrapper.OK);
+        call.block();
+        assertEquals(0, cache.size());
+    }
+    
+    private Mono<McpSchema.CallToolResult> call() {
+        calls.incrementAndGet();
+        return Mono.just(StubMcpClientWrapper.OK);
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright 1999-2025 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.agentscope.extensions.nacos.mcp.client.limit;
+
+import com.alibaba.nacos.api.exception.NacosException;
+import com.alibaba.nacos.api.exception.runtime.NacosRuntimeException;
+import io.agentscope.extensions.nacos.mcp.client.CallTimeout;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class AdaptiveConcurrencyLimiterTest {
+    
+    private static final Duration CALL_TIMEOUT = Duration.ofMillis(50);
+    
+    @Test
+    void stuckBackendShrinksLimitByTimeout() {
+        // Latency threshold is much longer than timeout, only the timeout makes calls dropped.
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("stuck-mcp",
+                ConcurrencyLimitConfig.create().initialLimit(10).backoffRatio(0.5)
+                        .latencyThreshold(Duration.ofMinutes(1)));
+        for (int i = 0; i < 3; i++) {
+            String result = CallTimeout.create()
+                    .apply(limiter.run(Mono::never), CALL_TIMEOUT, Mono.just("timeout")).block();
+            assertEquals("timeout", result);
+        }
+        assertEquals(1, limiter.getLimit());
+        assertEquals(0, limiter.getInflight());
+    }
+    
+    @Test
+    void cancelSlowerThanLatencyThresholdShrinksLimit() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("slow-mcp",
+                ConcurrencyLimitConfig.create().initialLimit(10).backoffRatio(0.5)
+                        .latencyThreshold(Duration.ofMillis(10)));
+        limiter.run(Mono::never).timeout(CALL_TIMEOUT, Mono.empty()).block();
+        assertEquals(5, limiter.getLimit());
+        assertEquals(0, limiter.getInflight());
+    }
+    
+    @Test
+    void cancelByCallerKeepsLimit() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("cancelled-mcp",
+                ConcurrencyLimitConfig.create().initialLimit(10));
+        Disposable call = limiter.run(Mono::never).subscribe();
+        assertEquals(1, limiter.getInflight());
+        call.dispose();
+        assertEquals(10, limiter.getLimit());
+        assertEquals(0, limiter.getInflight());
+    }
+    
+    @Test
+    void failedCallShrinksLimit() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("failed-mcp",
+                ConcurrencyLimitConfig.create().initialLimit(10).backoffRatio(0.5));
+        assertThrows(IllegalStateException.class,
+                () -> limiter.run(() -> Mono.error(new IllegalStateException("failed"))).block());
+        assertEquals(5, limiter.getLimit());
+    }
+    
+    @Test
+    void callOverLimitFailsFastWithoutQueue() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("full-mcp",
+                ConcurrencyLimitConfig.create().initialLimit(1).maxLimit(1));
+        Disposable running = limiter.run(Mono::never).subscribe();
+        NacosRuntimeException error = assertThrows(NacosRuntimeException.class,
+                () -> limiter.run(() -> Mono.just("second")).block());
+        assertEquals(NacosException.CLIENT_OVER_THRESHOLD, error.getErrCode());
+        running.dispose();
+    }
+    
+    @Test
+    void queuedCallRunsAfterPermitReleased() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("queued-mcp",
+                ConcurrencyLimitConfig.create().initialLimit(1).maxLimit(1).maxQueueSize(1));
+        Sinks.One<String> first = Sinks.one();
+        Mono<String> firstCall = limiter.run(first::asMono).cache();
+        firstCall.subscribe();
+        Mono<String> secondCall = limiter.run(() -> Mono.just("second")).cache();
+        secondCall.subscribe();
+        assertEquals(1, limiter.getQueueSize());
+        
+        first.tryEmitValue("first");
+        
+        assertEquals("first", firstCall.block());
+        assertEquals("second", secondCall.block(Duration.ofSeconds(1)));
+        assertEquals(0, limiter.getInflight());
+    }
+}
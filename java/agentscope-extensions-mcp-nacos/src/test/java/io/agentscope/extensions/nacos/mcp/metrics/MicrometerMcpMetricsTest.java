@@ -0,0 +1,93 @@
+/*
+ * Copyright 1999-2025 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.agentscope.extensions.nacos.mcp.metrics;
+
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import io.micrometer.core.instrument.distribution.pause.PauseDetector;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class MicrometerMcpMetricsTest {
+    
+    private static final String ENDPOINT = "http://127.0.0.1:8080/mcp";
+    
+    @Test
+    void recordToolCallsIntoSameTimer() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        MicrometerMcpMetrics metrics = new MicrometerMcpMetrics(registry);
+        metrics.recordToolCall("mcp", "read", ENDPOINT, McpMetrics.Outcome.SUCCESS, 1_000_000L);
+        Timer timer = registry.get(MicrometerMcpMetrics.TOOL_CALLS).tag("tool", "read").tag("outcome", "success")
+                .timer();
+        metrics.recordToolCall("mcp", "read", ENDPOINT, McpMetrics.Outcome.SUCCESS, 3_000_000L);
+        
+        assertSame(timer, registry.get(MicrometerMcpMetrics.TOOL_CALLS).tag("outcome", "success").timer());
+        assertEquals(2, timer.count());
+        assertEquals(4.0, timer.totalTime(TimeUnit.MILLISECONDS));
+    }
+    
+    @Test
+    void separateTimersByOutcomeAndEndpoint() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        MicrometerMcpMetrics metrics = new MicrometerMcpMetrics(registry);
+        metrics.recordToolCall("mcp", "read", ENDPOINT, McpMetrics.Outcome.SUCCESS, 1L);
+        metrics.recordToolCall("mcp", "read", ENDPOINT, McpMetrics.Outcome.ERROR, 1L);
+        metrics.recordToolCall("mcp", "read", "http://127.0.0.2:8080/mcp", McpMetrics.Outcome.SUCCESS, 1L);
+        
+        assertEquals(3, registry.get(MicrometerMcpMetrics.TOOL_CALLS).timers().size());
+    }
+    
+    @Test
+    void countToolErrorsByException() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        MicrometerMcpMetrics metrics = new MicrometerMcpMetrics(registry);
+        metrics.recordToolError("mcp", "read", ENDPOINT, new IllegalStateException());
+        metrics.recordToolError("mcp", "read", ENDPOINT, new IllegalStateException());
+        metrics.recordToolError("mcp", "read", ENDPOINT, new IllegalArgumentException());
+        
+        assertEquals(2.0, registry.get(MicrometerMcpMetrics.TOOL_ERRORS).tag("exception", "IllegalStateException")
+                .counter().count());
+        assertEquals(1.0, registry.get(MicrometerMcpMetrics.TOOL_ERRORS).tag("exception", "IllegalArgumentException")
+                .counter().count());
+    }
+    
+    @Test
+    void publishPercentileHistogramOnlyIfEnabled() {
+        Map<String, Boolean> histograms = new ConcurrentHashMap<>();
+        SimpleMeterRegistry registry = new SimpleMeterRegistry() {
+            @Override
+            protected Timer newTimer(Meter.Id id, DistributionStatisticConfig config, PauseDetector pauseDetector) {
+                histograms.put(id.getTag("tool"), Boolean.TRUE.equals(config.isPublishingHistogram()));
+                return super.newTimer(id, config, pauseDetector);
+            }
+        };
+        new MicrometerMcpMetrics(registry).recordToolCall("mcp", "read", ENDPOINT, McpMetrics.Outcome.SUCCESS, 1L);
+        new MicrometerMcpMetrics(registry, true).recordToolCall("mcp", "write", ENDPOINT, McpMetrics.Outcome.SUCCESS,
+                1L);
+        
+        assertEquals(Map.of("read", false, "write", true), histograms);
+    }
+}
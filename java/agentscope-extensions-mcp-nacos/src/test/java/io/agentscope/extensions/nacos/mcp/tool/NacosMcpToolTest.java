@@ -0,0 +1,134 @@
+/*
+ * Copyright 1999-2025 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.agentscope.extensions.nacos.mcp.tool;
+
+import com.alibaba.nacos.api.ai.constant.AiConstants;
+import com.alibaba.nacos.api.ai.model.mcp.McpEndpointInfo;
+import com.alibaba.nacos.api.ai.model.mcp.McpServerDetailInfo;
+import com.alibaba.nacos.api.ai.model.mcp.McpTool;
+import com.alibaba.nacos.api.ai.model.mcp.McpToolSpecification;
+import io.agentscope.core.message.TextBlock;
+import io.agentscope.core.message.ToolResultBlock;
+import io.agentscope.core.tool.ToolCallParam;
+import io.agentscope.core.tool.ToolExecutionContext;
+import io.agentscope.extensions.nacos.mcp.FakeAiService;
+import io.agentscope.extensions.nacos.mcp.McpServerRefreshScheduler;
+import io.agentscope.extensions.nacos.mcp.NacosMcpServerManager;
+import io.agentscope.extensions.nacos.mcp.client.CallDeadline;
+import io.agentscope.extensions.nacos.mcp.client.NacosMcpClientBuilder;
+import io.agentscope.extensions.nacos.mcp.client.NacosMcpClientWrapper;
+import io.agentscope.extensions.nacos.mcp.client.StubMcpClientWrapper;
+import io.agentscope.extensions.nacos.mcp.metrics.McpMetrics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class NacosMcpToolTest {
+    
+    private static final String MCP_NAME = "tool-mcp";
+    
+    private static final Duration DEADLINE = Duration.ofMillis(50);
+    
+    private final McpServerRefreshScheduler refreshScheduler = new McpServerRefreshScheduler(1, Duration.ZERO);
+    
+    private final StubMcpClientWrapper stub = new StubMcpClientWrapper(MCP_NAME,
+            List.of(StubMcpClientWrapper.tool("slow", true)));
+    
+    private NacosMcpServerManager manager;
+    
+    private NacosMcpClientWrapper mcpClient;
+    
+    @BeforeEach
+    void setUp() {
+        stub.answer(toolName -> Mono.never());
+        McpServerDetailInfo mcpServer = mcpServer();
+        manager = new NacosMcpServerManager(FakeAiService.create(name -> mcpServer), refreshScheduler,
+                McpMetrics.noop());
+        mcpClient = NacosMcpClientBuilder.create(MCP_NAME, manager).refreshHookExecutor(Runnable::run)
+                .clientProvider((protocol, baseUrl, endpoint, toolsChangedListener) -> Mono.just(stub)).build();
+    }
+    
+    @AfterEach
+    void tearDown() {
+        mcpClient.close();
+        manager.close();
+        refreshScheduler.shutdown();
+    }
+    
+    @Test
+    void cancelCallByDeadlineInToolExecutionContext() {
+        ToolCallParam param = ToolCallParam.builder().input(Map.of())
+                .context(ToolExecutionContext.builder().register(CallDeadline.class, CallDeadline.after(DEADLINE))
+                        .build()).build();
+        
+        assertTimeout(new NacosMcpTool("slow", mcpClient).callAsync(param).block(Duration.ofSeconds(5)));
+    }
+    
+    @Test
+    void cancelCallByDeadlineInReactorContext() {
+        ToolCallParam param = ToolCallParam.builder().input(Map.of()).build();
+        
+        assertTimeout(new NacosMcpTool("slow", mcpClient).callAsync(param)
+                .contextWrite(CallDeadline.after(DEADLINE)::writeTo).block(Duration.ofSeconds(5)));
+    }
+    
+    @Test
+    void earlierDeadlineApplies() {
+        ToolCallParam param = ToolCallParam.builder().input(Map.of())
+                .context(ToolExecutionContext.builder()
+                        .register(CallDeadline.class, CallDeadline.after(Duration.ofMinutes(10))).build()).build();
+        
+        assertTimeout(new NacosMcpTool("slow", mcpClient).callAsync(param)
+                .contextWrite(CallDeadline.after(DEADLINE)::writeTo).block(Duration.ofSeconds(5)));
+    }
+    
+    private void assertTimeout(ToolResultBlock result) {
+        String text = ((TextBlock) result.getOutput().get(0)).getText();
+        assertTrue(text.contains("timeout after"), text);
+        assertEquals(1, stub.getCalls());
+    }
+    
+    private static McpServerDetailInfo mcpServer() {
+        McpServerDetailInfo result = new McpServerDetailInfo();
+        result.setId(MCP_NAME);
+        result.setName(MCP_NAME);
+        result.setProtocol(AiConstants.Mcp.MCP_PROTOCOL_STREAMABLE);
+        result.setVersion("1.0.0");
+        McpEndpointInfo endpoint = new McpEndpointInfo();
+        endpoint.setAddress("127.0.0.1");
+        endpoint.setPort(8080);
+        endpoint.setPath("/mcp");
+        result.setBackendEndpoints(List.of(endpoint));
+        McpTool tool = new McpTool();
+        tool.setName("slow");
+        tool.setDescription("Slow tool");
+        tool.setInputSchema(Map.of("type", "object", "properties", Map.of()));
+        McpToolSpecification toolSpec = new McpToolSpecification();
+        toolSpec.setTools(List.of(tool));
+        result.setToolSpec(toolSpec);
+        return result;
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright 1999-2025 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.agentscope.extensions.nacos.mcp.tool;
+
+import io.agentscope.core.message.ToolResultBlock;
+import io.agentscope.core.model.ToolSchema;
+import io.agentscope.core.tool.AgentTool;
+import io.agentscope.core.tool.ToolCallParam;
+import io.agentscope.core.tool.ToolkitConfig;
+import io.agentscope.extensions.nacos.mcp.tool.index.Bm25ToolIndex;
+import io.agentscope.extensions.nacos.mcp.tool.index.ToolIndexConfig;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class NacosToolkitTest {
+    
+    private final CountingToolIndex toolIndex = new CountingToolIndex();
+    
+    private NacosToolkit toolkit;
+    
+    @BeforeEach
+    void setUp() {
+        toolkit = new NacosToolkit(ToolkitConfig.defaultConfig(),
+                ToolIndexConfig.create().topK(1).toolIndex(() -> toolIndex));
+        toolkit.registerAgentTool(tool("getWeather", "Get weather forecast of a city"));
+        toolkit.registerAgentTool(tool("sendMail", "Send a mail to someone"));
+    }
+    
+    @Test
+    void queriesWithoutToolChangesSyncIndexOnce() {
+        assertEquals(List.of("getWeather"), names(toolkit.getToolSchemas("weather")));
+        assertEquals(List.of("sendMail"), names(toolkit.getToolSchemas("mail")));
+        assertEquals(List.of("getWeather"), names(toolkit.getToolSchemas("weather")));
+        assertEquals(2, toolIndex.upserts);
+        assertEquals(1, toolIndex.listings);
+    }
+    
+    @Test
+    void registeredToolIndexedByNextQuery() {
+        toolkit.getToolSchemas("weather");
+        toolkit.registerAgentTool(tool("searchCity", "Search city by name"));
+        assertEquals(List.of("searchCity"), names(toolkit.getToolSchemas("search")));
+        assertEquals(3, toolIndex.upserts);
+        assertEquals(2, toolIndex.listings);
+    }
+    
+    @Test
+    void removedToolDroppedByNextQuery() {
+        toolkit.registerAgentTool(tool("searchCity", "Search city by name"));
+        toolkit.getToolSchemas("weather");
+        toolkit.removeTool("getWeather");
+        assertEquals(List.of("sendMail", "searchCity"), names(toolkit.getToolSchemas("weather")));
+        assertEquals(1, toolIndex.removes);
+    }
+    
+    private static List<String> names(List<ToolSchema> schemas) {
+        return schemas.stream().map(ToolSchema::getName).toList();
+    }
+    
+    private static AgentTool tool(String name, String description) {
+        return new AgentTool() {
+            
+            @Override
+            public String getName() {
+                return name;
+            }
+            
+            @Override
+            public String getDescription() {
+                return description;
+            }
+            
+            @Override
+            public Map<String, Object> getParameters() {
+                return Map.of("type", "object", "properties", Map.of());
+            }
+            
+            @Override
+            public Mono<ToolResultBlock> callAsync(ToolCallParam param) {
+                return Mono.just(ToolResultBlock.text(name));
+            }
+        };
+    }
+    
+    private static class CountingToolIndex extends Bm25ToolIndex {
+        
+        private int upserts;
+        
+        private int removes;
+        
+        private int listings;
+        
+        @Override
+        public void upsert(String toolName, String description, Map<String, Object> parameters) {
+            upserts++;
+            super.upsert(toolName, description, parameters);
+        }
+        
+        @Override
+        public void remove(String toolName) {
+            removes++;
+            super.remove(toolName);
+        }
+        
+        @Override
+        public Set<String> getToolNames() {
+            listings++;
+            return super.getToolNames();
+        }
+    }
+}
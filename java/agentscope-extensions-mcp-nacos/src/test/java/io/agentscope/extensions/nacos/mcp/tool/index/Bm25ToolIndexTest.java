@@ -0,0 +1,82 @@
+/*
+ * Copyright 1999-2025 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.agentscope.extensions.nacos.mcp.tool.index;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class Bm25ToolIndexTest {
+    
+    @Test
+    void rankMoreRelevantToolFirst() {
+        Bm25ToolIndex index = new Bm25ToolIndex();
+        index.upsert("getWeather", "Get weather forecast of a city", Map.of("properties", Map.of("city", Map.of())));
+        index.upsert("sendMail", "Send a mail to someone", Map.of());
+        index.upsert("searchCity", "Search city by name", Map.of());
+        assertEquals(List.of("getWeather", "searchCity"), index.search("weather of city", 5));
+        assertEquals(List.of("getWeather"), index.search("weather of city", 1));
+    }
+    
+    @Test
+    void removedToolNeverFound() {
+        Bm25ToolIndex index = new Bm25ToolIndex();
+        index.upsert("sendMail", "Send a mail", Map.of());
+        index.remove("sendMail");
+        assertTrue(index.search("mail", 5).isEmpty());
+        assertTrue(index.getToolNames().isEmpty());
+    }
+    
+    @Test
+    void upsertReplacesDescription() {
+        Bm25ToolIndex index = new Bm25ToolIndex();
+        index.upsert("notify", "Send a mail", Map.of());
+        index.upsert("notify", "Send a short message", Map.of());
+        assertTrue(index.search("mail", 5).isEmpty());
+        assertEquals(List.of("notify"), index.search("message", 5));
+        assertEquals(Set.of("notify"), index.getToolNames());
+    }
+    
+    @Test
+    void blankQueryFindsNothing() {
+        Bm25ToolIndex index = new Bm25ToolIndex();
+        index.upsert("sendMail", "Send a mail", Map.of());
+        assertTrue(index.search("", 5).isEmpty());
+        assertTrue(index.search("unrelated", 5).isEmpty());
+    }
+    
+    @Test
+    void getToolNamesReturnsCopy() {
+        Bm25ToolIndex index = new Bm25ToolIndex();
+        index.upsert("sendMail", "Send a mail", Map.of());
+        index.getToolNames().clear();
+        assertEquals(Set.of("sendMail"), index.getToolNames());
+    }
+    
+    @Test
+    void invalidParametersRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new Bm25ToolIndex(-1, 0.75));
+        assertThrows(IllegalArgumentException.class, () -> new Bm25ToolIndex(1.2, 1.5));
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright 1999-2025 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.agentscope.extensions.nacos.mcp.benchmark;
+
+import io.agentscope.core.tool.mcp.McpClientWrapper;
+import io.agentscope.extensions.nacos.mcp.NacosMcpServerManager;
+import io.agentscope.extensions.nacos.mcp.client.McpClientProvider;
+import io.agentscope.extensions.nacos.mcp.client.NacosMcpClientBuilder;
+import io.agentscope.extensions.nacos.mcp.client.NacosMcpClientWrapper;
+import io.modelcontextprotocol.spec.McpSchema;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * {@link McpClientProvider} building {@link FakeMcpClientWrapper}, to benchmark without MCP transport.
+ *
+ * @author xiweng.yy
+ */
+public class FakeMcpClientProvider implements McpClientProvider {
+    
+    private final String name;
+    
+    private final Supplier<List<McpSchema.Tool>> tools;
+    
+    private FakeMcpClientProvider(String name, Supplier<List<McpSchema.Tool>> tools) {
+        this.name = name;
+        this.tools = tools;
+    }
+    
+    @Override
+    public Mono<McpClientWrapper> build(String protocol, String baseUrl, String endpoint,
+            Runnable toolsChangedListener) {
+        return Mono.just(new FakeMcpClientWrapper(name, tools));
+    }
+    
+    /**
+     * Build {@link NacosMcpClientWrapper} connecting to {@link FakeMcpClientWrapper}. Refresh hooks run in the
+     * refreshing thread, so that benchmarks measure the work of hooks rather than dispatching them.
+     *
+     * @param name             the name of MCP server
+     * @param mcpServerManager the MCP server manager
+     * @param tools            the tools listed from MCP server
+     * @param delayInitialize  whether to delay initializing
+     * @return the Nacos MCP client
+     */
+    public static NacosMcpClientWrapper buildClient(String name, NacosMcpServerManager mcpServerManager,
+            Supplier<List<McpSchema.Tool>> tools, boolean delayInitialize) {
+        return NacosMcpClientBuilder.create(name, mcpServerManager).delayInitialize(delayInitialize)
+                .refreshHookExecutor(Runnable::run).clientProvider(new FakeMcpClientProvider(name, tools)).build();
+    }
+}
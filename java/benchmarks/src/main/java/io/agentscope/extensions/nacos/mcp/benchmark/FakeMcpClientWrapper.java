@@ -0,0 +1,73 @@
+/*
+ * Copyright 1999-2025 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.agentscope.extensions.nacos.mcp.benchmark;
+
+import io.agentscope.core.tool.mcp.McpClientWrapper;
+import io.modelcontextprotocol.spec.McpSchema;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * In-process {@link McpClientWrapper} without transport, so that benchmarks only measure the overhead of this
+ * extension.
+ *
+ * @author xiweng.yy
+ */
+public class FakeMcpClientWrapper extends McpClientWrapper {
+    
+    private static final McpSchema.CallToolResult RESULT = McpSchema.CallToolResult.builder().addTextContent("ok")
+            .isError(false).build();
+    
+    private final Supplier<List<McpSchema.Tool>> tools;
+    
+    /**
+     * Create fake MCP client.
+     *
+     * @param name  the name of MCP server
+     * @param tools the tools listed from MCP server, read on each listing so that tools can be changed
+     */
+    public FakeMcpClientWrapper(String name, Supplier<List<McpSchema.Tool>> tools) {
+        super(name);
+        this.tools = tools;
+    }
+    
+    @Override
+    public Mono<Void> initialize() {
+        return Mono.fromRunnable(() -> {
+            tools.get().forEach(tool -> cachedTools.put(tool.name(), tool));
+            initialized = true;
+        });
+    }
+    
+    @Override
+    public Mono<List<McpSchema.Tool>> listTools() {
+        return Mono.fromSupplier(tools);
+    }
+    
+    @Override
+    public Mono<McpSchema.CallToolResult> callTool(String toolName, Map<String, Object> arguments) {
+        return Mono.just(RESULT);
+    }
+    
+    @Override
+    public void close() {
+        initialized = false;
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright 1999-2025 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.agentscope.extensions.nacos.mcp.benchmark;
+
+import com.alibaba.nacos.api.ai.model.mcp.McpServerDetailInfo;
+import io.agentscope.extensions.nacos.mcp.McpServerRefreshScheduler;
+import io.agentscope.extensions.nacos.mcp.NacosMcpServerManager;
+import io.agentscope.extensions.nacos.mcp.metrics.McpMetrics;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Benchmarks of {@link NacosMcpServerManager#getMcpServer(String)} called by multiple threads.
+ *
+ * <ul>
+ *     <li>{@link #getCachedMcpServer()}: all MCP servers are subscribed, measures the cache hit path.</li>
+ *     <li>{@link #getMcpServerColdStart()}: a new manager for each iteration with slow subscribing, measures the
+ *     concurrent first calls of the same MCP servers.</li>
+ * </ul>
+ *
+ * @author xiweng.yy
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(8)
+@Fork(1)
+public class GetMcpServerBenchmark {
+    
+    private static final long SUBSCRIBE_LATENCY_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+    
+    @Param({"10", "100"})
+    private int serverCount;
+    
+    @Param({"100"})
+    private int toolCount;
+    
+    private Map<String, McpServerDetailInfo> mcpServers;
+    
+    private String[] mcpServerNames;
+    
+    private McpServerRefreshScheduler refreshScheduler;
+    
+    private NacosMcpServerManager cachedManager;
+    
+    private NacosMcpServerManager coldManager;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        mcpServers = new ConcurrentHashMap<>(serverCount);
+        mcpServerNames = new String[serverCount];
+        for (int i = 0; i < serverCount; i++) {
+            mcpServerNames[i] = "benchmark-mcp-server-" + i;
+            mcpServers.put(mcpServerNames[i], McpServerFixtures.mcpServer(mcpServerNames[i], toolCount, 0));
+        }
+        refreshScheduler = new McpServerRefreshScheduler();
+        cachedManager = new NacosMcpServerManager(McpServerFixtures.aiService(mcpServers::get), refreshScheduler,
+                McpMetrics.noop());
+        for (String each : mcpServerNames) {
+            cachedManager.getMcpServer(each);
+        }
+    }
+    
+    @Setup(Level.Iteration)
+    public void setUpColdManager() {
+        // Simulate the latency of subscribing from Nacos server.
+        coldManager = new NacosMcpServerManager(McpServerFixtures.aiService(name -> {
+            LockSupport.parkNanos(SUBSCRIBE_LATENCY_NANOS);
+            return mcpServers.get(name);
+        }), refreshScheduler, McpMetrics.noop());
+    }
+    
+    @TearDown(Level.Iteration)
+    public void tearDownColdManager() {
+        coldManager.close();
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        cachedManager.close();
+        refreshScheduler.shutdown();
+    }
+    
+    @Benchmark
+    public McpServerDetailInfo getCachedMcpServer() {
+        return cachedManager.getMcpServer(randomName());
+    }
+    
+    @Benchmark
+    public McpServerDetailInfo getMcpServerColdStart() {
+        return coldManager.getMcpServer(randomName());
+    }
+    
+    private String randomName() {
+        return mcpServerNames[ThreadLocalRandom.current().nextInt(mcpServerNames.length)];
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright 1999-2025 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.agentscope.extensions.nacos.mcp.benchmark;
+
+import com.alibaba.nacos.api.ai.model.mcp.McpServerDetailInfo;
+import io.agentscope.extensions.nacos.mcp.McpServerRefreshScheduler;
+import io.agentscope.extensions.nacos.mcp.NacosMcpServerManager;
+import io.agentscope.extensions.nacos.mcp.client.NacosMcpClientWrapper;
+import io.agentscope.extensions.nacos.mcp.metrics.McpMetrics;
+import io.modelcontextprotocol.spec.McpSchema;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of {@link NacosMcpClientWrapper#listTools()}, both cached and after refresh which merges tool specs from
+ * Nacos into the tools listed from MCP server.
+ *
+ * @author xiweng.yy
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ListToolsBenchmark {
+    
+    private static final String MCP_SERVER_NAME = "benchmark-mcp-server";
+    
+    @Param({"10", "100", "1000"})
+    private int toolCount;
+    
+    private McpServerRefreshScheduler refreshScheduler;
+    
+    private NacosMcpClientWrapper mcpClient;
+    
+    private McpServerDetailInfo[] revisions;
+    
+    private List<McpSchema.Tool> mcpTools;
+    
+    private int revision;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        revisions = new McpServerDetailInfo[] {McpServerFixtures.mcpServer(MCP_SERVER_NAME, toolCount, 0),
+                McpServerFixtures.mcpServer(MCP_SERVER_NAME, toolCount, 1)};
+        mcpTools = McpServerFixtures.mcpTools(revisions[0]);
+        refreshScheduler = new McpServerRefreshScheduler();
+        NacosMcpServerManager mcpServerManager = new NacosMcpServerManager(
+                McpServerFixtures.aiService(name -> revisions[0]), refreshScheduler, McpMetrics.noop());
+        mcpClient = FakeMcpClientProvider.buildClient(MCP_SERVER_NAME, mcpServerManager, () -> mcpTools, false);
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        mcpClient.close();
+        refreshScheduler.shutdown();
+    }
+    
+    @Benchmark
+    public List<McpSchema.Tool> listToolsCached() {
+        return mcpClient.listTools().block();
+    }
+    
+    /**
+     * Refresh tools of MCP server without rebuilding client, then list tools which merges tool specs from Nacos.
+     */
+    @Benchmark
+    public List<McpSchema.Tool> listToolsAfterRefresh() {
+        revision ^= 1;
+        mcpClient.refresh(revisions[revision]);
+        return mcpClient.listTools().block();
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright 1999-2025 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.agentscope.extensions.nacos.mcp.benchmark;
+
+import com.alibaba.nacos.api.ai.AiService;
+import com.alibaba.nacos.api.ai.constant.AiConstants;
+import com.alibaba.nacos.api.ai.model.mcp.McpEndpointInfo;
+import com.alibaba.nacos.api.ai.model.mcp.McpServerDetailInfo;
+import com.alibaba.nacos.api.ai.model.mcp.McpTool;
+import com.alibaba.nacos.api.ai.model.mcp.McpToolMeta;
+import com.alibaba.nacos.api.ai.model.mcp.McpToolSpecification;
+import io.modelcontextprotocol.json.McpJsonMapper;
+import io.modelcontextprotocol.spec.McpSchema;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Synthetic fixtures of MCP servers for benchmarks.
+ *
+ * <p>Tools of fixtures are named {@code tool-0} to {@code tool-(n-1)}. Every tenth tool changes its description with
+ * revision, so that refreshing between two revisions changes 10% of tools, like a rolling update in production.
+ *
+ * @author xiweng.yy
+ */
+public final class McpServerFixtures {
+    
+    private static final int CHANGED_TOOL_INTERVAL = 10;
+    
+    private McpServerFixtures() {
+    }
+    
+    /**
+     * Build MCP server detail info with synthetic tools.
+     *
+     * @param name      the name of MCP server
+     * @param toolCount the number of tools
+     * @param revision  the revision of MCP server, tools changed between revisions
+     * @return the MCP server detail info
+     */
+    public static McpServerDetailInfo mcpServer(String name, int toolCount, int revision) {
+        McpServerDetailInfo result = new McpServerDetailInfo();
+        result.setId(name);
+        result.setName(name);
+        result.setDescription("Synthetic MCP server " + name + " for benchmarks.");
+        result.setProtocol(AiConstants.Mcp.MCP_PROTOCOL_STREAMABLE);
+        result.setVersion("1.0." + revision);
+        McpEndpointInfo endpoint = new McpEndpointInfo();
+        endpoint.setAddress("127.0.0.1");
+        endpoint.setPort(8080);
+        endpoint.setPath("/mcp");
+        result.setBackendEndpoints(List.of(endpoint));
+        List<McpTool> tools = new ArrayList<>(toolCount);
+        Map<String, McpToolMeta> toolsMeta = new HashMap<>(toolCount);
+        for (int i = 0; i < toolCount; i++) {
+            McpTool tool = new McpTool();
+            tool.setName(toolName(i));
+            tool.setDescription(description(i, revision));
+            tool.setInputSchema(inputSchema(i));
+            tools.add(tool);
+            McpToolMeta meta = new McpToolMeta();
+            meta.setEnabled(true);
+            toolsMeta.put(tool.getName(), meta);
+        }
+        McpToolSpecification toolSpec = new McpToolSpecification();
+        toolSpec.setTools(tools);
+        toolSpec.setToolsMeta(toolsMeta);
+        result.setToolSpec(toolSpec);
+        return result;
+    }
+    
+    /**
+     * Build the tools listed from MCP server, same as the tools in Nacos.
+     *
+     * @param mcpServer the MCP server detail info
+     * @return the tools listed from MCP server
+     */
+    public static List<McpSchema.Tool> mcpTools(McpServerDetailInfo mcpServer) {
+        McpJsonMapper jsonMapper = McpJsonMapper.getDefault();
+        return mcpServer.getToolSpec().getTools().stream()
+                .map(tool -> McpSchema.Tool.builder().name(tool.getName()).description(tool.getDescription())
+                        .inputSchema(jsonMapper.convertValue(tool.getInputSchema(), McpSchema.JsonSchema.class))
+                        .annotations(new McpSchema.ToolAnnotations(tool.getName(), true, false, true, false, null))
+                        .build()).toList();
+    }
+    
+    /**
+     * Build fake Nacos AI service, which returns MCP servers from function without remote requests.
+     *
+     * @param mcpServers function to get MCP server by name
+     * @return the fake Nacos AI service
+     */
+    public static AiService aiService(Function<String, McpServerDetailInfo> mcpServers) {
+        return (AiService) Proxy.newProxyInstance(AiService.class.getClassLoader(), new Class[] {AiService.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "getMcpServer", "subscribeMcpServer" -> mcpServers.apply((String) args[0]);
+                    case "toString" -> "FakeAiService";
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    default -> null;
+                });
+    }
+    
+    public static String toolName(int index) {
+        return "tool-" + index;
+    }
+    
+    private static String description(int index, int revision) {
+        String result = "Synthetic tool " + index + " which searches documents by query and returns top results.";
+        return index % CHANGED_TOOL_INTERVAL == 0 ? result + " Revision " + revision + '.' : result;
+    }
+    
+    private static Map<String, Object> inputSchema(int index) {
+        Map<String, Object> query = Map.of("type", "string", "description", "The query of tool " + index);
+        Map<String, Object> limit = Map.of("type", "integer", "description", "Max number of results");
+        return Map.of("type", "object", "properties", Map.of("query", query, "limit", limit), "required",
+                List.of("query"));
+    }
+}
@@ -94,8 +94,8 @@ public class McpDiscoveryWithNacosExample {
      *
      * <p>
      * In this way, Nacos will auto-rebuild MCP Tools when MCP Server or MCP Tools specification changed or endpoints
-     * changed. For these changed MCP servers and tools, {@link NacosToolkit} will remove the old MCP Tools in changed
-     * MCP Server and full rebuild MCP Tools into {@link Toolkit}.
+     * changed. For these changed MCP servers and tools, {@link NacosToolkit} will only remove, add or re-register the
+     * changed MCP Tools in changed MCP Server into {@link Toolkit}, other MCP Tools keep registered.
      * </p>
      *
      * <p>